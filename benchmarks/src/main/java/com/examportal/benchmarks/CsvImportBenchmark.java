@@ -0,0 +1,133 @@
+package com.examportal.benchmarks;
+
+import com.examportal.benchmarks.support.Fields;
+import com.examportal.benchmarks.support.Stubs;
+import com.examportal.questionservice.client.ExamClient;
+import com.examportal.questionservice.repository.QuestionRepository;
+import com.examportal.questionservice.service.ExamMarksAggregator;
+import com.examportal.questionservice.service.ExamPaperCache;
+import com.examportal.questionservice.service.QuestionCsvMapper;
+import com.examportal.questionservice.service.QuestionDeduplicator;
+import com.examportal.questionservice.service.QuestionImportResult;
+import com.examportal.questionservice.service.QuestionSearchIndex;
+import com.examportal.questionservice.service.QuestionService;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSV question import with persistence stubbed out, so the numbers cover
+ * parsing and mapping: the synchronous import, which collects every question,
+ * and the streaming job's pipeline, which maps records one at a time.
+ * Duplicate detection needs the database and is covered by DuplicateDetectionBenchmark.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CsvImportBenchmark {
+
+    private static final String[] DIFFICULTIES = { "EASY", "MEDIUM", "HARD" };
+
+    @Param({ "100", "5000" })
+    private int rows;
+
+    private QuestionService questionService;
+    private byte[] csv;
+    private MultipartFile file;
+    private PrintStream originalOut;
+    private PrintStream originalErr;
+
+    @Setup
+    public void setup() {
+        csv = buildCsv(rows);
+        file = Stubs.of(MultipartFile.class, (name, args) ->
+                "getInputStream".equals(name) ? new ByteArrayInputStream(csv) : null);
+
+        ExamPaperCache examPaperCache = new ExamPaperCache();
+        Fields.set(examPaperCache, "maxEntries", 500);
+
+        questionService = new QuestionService();
+        Fields.set(questionService, "questionRepository", Stubs.of(QuestionRepository.class));
+        ExamMarksAggregator examMarksAggregator = new ExamMarksAggregator();
+        Fields.set(examMarksAggregator, "questionRepository", Stubs.of(QuestionRepository.class));
+        Fields.set(examMarksAggregator, "examClient", Stubs.of(ExamClient.class));
+        Fields.set(questionService, "examMarksAggregator", examMarksAggregator);
+        Fields.set(questionService, "examPaperCache", examPaperCache);
+        Fields.set(questionService, "questionSearchIndex", new QuestionSearchIndex());
+        Fields.set(questionService, "questionDeduplicator", Fields.set(new QuestionDeduplicator(), "enabled", false));
+    }
+
+    @Setup(Level.Iteration)
+    public void silenceConsole() {
+        // Keep the cost of any logging but not the terminal I/O
+        originalOut = System.out;
+        originalErr = System.err;
+        PrintStream sink = new PrintStream(OutputStream.nullOutputStream());
+        System.setOut(sink);
+        System.setErr(sink);
+    }
+
+    @TearDown(Level.Iteration)
+    public void restoreConsole() {
+        System.setOut(originalOut);
+        System.setErr(originalErr);
+    }
+
+    @Benchmark
+    public QuestionImportResult importQuestions() throws Exception {
+        return questionService.importQuestionsFromCSV(file, 1L, 1L);
+    }
+
+    @Benchmark
+    public void streamingMap(Blackhole blackhole) throws Exception {
+        try (Reader reader = new InputStreamReader(new ByteArrayInputStream(csv), StandardCharsets.UTF_8);
+             CSVParser csvParser = new CSVParser(reader, QuestionCsvMapper.FORMAT)) {
+            QuestionCsvMapper mapper = QuestionCsvMapper.forHeaders(csvParser.getHeaderMap());
+            for (CSVRecord csvRecord : csvParser) {
+                blackhole.consume(mapper.map(csvRecord, 1L, 1L));
+            }
+        }
+    }
+
+    private static byte[] buildCsv(int rows) {
+        StringBuilder csv = new StringBuilder("questionText,questionType,difficultyLevel,marks,options,correctAnswer,explanation\n");
+        for (int i = 0; i < rows; i++) {
+            String difficulty = DIFFICULTIES[i % DIFFICULTIES.length];
+            if (i % 5 == 4) {
+                csv.append("Is statement ").append(i).append(" about the JVM true?,TRUE_FALSE,")
+                        .append(difficulty).append(",1,\"True,False\",True,\"Statement ").append(i).append(" holds.\"\n");
+            } else {
+                csv.append("What does snippet ").append(i).append(" print?,MULTIPLE_CHOICE,")
+                        .append(difficulty).append(",2,\"A) ").append(i).append(",B) ").append(i + 1)
+                        .append(",C) ").append(i + 2).append(",D) Compilation error\",B,\"Snippet ")
+                        .append(i).append(" increments once before printing.\"\n");
+            }
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,117 @@
+package com.examportal.benchmarks;
+
+import com.examportal.benchmarks.support.Fields;
+import com.examportal.benchmarks.support.H2Database;
+import com.examportal.questionservice.entity.DifficultyLevel;
+import com.examportal.questionservice.entity.Question;
+import com.examportal.questionservice.entity.QuestionType;
+import com.examportal.questionservice.repository.QuestionFingerprintRepository;
+import com.examportal.questionservice.service.DuplicateReport;
+import com.examportal.questionservice.service.QuestionDeduplicator;
+import com.examportal.questionservice.service.QuestionMinHash;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Near-duplicate check for one import batch against a stored bank of
+ * fingerprinted questions. Half of the batch re-imports stored questions with
+ * cosmetic edits; the cost should grow with the batch, not with the bank.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DuplicateDetectionBenchmark {
+
+    private static final String[] TOPICS = { "the JVM", "React hooks", "SQL joins", "HTTP caching", "Java streams" };
+
+    @Param({ "10000", "100000" })
+    private int storedQuestions;
+
+    @Param({ "1000" })
+    private int batchSize;
+
+    private H2Database database;
+    private QuestionDeduplicator deduplicator;
+    private List<Question> batch;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        database = new H2Database();
+        QuestionFingerprintRepository repository = new QuestionFingerprintRepository();
+        Fields.set(repository, "jdbcTemplate", database.getJdbcTemplate());
+
+        deduplicator = new QuestionDeduplicator();
+        Fields.set(deduplicator, "fingerprintRepository", repository);
+        Fields.set(deduplicator, "enabled", true);
+        Fields.set(deduplicator, "threshold", 0.8);
+        Fields.set(deduplicator, "mode", "LINK");
+        Fields.set(deduplicator, "backfillBatchSize", 5000);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(storedQuestions);
+        for (int i = 0; i < storedQuestions; i++) {
+            Question question = question(i, false);
+            rows.add(new Object[] { question.getQuestionText(), "MULTIPLE_CHOICE", "MEDIUM", 2, 1L, now, now,
+                    "[\"" + String.join("\",\"", question.getOptions()) + "\"]" });
+        }
+        database.getJdbcTemplate().batchUpdate("INSERT INTO questions (question_text, question_type, difficulty_level, "
+                + "marks, exam_id, created_at, updated_at, options) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        deduplicator.fingerprintMissing(null);
+
+        batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            // Even positions re-import a stored question with different casing and spacing
+            batch.add(i % 2 == 0 ? question(i * 7 % storedQuestions, true) : question(storedQuestions + i, false));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Benchmark
+    public DuplicateReport checkBatch() {
+        return deduplicator.check(batch);
+    }
+
+    @Benchmark
+    public int[] signature() {
+        Question question = batch.get(1);
+        return QuestionMinHash.signature(question.getQuestionText(), question.getOptions());
+    }
+
+    private static Question question(int n, boolean edited) {
+        String topic = TOPICS[n % TOPICS.length];
+        String text = "Which statement about " + topic + " is correct in scenario " + n
+                + " when the input has " + (n % 97) + " elements and the cache is " + (n % 2 == 0 ? "warm" : "cold") + "?";
+        Question question = new Question();
+        question.setQuestionText(edited ? "  " + text.toUpperCase().replace(" ", "  ") : text);
+        question.setQuestionType(QuestionType.MULTIPLE_CHOICE);
+        question.setDifficultyLevel(DifficultyLevel.MEDIUM);
+        question.setMarks(2);
+        question.setExamId(2L);
+        question.setOptions(List.of("It returns " + n, "It throws at " + (n + 1), "It blocks " + (n + 2), "None of these"));
+        return question;
+    }
+}
@@ -0,0 +1,98 @@
+package com.examportal.benchmarks;
+
+import com.examportal.benchmarks.support.Fields;
+import com.examportal.examsessionservice.dto.AnswerKeyEntry;
+import com.examportal.examsessionservice.dto.GradingSummary;
+import com.examportal.examsessionservice.entity.ExamSession;
+import com.examportal.examsessionservice.entity.SessionAnswer;
+import com.examportal.examsessionservice.repository.SessionAnswerBatchRepository;
+import com.examportal.examsessionservice.service.AnswerKey;
+import com.examportal.examsessionservice.service.GradingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Answer-key compilation and in-memory grading of one session. The grade
+ * write-back is replaced with a no-op; RepositoryBenchmark covers it on H2.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GradingBenchmark {
+
+    @Param({ "50", "200" })
+    private int questions;
+
+    private List<AnswerKeyEntry> entries;
+    private AnswerKey answerKey;
+    private ExamSession session;
+    private List<SessionAnswer> answers;
+    private GradingService gradingService;
+
+    @Setup
+    public void setup() {
+        entries = new ArrayList<>(questions);
+        answers = new ArrayList<>(questions);
+        for (int i = 0; i < questions; i++) {
+            long questionId = i + 1;
+            SessionAnswer answer = new SessionAnswer(1L, questionId, null);
+            answer.setId(questionId);
+            switch (i % 3) {
+                case 0:
+                    entries.add(new AnswerKeyEntry(questionId, "MULTIPLE_CHOICE", 2,
+                            List.of("A) 2 bytes", "B) 4 bytes", "C) 8 bytes", "D) Depends on system"), "B"));
+                    answer.setAnswerText(i % 2 == 0 ? "B) 4 bytes" : "C");
+                    break;
+                case 1:
+                    entries.add(new AnswerKeyEntry(questionId, "TRUE_FALSE", 1, List.of("True", "False"), "True"));
+                    answer.setAnswerText(i % 2 == 0 ? "true" : "False");
+                    break;
+                default:
+                    entries.add(new AnswerKeyEntry(questionId, "SHORT_ANSWER", 3, List.of(), "garbage collector|GC"));
+                    answer.setAnswerText(i % 2 == 0 ? "  Garbage   Collector " : "finalizer");
+                    break;
+            }
+            answers.add(answer);
+        }
+        answerKey = AnswerKey.compile(1L, "bench", entries);
+
+        session = new ExamSession(1L, 1L, 3600, questions);
+        session.setId(1L);
+        session.setStartTime(LocalDateTime.now().minusMinutes(30));
+
+        gradingService = new GradingService();
+        Fields.set(gradingService, "sessionAnswerBatchRepository", new SessionAnswerBatchRepository() {
+            @Override
+            public int[][] updateGrades(List<SessionAnswer> answers) {
+                return new int[][] {new int[answers.size()]};
+            }
+        });
+    }
+
+    @Benchmark
+    public AnswerKey compileAnswerKey() {
+        return AnswerKey.compile(1L, "bench", entries);
+    }
+
+    @Benchmark
+    public GradingSummary gradeSession() {
+        return gradingService.gradeSession(session, answerKey, answers);
+    }
+}
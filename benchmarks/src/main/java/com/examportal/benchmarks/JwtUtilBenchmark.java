@@ -0,0 +1,107 @@
+package com.examportal.benchmarks;
+
+import com.examportal.benchmarks.support.Fields;
+import com.examportal.examservice.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request JWT cost in the resource services' filters: a repeat token served
+ * from the claims cache, a token that misses the cache, and a bare jjwt parse
+ * as the pre-cache baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET = "mySecretKey123456789012345678901234567890";
+    private static final int DISTINCT_TOKENS = 1024;
+
+    private JwtUtil cachedJwtUtil;
+    private JwtUtil uncachedJwtUtil;
+    private JwtParser baselineParser;
+    private String[] tokens;
+    private int next;
+
+    @Setup
+    public void setup() {
+        cachedJwtUtil = newJwtUtil(10000);
+        // A single-entry cache with rotating tokens misses on every call
+        uncachedJwtUtil = newJwtUtil(1);
+
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        baselineParser = Jwts.parserBuilder().setSigningKey(key).build();
+
+        tokens = new String[DISTINCT_TOKENS];
+        for (int i = 0; i < DISTINCT_TOKENS; i++) {
+            Map<String, Object> claims = new HashMap<>();
+            claims.put("role", i % 10 == 0 ? "TEACHER" : "STUDENT");
+            claims.put("userId", (long) i + 1);
+            tokens[i] = Jwts.builder()
+                    .setClaims(claims)
+                    .setSubject("user" + i)
+                    .setIssuedAt(new Date())
+                    .setExpiration(new Date(System.currentTimeMillis() + 86400000))
+                    .signWith(key, SignatureAlgorithm.HS256)
+                    .compact();
+        }
+        for (String token : tokens) {
+            cachedJwtUtil.extractAllClaims(token);
+        }
+    }
+
+    @Benchmark
+    public Claims cachedExtractAndValidate() {
+        Claims claims = cachedJwtUtil.extractAllClaims(nextToken());
+        return cachedJwtUtil.validateClaims(claims) ? claims : null;
+    }
+
+    @Benchmark
+    public Claims uncachedExtractAndValidate() {
+        Claims claims = uncachedJwtUtil.extractAllClaims(nextToken());
+        return uncachedJwtUtil.validateClaims(claims) ? claims : null;
+    }
+
+    @Benchmark
+    public Claims baselineParse() {
+        return baselineParser.parseClaimsJws(nextToken()).getBody();
+    }
+
+    private String nextToken() {
+        String token = tokens[next];
+        next = (next + 1) % DISTINCT_TOKENS;
+        return token;
+    }
+
+    private static JwtUtil newJwtUtil(int maxEntries) {
+        JwtUtil jwtUtil = new JwtUtil();
+        Fields.set(jwtUtil, "secret", SECRET);
+        Fields.set(jwtUtil, "expiration", 86400000L);
+        Fields.set(jwtUtil, "claimsCacheMaxEntries", maxEntries);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+}
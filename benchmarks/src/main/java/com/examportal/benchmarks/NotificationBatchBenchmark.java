@@ -0,0 +1,125 @@
+package com.examportal.benchmarks;
+
+import com.examportal.benchmarks.support.Fields;
+import com.examportal.benchmarks.support.H2Database;
+import com.examportal.notificationservice.entity.Notification;
+import com.examportal.notificationservice.repository.NotificationBatchRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One page of the exam-published fan-out: building the notification entities,
+ * writing a page that is half notified already (a resumed fan-out), and writing
+ * a fresh page either as multi-row INSERT IGNOREs or row by row.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NotificationBatchBenchmark {
+
+    private static final String INSERT_SQL =
+            "INSERT IGNORE INTO notifications (user_id, exam_id, title, message, type, is_read, created_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final long PUBLISHED_EXAM_ID = 1L;
+    private static final long WRITE_EXAM_ID = 2L;
+
+    @Param({ "500" })
+    private int pageSize;
+
+    private H2Database database;
+    private NotificationBatchRepository repository;
+    private List<Long> userIds;
+    private List<Notification> resumedPage;
+    private List<Notification> page;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        database = new H2Database();
+        repository = new NotificationBatchRepository();
+        Fields.set(repository, "jdbcTemplate", database.getJdbcTemplate());
+
+        userIds = new ArrayList<>(pageSize);
+        for (long userId = 1; userId <= pageSize; userId++) {
+            userIds.add(userId);
+        }
+        // Half of exam 1 already notified, as when a fan-out resumes mid-page
+        repository.insertAll(buildPage(PUBLISHED_EXAM_ID).subList(0, pageSize / 2), pageSize);
+        // Only the first invocation inserts the other half; after that every row is skipped
+        resumedPage = buildPage(PUBLISHED_EXAM_ID);
+        page = buildPage(WRITE_EXAM_ID);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Benchmark
+    public List<Notification> buildNotifications() {
+        return buildPage(WRITE_EXAM_ID);
+    }
+
+    @Benchmark
+    public int insertResumed() {
+        return repository.insertAll(resumedPage, pageSize);
+    }
+
+    @Benchmark
+    public int insertBatched(WriteState state) {
+        return repository.insertAll(page, pageSize);
+    }
+
+    @Benchmark
+    public void insertRowByRow(WriteState state) {
+        for (Notification notification : page) {
+            database.getJdbcTemplate().update(INSERT_SQL,
+                    notification.getUserId(), notification.getExamId(), notification.getTitle(),
+                    notification.getMessage(), notification.getType(), notification.getIsRead(),
+                    Timestamp.valueOf(notification.getCreatedAt()));
+        }
+    }
+
+    private List<Notification> buildPage(long examId) {
+        List<Notification> notifications = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            notifications.add(new Notification(userId, examId,
+                    "New Exam Published: Core Java Fundamentals",
+                    "A new exam 'Core Java Fundamentals' has been published. Duration: 60 minutes. Total marks: 100.",
+                    "EXAM_PUBLISHED"));
+        }
+        return notifications;
+    }
+
+    /**
+     * Empties the fresh page's exam before each write, so every call inserts
+     * the whole page instead of skipping it as already notified.
+     */
+    @State(Scope.Thread)
+    public static class WriteState {
+
+        @Setup(Level.Invocation)
+        public void reset(NotificationBatchBenchmark benchmark) {
+            benchmark.database.getJdbcTemplate().update("DELETE FROM notifications WHERE exam_id = ?", WRITE_EXAM_ID);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.examportal.benchmarks;
+
+import com.examportal.benchmarks.support.Fields;
+import com.examportal.benchmarks.support.H2Database;
+import com.examportal.examsessionservice.dto.AnswerKeyEntry;
+import com.examportal.examsessionservice.dto.BufferedAnswer;
+import com.examportal.examsessionservice.entity.SessionAnswer;
+import com.examportal.examsessionservice.repository.AnswerKeyRepository;
+import com.examportal.examsessionservice.repository.SessionAnswerBatchRepository;
+import com.examportal.examsessionservice.repository.SessionExpiryRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The exam-session-service JDBC repositories against H2 in MySQL mode: the
+ * answer buffer flush, grade write-back, answer-key load and version check,
+ * and one expiry chunk.
+ * H2 timings are only comparable with each other, not with production MySQL.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RepositoryBenchmark {
+
+    private static final long EXAM_ID = 1L;
+    private static final int QUESTIONS = 100;
+    private static final int SESSIONS = 500;
+
+    private H2Database database;
+    private JdbcTemplate jdbcTemplate;
+    private SessionAnswerBatchRepository sessionAnswerBatchRepository;
+    private AnswerKeyRepository answerKeyRepository;
+    private SessionExpiryRepository sessionExpiryRepository;
+
+    private List<BufferedAnswer> bufferedAnswers;
+    private List<SessionAnswer> gradedAnswers;
+    private List<Long> sessionIds;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        database = new H2Database();
+        jdbcTemplate = database.getJdbcTemplate();
+        sessionAnswerBatchRepository = Fields.set(new SessionAnswerBatchRepository(), "jdbcTemplate", jdbcTemplate);
+        answerKeyRepository = Fields.set(new AnswerKeyRepository(), "jdbcTemplate", jdbcTemplate);
+        sessionExpiryRepository = Fields.set(new SessionExpiryRepository(), "jdbcTemplate", jdbcTemplate);
+
+        for (int i = 1; i <= QUESTIONS; i++) {
+            jdbcTemplate.update("INSERT INTO questions (question_text, question_type, difficulty_level, marks, exam_id, "
+                            + "options, correct_answer, updated_at) VALUES (?, 'MULTIPLE_CHOICE', 'EASY', 2, ?, ?, 'B', ?)",
+                    "Question " + i, EXAM_ID,
+                    "[\"A) " + i + "\",\"B) " + (i + 1) + "\",\"C) " + (i + 2) + "\",\"D) None\"]",
+                    Timestamp.valueOf(LocalDateTime.now()));
+        }
+
+        Timestamp start = Timestamp.valueOf(LocalDateTime.now().minusHours(2));
+        Timestamp end = Timestamp.valueOf(LocalDateTime.now().minusHours(1));
+        sessionIds = new ArrayList<>(SESSIONS);
+        for (long sessionId = 1; sessionId <= SESSIONS; sessionId++) {
+            jdbcTemplate.update("INSERT INTO exam_sessions (id, exam_id, user_id, status, start_time, end_time, "
+                            + "total_questions, answered_questions) VALUES (?, ?, ?, 'IN_PROGRESS', ?, ?, ?, 0)",
+                    sessionId, EXAM_ID, sessionId, start, end, QUESTIONS);
+            sessionIds.add(sessionId);
+        }
+
+        // Session 1 holds the answers that get graded; one flush is 20 other sessions with 25 answers each
+        sessionAnswerBatchRepository.upsertAnswers(answers(1, 1));
+        bufferedAnswers = answers(2, 21);
+
+        gradedAnswers = new ArrayList<>();
+        jdbcTemplate.query("SELECT id, session_id, question_id FROM session_answers WHERE session_id = 1", rs -> {
+            SessionAnswer answer = new SessionAnswer(rs.getLong(2), rs.getLong(3), null);
+            answer.setId(rs.getLong(1));
+            answer.setIsCorrect(answer.getQuestionId() % 2 == 0);
+            answer.setMarksObtained(answer.getIsCorrect() ? 2 : 0);
+            gradedAnswers.add(answer);
+        });
+    }
+
+    private static List<BufferedAnswer> answers(long firstSessionId, long lastSessionId) {
+        List<BufferedAnswer> answers = new ArrayList<>();
+        LocalDateTime answeredAt = LocalDateTime.now();
+        for (long sessionId = firstSessionId; sessionId <= lastSessionId; sessionId++) {
+            for (long questionId = 1; questionId <= 25; questionId++) {
+                answers.add(new BufferedAnswer(sessionId, questionId, questionId % 2 == 0 ? "B" : "C", answeredAt));
+            }
+        }
+        return answers;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Benchmark
+    public void upsertAnswers(FlushState state) {
+        sessionAnswerBatchRepository.upsertAnswers(bufferedAnswers);
+    }
+
+    @Benchmark
+    public int refreshAnsweredCounts() {
+        return sessionAnswerBatchRepository.refreshAnsweredCounts(sessionIds.subList(0, 20));
+    }
+
+    @Benchmark
+    public int[][] updateGrades() {
+        return sessionAnswerBatchRepository.updateGrades(gradedAnswers);
+    }
+
+    @Benchmark
+    public List<AnswerKeyEntry> findAnswerKey() {
+        return answerKeyRepository.findAnswerKeyByExamId(EXAM_ID);
+    }
+
+    @Benchmark
+    public String findAnswerKeyVersion() {
+        return answerKeyRepository.findAnswerKeyVersion(EXAM_ID);
+    }
+
+    @Benchmark
+    public List<Long> timeOutSessionChunk(ExpiryState state) {
+        return sessionExpiryRepository.timeOutSessions(sessionIds, LocalDateTime.now());
+    }
+
+    /**
+     * Removes the flushed answers before each flush, so each call inserts them
+     * again. H2 cannot run the upsert's conditional update branch (it only
+     * accepts a bare VALUES(col) there), so the duplicate-key path is MySQL only.
+     */
+    @State(Scope.Thread)
+    public static class FlushState {
+
+        @Setup(Level.Invocation)
+        public void reset(RepositoryBenchmark benchmark) {
+            benchmark.jdbcTemplate.update("DELETE FROM session_answers WHERE session_id BETWEEN 2 AND 21");
+        }
+    }
+
+    /**
+     * Puts every session back in progress before each expiry call, so each call
+     * times out a full chunk.
+     */
+    @State(Scope.Thread)
+    public static class ExpiryState {
+
+        @Setup(Level.Invocation)
+        public void reset(RepositoryBenchmark benchmark) {
+            benchmark.jdbcTemplate.update(
+                    "UPDATE exam_sessions SET status = 'IN_PROGRESS', submitted_time = NULL WHERE status = 'TIMED_OUT'");
+        }
+    }
+}
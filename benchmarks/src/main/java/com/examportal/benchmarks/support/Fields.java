@@ -0,0 +1,30 @@
+package com.examportal.benchmarks.support;
+
+import java.lang.reflect.Field;
+
+/**
+ * Sets the @Autowired and @Value fields of service classes, so benchmarks can
+ * wire them without starting a Spring context.
+ */
+public final class Fields {
+
+    private Fields() {
+    }
+
+    public static <T> T set(T target, String name, Object value) {
+        Class<?> type = target.getClass();
+        while (type != null) {
+            try {
+                Field field = type.getDeclaredField(name);
+                field.setAccessible(true);
+                field.set(target, value);
+                return target;
+            } catch (NoSuchFieldException e) {
+                type = type.getSuperclass();
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException("Cannot set field " + name + " on " + target.getClass().getName(), e);
+            }
+        }
+        throw new RuntimeException("No field " + name + " on " + target.getClass().getName());
+    }
+}
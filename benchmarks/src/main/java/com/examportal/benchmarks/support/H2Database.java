@@ -0,0 +1,50 @@
+package com.examportal.benchmarks.support;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Embedded H2 database in MySQL mode with the tables the JDBC repositories use.
+ * Each instance is a fresh, private in-memory database.
+ */
+public class H2Database {
+
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceTransactionManager transactionManager;
+
+    public H2Database() {
+        String url = "jdbc:h2:mem:bench" + COUNTER.incrementAndGet()
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        DriverManagerDataSource ds = new DriverManagerDataSource(url, "sa", "");
+        ds.setDriverClassName("org.h2.Driver");
+        this.dataSource = ds;
+        this.jdbcTemplate = new JdbcTemplate(ds);
+        this.transactionManager = new DataSourceTransactionManager(ds);
+        new ResourceDatabasePopulator(new ClassPathResource("h2-schema.sql")).execute(ds);
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public JdbcTemplate getJdbcTemplate() {
+        return jdbcTemplate;
+    }
+
+    public DataSourceTransactionManager getTransactionManager() {
+        return transactionManager;
+    }
+
+    public void shutdown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+}
@@ -0,0 +1,81 @@
+package com.examportal.benchmarks.support;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * Interface stubs for repositories and Feign clients. Unhandled methods return
+ * an empty value of their return type, and saveAll returns its argument.
+ */
+public final class Stubs {
+
+    private Stubs() {
+    }
+
+    public static <T> T of(Class<T> type) {
+        return of(type, (name, args) -> null);
+    }
+
+    /**
+     * The handler is consulted first; returning null falls back to the default.
+     */
+    public static <T> T of(Class<T> type, BiFunction<String, Object[], Object> handler) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (self, method, args) -> {
+            switch (method.getName()) {
+                case "toString":
+                    return "Stub[" + type.getSimpleName() + "]";
+                case "hashCode":
+                    return System.identityHashCode(self);
+                case "equals":
+                    return self == args[0];
+                default:
+                    break;
+            }
+            Object handled = handler.apply(method.getName(), args);
+            if (handled != null) {
+                return handled;
+            }
+            if ("saveAll".equals(method.getName()) && args != null && args.length == 1) {
+                return args[0];
+            }
+            return defaultValue(method.getReturnType());
+        });
+        return type.cast(proxy);
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == void.class) {
+            return null;
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return false;
+        }
+        if (type == int.class || type == Integer.class) {
+            return 0;
+        }
+        if (type == long.class || type == Long.class) {
+            return 0L;
+        }
+        if (type == double.class || type == Double.class) {
+            return 0.0;
+        }
+        if (type == Optional.class) {
+            return Optional.empty();
+        }
+        if (type == List.class || type == Iterable.class) {
+            return Collections.emptyList();
+        }
+        if (type == Set.class) {
+            return Collections.emptySet();
+        }
+        if (type == Map.class) {
+            return Collections.emptyMap();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,77 @@
+-- Subset of the exam_portal schema used by the JDBC repositories under benchmark.
+-- Column names and types follow what Hibernate generates against MySQL.
+
+CREATE TABLE questions (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    question_text TEXT,
+    question_type VARCHAR(50),
+    difficulty_level VARCHAR(20),
+    marks INT,
+    exam_id BIGINT,
+    created_by BIGINT,
+    created_at TIMESTAMP NULL,
+    updated_at TIMESTAMP NULL,
+    options TEXT,
+    correct_answer VARCHAR(255),
+    explanation TEXT,
+    duplicate_of_id BIGINT
+);
+CREATE INDEX idx_questions_exam_id ON questions(exam_id);
+
+CREATE TABLE question_fingerprints (
+    question_id BIGINT PRIMARY KEY,
+    signature VARBINARY(512) NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE question_lsh_buckets (
+    question_id BIGINT NOT NULL,
+    bucket BIGINT NOT NULL,
+    PRIMARY KEY (question_id, bucket)
+);
+CREATE INDEX idx_lsh_bucket ON question_lsh_buckets(bucket);
+
+CREATE TABLE exam_sessions (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    exam_id BIGINT,
+    user_id BIGINT,
+    status VARCHAR(20),
+    start_time TIMESTAMP NULL,
+    end_time TIMESTAMP NULL,
+    submitted_time TIMESTAMP NULL,
+    time_remaining_seconds INT,
+    total_questions INT,
+    answered_questions INT,
+    current_question_index INT,
+    answers TEXT,
+    created_at TIMESTAMP NULL,
+    updated_at TIMESTAMP NULL
+);
+
+CREATE TABLE session_answers (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    session_id BIGINT,
+    question_id BIGINT,
+    answer_text TEXT,
+    is_correct BOOLEAN,
+    marks_obtained INT,
+    time_taken_seconds INT,
+    answered_at TIMESTAMP NULL,
+    created_at TIMESTAMP NULL,
+    updated_at TIMESTAMP NULL,
+    CONSTRAINT uk_session_answers_session_question UNIQUE (session_id, question_id)
+);
+
+CREATE TABLE notifications (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    exam_id BIGINT NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    message VARCHAR(1000) NOT NULL,
+    type VARCHAR(50) NOT NULL,
+    is_read BOOLEAN DEFAULT FALSE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX idx_notifications_exam_id ON notifications(exam_id);
+CREATE INDEX idx_notifications_user_id ON notifications(user_id);
+CREATE UNIQUE INDEX uk_notifications_exam_user_type ON notifications(exam_id, user_id, type);
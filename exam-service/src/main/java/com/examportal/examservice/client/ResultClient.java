@@ -0,0 +1,20 @@
+package com.examportal.examservice.client;
+
+import com.examportal.examservice.config.ServiceAuthFeignConfig;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.Map;
+
+@FeignClient(name = "result-service", configuration = ServiceAuthFeignConfig.class)
+public interface ResultClient {
+    
+    @PutMapping("/api/results/exams/{examId}/metadata")
+    void updateExamMetadata(@PathVariable("examId") Long examId, @RequestBody Map<String, Integer> metadata);
+    
+    @DeleteMapping("/api/results/exams/{examId}/metadata")
+    void evictExamMetadata(@PathVariable("examId") Long examId);
+}
\ No newline at end of file
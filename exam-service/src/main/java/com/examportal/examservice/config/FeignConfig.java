@@ -17,6 +17,10 @@ public class FeignConfig {
         return new RequestInterceptor() {
             @Override
             public void apply(RequestTemplate template) {
+                // Clients using ServiceAuthFeignConfig already carry a service token
+                if (template.headers().containsKey("Authorization")) {
+                    return;
+                }
                 ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
                 if (attributes != null) {
                     HttpServletRequest request = attributes.getRequest();
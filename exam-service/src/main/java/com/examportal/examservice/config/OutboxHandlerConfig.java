@@ -0,0 +1,57 @@
+package com.examportal.examservice.config;
+
+import com.examportal.examservice.client.NotificationClient;
+import com.examportal.examservice.client.QuestionClient;
+import com.examportal.examservice.client.ResultClient;
+import com.examportal.examservice.entity.Exam;
+import com.examportal.examservice.repository.ExamRepository;
+import com.examportal.examservice.service.ExamEvents;
+import com.examportal.outbox.OutboxHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Deliveries for the events ExamService queues in the outbox. Every call is
+ * safe to repeat: the notification fan-out is keyed by exam, the deletes are
+ * idempotent, and metadata is read fresh from the exam at delivery time.
+ */
+@Configuration
+public class OutboxHandlerConfig {
+
+    @Bean
+    public OutboxHandler examPublishedHandler(NotificationClient notificationClient) {
+        return OutboxHandler.of(ExamEvents.PUBLISHED, event -> {
+            String response = notificationClient.notifyExamPublished(event.getLong("examId"));
+            System.out.println("📧 ExamService: Notification response for exam " + event.getLong("examId") + ": " + response);
+        });
+    }
+
+    @Bean
+    public OutboxHandler examMetadataHandler(ExamRepository examRepository, ResultClient resultClient) {
+        return OutboxHandler.of(ExamEvents.METADATA_CHANGED, event -> {
+            Exam exam = examRepository.findById(event.getLong("examId")).orElse(null);
+            if (exam == null) {
+                // Deleted since; the eviction event clears result-service
+                return;
+            }
+            Map<String, Integer> metadata = new HashMap<>();
+            metadata.put("passingMarks", exam.getPassingMarks());
+            resultClient.updateExamMetadata(exam.getId(), metadata);
+        });
+    }
+
+    @Bean
+    public OutboxHandler examQuestionsDeleteHandler(QuestionClient questionClient) {
+        return OutboxHandler.of(ExamEvents.QUESTIONS_DELETE, event ->
+                questionClient.deleteQuestionsByExamId(event.getLong("examId")));
+    }
+
+    @Bean
+    public OutboxHandler examMetadataEvictHandler(ResultClient resultClient) {
+        return OutboxHandler.of(ExamEvents.METADATA_EVICT, event ->
+                resultClient.evictExamMetadata(event.getLong("examId")));
+    }
+}
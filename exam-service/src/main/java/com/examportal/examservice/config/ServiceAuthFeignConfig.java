@@ -0,0 +1,49 @@
+package com.examportal.examservice.config;
+
+import com.examportal.examservice.security.JwtUtil;
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Feign configuration for clients that call other services' internal endpoints.
+ * Every request carries a short-lived SERVICE token instead of a user's token,
+ * so it is authorized the same way from a request thread or a background job.
+ * Deliberately not a @Configuration: it only applies to the clients that name it.
+ */
+public class ServiceAuthFeignConfig {
+
+    private static final long TOKEN_VALIDITY_MS = 300000;
+    private static final long REFRESH_BEFORE_EXPIRY_MS = 60000;
+
+    @Bean
+    public RequestInterceptor serviceTokenInterceptor(JwtUtil jwtUtil,
+                                                      @Value("${spring.application.name:exam-service}") String serviceName) {
+        return new RequestInterceptor() {
+            private volatile ServiceToken current;
+
+            @Override
+            public void apply(RequestTemplate template) {
+                ServiceToken token = current;
+                if (token == null || System.currentTimeMillis() > token.expiresAt - REFRESH_BEFORE_EXPIRY_MS) {
+                    token = new ServiceToken(jwtUtil.generateServiceToken(serviceName, TOKEN_VALIDITY_MS),
+                            System.currentTimeMillis() + TOKEN_VALIDITY_MS);
+                    current = token;
+                }
+                template.removeHeader("Authorization");
+                template.header("Authorization", "Bearer " + token.value);
+            }
+        };
+    }
+
+    private static final class ServiceToken {
+        private final String value;
+        private final long expiresAt;
+
+        ServiceToken(String value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -31,6 +31,7 @@ public class Exam {
     
     private Integer passingMarks;
     
+    // Also read by exam-session-service (SessionCreateRepository) to enforce the limit
     @NotNull(message = "Max attempts is required")
     @Positive(message = "Max attempts must be positive")
     private Integer maxAttempts;
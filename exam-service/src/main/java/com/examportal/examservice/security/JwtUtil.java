@@ -1,14 +1,23 @@
 package com.examportal.examservice.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 @Component
@@ -20,8 +29,51 @@ public class JwtUtil {
     @Value("${jwt.expiration:86400000}")
     private Long expiration;
 
+    @Value("${jwt.claims-cache.max-entries:10000}")
+    private int claimsCacheMaxEntries;
+
+    // Key and parser are immutable and thread-safe, so they are built once
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    // Verified claims keyed by a SHA-256 of the token, never by the token itself
+    private final ConcurrentHashMap<String, Claims> claimsCache = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        return signingKey;
+    }
+
+    /**
+     * Short-lived token with the SERVICE role, for calls to other services'
+     * internal endpoints. User tokens never carry this role.
+     */
+    public String generateServiceToken(String serviceName, long validityMillis) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("role", "SERVICE");
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .setClaims(claims)
+                .setSubject(serviceName)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + validityMillis))
+                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .compact();
     }
 
     public String extractUsername(String token) {
@@ -37,12 +89,26 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Verifies the token's signature once and serves later calls for the same
+     * token from the cache until the token expires.
+     */
+    public Claims extractAllClaims(String token) {
+        String cacheKey = cacheKey(token);
+        Claims cached = claimsCache.get(cacheKey);
+        if (cached != null) {
+            if (!isExpired(cached)) {
+                return cached;
+            }
+            claimsCache.remove(cacheKey);
+        }
+
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        if (claimsCache.size() >= claimsCacheMaxEntries) {
+            evictClaims();
+        }
+        claimsCache.put(cacheKey, claims);
+        return claims;
     }
 
     private Boolean isTokenExpired(String token) {
@@ -69,4 +135,25 @@ public class JwtUtil {
             return false;
         }
     }
+
+    public Boolean validateClaims(Claims claims) {
+        return claims != null && !isExpired(claims);
+    }
+
+    private boolean isExpired(Claims claims) {
+        return claims.getExpiration() != null && claims.getExpiration().before(new Date());
+    }
+
+    private void evictClaims() {
+        claimsCache.entrySet().removeIf(entry -> isExpired(entry.getValue()));
+        // Still full of live tokens: start over rather than grow without bound
+        if (claimsCache.size() >= claimsCacheMaxEntries) {
+            claimsCache.clear();
+        }
+    }
+
+    private static String cacheKey(String token) {
+        byte[] digest = SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(digest);
+    }
 }
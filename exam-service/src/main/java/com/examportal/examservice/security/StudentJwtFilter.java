@@ -1,5 +1,6 @@
 package com.examportal.examservice.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -29,10 +30,11 @@ public class StudentJwtFilter extends OncePerRequestFilter {
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
             String jwt = authorizationHeader.substring(7);
             try {
-                String username = jwtUtil.extractUsername(jwt);
-                String role = jwtUtil.extractRole(jwt);
+                Claims claims = jwtUtil.extractAllClaims(jwt);
+                String username = claims.getSubject();
+                String role = claims.get("role", String.class);
                 
-                if ("STUDENT".equals(role) && jwtUtil.validateToken(jwt)) {
+                if ("STUDENT".equals(role) && jwtUtil.validateClaims(claims)) {
                     logger.info("StudentJwtFilter - Authenticating STUDENT: " + username);
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             username, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_STUDENT")));
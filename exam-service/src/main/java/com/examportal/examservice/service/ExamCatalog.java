@@ -0,0 +1,217 @@
+package com.examportal.examservice.service;
+
+import com.examportal.examservice.entity.Exam;
+import com.examportal.examservice.entity.ExamStatus;
+import com.examportal.examservice.repository.ExamRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory catalog of published (ACTIVE) exams: all of them, and the
+ * upcoming and completed ones by their start and end times. The lists are
+ * rebuilt when a write through {@link ExamService} commits and when the next
+ * start or end time passes, so dashboard reads never touch the database.
+ *
+ * A full reload runs every exam.catalog.refresh-ms to pick up writes made by
+ * other instances or directly in the database.
+ */
+@Component
+public class ExamCatalog {
+    
+    private static final Comparator<Exam> BY_ID = Comparator.comparing(Exam::getId);
+    
+    @Autowired
+    private ExamRepository examRepository;
+    
+    @Value("${exam.catalog.refresh-ms:60000}")
+    private long refreshMs;
+    
+    private final Map<Long, Exam> published = new ConcurrentHashMap<>();
+    private volatile Snapshot snapshot;
+    
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "exam-catalog");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ScheduledFuture<?> nextTransition;
+    
+    private static class Snapshot {
+        
+        private final List<Exam> active;
+        private final List<Exam> upcoming;
+        private final List<Exam> completed;
+        
+        Snapshot(List<Exam> active, List<Exam> upcoming, List<Exam> completed) {
+            this.active = List.copyOf(active);
+            this.upcoming = List.copyOf(upcoming);
+            this.completed = List.copyOf(completed);
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            reload();
+        } catch (Exception e) {
+            System.err.println("Failed to load exam catalog: " + e.getMessage());
+        }
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                reload();
+            } catch (Exception e) {
+                System.err.println("Failed to refresh exam catalog: " + e.getMessage());
+            }
+        }, refreshMs, refreshMs, TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+    
+    public synchronized void reload() {
+        List<Exam> exams = examRepository.findByStatus(ExamStatus.ACTIVE);
+        published.clear();
+        for (Exam exam : exams) {
+            published.put(exam.getId(), exam);
+        }
+        rebuild();
+    }
+    
+    /**
+     * Records a saved exam: published exams are added or replaced, anything
+     * else is dropped from the catalog. Inside a transaction this waits for the
+     * commit, so a rolled-back write never shows up.
+     */
+    public void put(Exam exam) {
+        afterCommit(() -> apply(exam));
+    }
+    
+    public void remove(Long examId) {
+        afterCommit(() -> applyRemove(examId));
+    }
+    
+    // Every published exam, whatever its start and end times, as findByStatus(ACTIVE) returns
+    public List<Exam> getActive() {
+        return current().active;
+    }
+    
+    // Published exams whose start time has not been reached
+    public List<Exam> getUpcoming() {
+        return current().upcoming;
+    }
+    
+    // Published exams whose end time has passed
+    public List<Exam> getCompleted() {
+        return current().completed;
+    }
+    
+    private synchronized void apply(Exam exam) {
+        if (snapshot == null || exam.getId() == null) {
+            return;
+        }
+        if (exam.getStatus() == ExamStatus.ACTIVE) {
+            published.put(exam.getId(), exam);
+        } else {
+            published.remove(exam.getId());
+        }
+        rebuild();
+    }
+    
+    private synchronized void applyRemove(Long examId) {
+        if (snapshot != null && published.remove(examId) != null) {
+            rebuild();
+        }
+    }
+    
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+    
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    reload();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+    
+    /**
+     * Re-sorts the exams by the current time and schedules the next rebuild
+     * for the earliest start or end time still ahead.
+     */
+    private synchronized void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Exam> active = new ArrayList<>(published.values());
+        List<Exam> upcoming = new ArrayList<>();
+        List<Exam> completed = new ArrayList<>();
+        LocalDateTime next = null;
+        for (Exam exam : active) {
+            LocalDateTime start = exam.getStartTime();
+            LocalDateTime end = exam.getEndTime();
+            if (start != null && start.isAfter(now)) {
+                upcoming.add(exam);
+                next = earliest(next, start);
+            } else if (end != null && end.isBefore(now)) {
+                completed.add(exam);
+            } else if (end != null) {
+                next = earliest(next, end);
+            }
+        }
+        active.sort(BY_ID);
+        upcoming.sort(BY_ID);
+        completed.sort(BY_ID);
+        snapshot = new Snapshot(active, upcoming, completed);
+        schedule(now, next);
+    }
+    
+    private void schedule(LocalDateTime now, LocalDateTime next) {
+        if (nextTransition != null) {
+            nextTransition.cancel(false);
+            nextTransition = null;
+        }
+        if (next == null || scheduler.isShutdown()) {
+            return;
+        }
+        // An exam ends once the time is strictly past its end time
+        long delayMs = Math.max(0, Duration.between(now, next).toMillis()) + 1;
+        nextTransition = scheduler.schedule(this::rebuild, delayMs, TimeUnit.MILLISECONDS);
+    }
+    
+    private static LocalDateTime earliest(LocalDateTime current, LocalDateTime candidate) {
+        return current == null || candidate.isBefore(current) ? candidate : current;
+    }
+}
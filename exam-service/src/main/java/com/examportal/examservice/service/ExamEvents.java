@@ -0,0 +1,42 @@
+package com.examportal.examservice.service;
+
+import com.examportal.examservice.entity.Exam;
+import com.examportal.outbox.Outbox;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Queues the cross-service side effects of exam changes in the outbox. Call
+ * from inside the transaction that makes the change.
+ */
+@Component
+public class ExamEvents {
+    
+    public static final String PUBLISHED = "exam.published";
+    public static final String METADATA_CHANGED = "exam.metadata.changed";
+    public static final String QUESTIONS_DELETE = "exam.questions.delete";
+    public static final String METADATA_EVICT = "exam.metadata.evict";
+    
+    @Autowired
+    private Outbox outbox;
+    
+    // Each publish is its own event; notification-service ignores repeats for the same exam
+    public void published(Exam exam) {
+        outbox.enqueue(PUBLISHED, PUBLISHED + ":" + exam.getId() + ":" + exam.getStartTime(), payload(exam.getId()));
+    }
+    
+    public void metadataChanged(Exam exam) {
+        outbox.enqueue(METADATA_CHANGED, METADATA_CHANGED + ":" + exam.getId() + ":" + exam.getUpdatedAt(), payload(exam.getId()));
+    }
+    
+    public void deleted(Long examId) {
+        outbox.enqueue(QUESTIONS_DELETE, QUESTIONS_DELETE + ":" + examId, payload(examId));
+        outbox.enqueue(METADATA_EVICT, METADATA_EVICT + ":" + examId, payload(examId));
+    }
+    
+    private static Map<String, Object> payload(Long examId) {
+        return Map.of("examId", examId);
+    }
+}
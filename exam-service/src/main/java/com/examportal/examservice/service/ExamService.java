@@ -1,7 +1,5 @@
 package com.examportal.examservice.service;
 
-import com.examportal.examservice.client.NotificationClient;
-import com.examportal.examservice.client.QuestionClient;
 import com.examportal.examservice.entity.Exam;
 import com.examportal.examservice.entity.ExamStatus;
 import com.examportal.examservice.repository.ExamRepository;
@@ -22,10 +20,10 @@ public class ExamService {
     private ExamRepository examRepository;
     
     @Autowired
-    private NotificationClient notificationClient;
+    private ExamEvents examEvents;
     
     @Autowired
-    private QuestionClient questionClient;
+    private ExamCatalog examCatalog;
     
     public List<Exam> getAllExams() {
         return examRepository.findAll();
@@ -48,6 +46,7 @@ public class ExamService {
                 .orElseThrow(() -> new RuntimeException("Exam not found with id: " + id));
     }
     
+    @Transactional
     public Exam createExam(Exam exam) {
         exam.setCreatedAt(LocalDateTime.now());
         exam.setUpdatedAt(LocalDateTime.now());
@@ -58,9 +57,13 @@ public class ExamService {
             exam.setPassingMarks(exam.getTotalMarks() / 2);
         }
         
-        return examRepository.save(exam);
+        Exam savedExam = examRepository.save(exam);
+        examCatalog.put(savedExam);
+        publishExamMetadata(savedExam);
+        return savedExam;
     }
     
+    @Transactional
     public Exam updateExam(Long id, Exam examDetails) {
         Exam exam = getExamById(id);
         exam.setTitle(examDetails.getTitle());
@@ -77,39 +80,28 @@ public class ExamService {
             exam.setPassingMarks(examDetails.getTotalMarks() / 2);
         }
         
-        return examRepository.save(exam);
+        Exam savedExam = examRepository.save(exam);
+        examCatalog.put(savedExam);
+        publishExamMetadata(savedExam);
+        return savedExam;
     }
     
     @Transactional
     public void deleteExam(Long id) {
         System.out.println("Starting deletion process for exam: " + id);
         
-        // First try to delete questions via question service
-        try {
-            System.out.println("Attempting to delete questions via question service...");
-            questionClient.deleteQuestionsByExamId(id);
-            System.out.println("Successfully deleted questions via question service for exam: " + id);
-        } catch (Exception e) {
-            System.err.println("Failed to delete questions via service: " + e.getMessage());
-            // Fallback to direct database deletion
-            try {
-                System.out.println("Falling back to direct database deletion...");
-                examRepository.deleteQuestionsByExamId(id);
-                System.out.println("Successfully deleted questions via database for exam: " + id);
-            } catch (Exception dbError) {
-                System.err.println("Failed to delete questions via database: " + dbError.getMessage());
-                throw new RuntimeException("Failed to delete questions for exam: " + id, dbError);
-            }
-        }
-        
         // Delete the exam
         try {
             examRepository.deleteById(id);
+            examCatalog.remove(id);
             System.out.println("Successfully deleted exam: " + id);
         } catch (Exception e) {
             System.err.println("Failed to delete exam: " + e.getMessage());
             throw new RuntimeException("Failed to delete exam: " + id, e);
         }
+        
+        // Questions and result-service metadata are removed by the outbox relay after commit
+        examEvents.deleted(id);
     }
     
     public List<Exam> getExamsByCreatedBy(Long createdBy) {
@@ -120,6 +112,7 @@ public class ExamService {
         return examRepository.findByStatus(status);
     }
     
+    @Transactional
     public Exam publishExam(Long id) {
         Exam exam = getExamById(id);
         // Normalize "publish" to ACTIVE to avoid PUBLISHED vs ACTIVE confusion
@@ -129,18 +122,11 @@ public class ExamService {
         exam.setUpdatedAt(LocalDateTime.now());
         
         Exam savedExam = examRepository.save(exam);
+        examCatalog.put(savedExam);
         
-        // Send notification to students using Feign Client
-        try {
-            System.out.println("📧 ExamService: Sending notification via Feign Client for exam ID: " + id);
-            System.out.println("📧 ExamService: Exam title: " + savedExam.getTitle());
-            String response = notificationClient.notifyExamPublished(id);
-            System.out.println("📧 ExamService: Feign Client response: " + response);
-        } catch (Exception e) {
-            System.err.println("❌ ExamService: Failed to send notification via Feign: " + e.getMessage());
-            System.err.println("❌ ExamService: Exception class: " + e.getClass().getSimpleName());
-            e.printStackTrace();
-        }
+        // Students are notified by the outbox relay once this commits
+        System.out.println("📧 ExamService: Queueing notification for exam ID: " + id);
+        examEvents.published(savedExam);
         
         return savedExam;
     }
@@ -151,7 +137,9 @@ public class ExamService {
         exam.setStartTime(LocalDateTime.now());
         exam.setEndTime(LocalDateTime.now().plusMinutes(exam.getDurationMinutes()));
         exam.setUpdatedAt(LocalDateTime.now());
-        return examRepository.save(exam);
+        Exam savedExam = examRepository.save(exam);
+        examCatalog.put(savedExam);
+        return savedExam;
     }
     
     public Exam unpublishExam(Long id) {
@@ -160,21 +148,25 @@ public class ExamService {
         exam.setStartTime(null);
         exam.setEndTime(null);
         exam.setUpdatedAt(LocalDateTime.now());
-        return examRepository.save(exam);
+        Exam savedExam = examRepository.save(exam);
+        examCatalog.put(savedExam);
+        return savedExam;
     }
     
+    // Dashboard lists are served from the in-memory catalog
     public List<Exam> getActiveExams() {
-        return examRepository.findByStatus(ExamStatus.ACTIVE);
+        return examCatalog.getActive();
     }
     
     public List<Exam> getUpcomingExams() {
-        return examRepository.findUpcomingExams(ExamStatus.ACTIVE, LocalDateTime.now());
+        return examCatalog.getUpcoming();
     }
     
     public List<Exam> getCompletedExams() {
-        return examRepository.findCompletedExams(ExamStatus.ACTIVE, LocalDateTime.now());
+        return examCatalog.getCompleted();
     }
     
+    @Transactional
     public void updateTotalMarks(Long examId, Integer totalMarks) {
         Exam exam = getExamById(examId);
         exam.setTotalMarks(totalMarks);
@@ -185,6 +177,13 @@ public class ExamService {
         }
         
         exam.setUpdatedAt(LocalDateTime.now());
-        examRepository.save(exam);
+        Exam savedExam = examRepository.save(exam);
+        examCatalog.put(savedExam);
+        publishExamMetadata(savedExam);
+    }
+    
+    // Push passing marks to result-service so it never has to call back while saving results
+    private void publishExamMetadata(Exam exam) {
+        examEvents.metadataChanged(exam);
     }
 }
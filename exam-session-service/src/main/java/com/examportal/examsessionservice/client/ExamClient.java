@@ -0,0 +1,13 @@
+package com.examportal.examsessionservice.client;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+@FeignClient(name = "exam-service")
+public interface ExamClient {
+    
+    // Raw JSON, passed through to clients unchanged
+    @GetMapping("/api/exams/{id}")
+    String getExamJson(@PathVariable("id") Long id);
+}
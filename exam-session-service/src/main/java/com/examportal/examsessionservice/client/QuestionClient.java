@@ -0,0 +1,18 @@
+package com.examportal.examsessionservice.client;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+
+@FeignClient(name = "question-service")
+public interface QuestionClient {
+    
+    // Called without a token, so question-service returns the paper without answers.
+    // A matching If-None-Match comes back as a FeignException with status 304.
+    @GetMapping("/api/questions/exam/{examId}")
+    ResponseEntity<String> getStudentPaper(@PathVariable("examId") Long examId,
+                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch);
+}
@@ -0,0 +1,14 @@
+package com.examportal.examsessionservice.client;
+
+import com.examportal.examsessionservice.config.ServiceAuthFeignConfig;
+import com.examportal.examsessionservice.dto.GradingSummary;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+@FeignClient(name = "result-service", configuration = ServiceAuthFeignConfig.class)
+public interface ResultClient {
+    
+    @PostMapping("/api/results/graded")
+    Object recordGradedResult(@RequestBody GradingSummary summary);
+}
@@ -0,0 +1,20 @@
+package com.examportal.examsessionservice.config;
+
+import com.examportal.examsessionservice.service.SessionEvents;
+import com.examportal.examsessionservice.service.SessionGrader;
+import com.examportal.outbox.OutboxHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Deliveries for the events ExamSessionService queues in the outbox.
+ */
+@Configuration
+public class OutboxHandlerConfig {
+
+    @Bean
+    public OutboxHandler sessionGradeHandler(SessionGrader sessionGrader) {
+        return OutboxHandler.of(SessionEvents.GRADE, event ->
+                sessionGrader.gradeAndRecordResult(event.getLong("sessionId")));
+    }
+}
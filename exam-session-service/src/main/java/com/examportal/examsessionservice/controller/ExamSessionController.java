@@ -1,36 +1,100 @@
 package com.examportal.examsessionservice.controller;
 
+import com.examportal.examsessionservice.dto.AnswerSubmission;
+import com.examportal.examsessionservice.dto.ResumeSnapshot;
 import com.examportal.examsessionservice.entity.ExamSession;
 import com.examportal.examsessionservice.entity.SessionAnswer;
+import com.examportal.examsessionservice.entity.SessionStatus;
+import com.examportal.examsessionservice.service.AdmissionControl;
 import com.examportal.examsessionservice.service.ExamSessionService;
+import com.examportal.examsessionservice.service.SessionResumeService;
+import com.examportal.web.CursorPage;
+import com.examportal.web.ExportWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/sessions")
 @CrossOrigin(origins = "*")
 public class ExamSessionController {
     
+    private static final int MAX_BATCH_ANSWERS = 1000;
+    
     @Autowired
     private ExamSessionService examSessionService;
     
+    @Autowired
+    private SessionResumeService sessionResumeService;
+    
+    @Autowired
+    private AdmissionControl admissionControl;
+    
+    // Without an admitted ticket this may answer 429 with a ticket for the waiting room.
+    // Repeating a create returns the same session while the student's attempt is unfinished,
+    // or for the same Idempotency-Key.
     @PostMapping("/create")
     public ResponseEntity<?> createSession(@RequestParam Long examId, 
                                                    @RequestParam Long userId,
                                                    @RequestParam Integer durationMinutes,
-                                                   @RequestParam Integer totalQuestions) {
+                                                   @RequestParam Integer totalQuestions,
+                                                   @RequestHeader(value = "X-Admission-Ticket", required = false) String admissionTicket,
+                                                   @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > 100)) {
+            return ResponseEntity.badRequest().body("Idempotency-Key must be 1 to 100 characters");
+        }
         try {
-            ExamSession session = examSessionService.createSession(examId, userId, durationMinutes, totalQuestions);
+            AdmissionControl.Decision decision = admissionControl.admit(examId, userId, admissionTicket);
+            if (!decision.isAdmitted()) {
+                Map<String, Object> body = new LinkedHashMap<>();
+                body.put("message", "Too many students are starting this exam, please wait for your turn");
+                body.put("ticketId", decision.getTicketId());
+                body.put("position", decision.getPosition());
+                body.put("retryAfterSeconds", decision.getRetryAfterSeconds());
+                body.put("events", "/api/sessions/admission/" + decision.getTicketId() + "/events");
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(decision.getRetryAfterSeconds()))
+                        .body(body);
+            }
+            ExamSession session = examSessionService.createSession(examId, userId, durationMinutes, totalQuestions, idempotencyKey);
             return ResponseEntity.ok(session);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body("Error creating session: " + e.getMessage());
         }
     }
     
+    // Joins the exam's waiting room; follow the ticket's events, then create with X-Admission-Ticket
+    @PostMapping("/admission")
+    public ResponseEntity<Map<String, Object>> joinAdmission(@RequestParam Long examId, @RequestParam Long userId) {
+        AdmissionControl.Ticket ticket = admissionControl.join(examId, userId);
+        return ResponseEntity.ok(admissionControl.describe(ticket));
+    }
+    
+    // Server-Sent Events: "position" updates, then "admitted" or "expired"
+    @GetMapping(value = "/admission/{ticketId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter admissionEvents(@PathVariable String ticketId) {
+        return admissionControl.subscribe(ticketId);
+    }
+    
+    @GetMapping("/admission/stats")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<Map<String, Object>> getAdmissionStats() {
+        return ResponseEntity.ok(admissionControl.getStats());
+    }
+    
     @PostMapping("/{sessionId}/start")
     public ResponseEntity<?> startSession(@PathVariable Long sessionId) {
         try {
@@ -49,6 +113,28 @@ public class ExamSessionController {
         return ResponseEntity.ok(session);
     }
     
+    // Batch of {questionId, answerText, clientTimestamp}; safe to retry
+    // X-Client-Time is the client's clock in epoch milliseconds when it sent the batch;
+    // it is required when the answers carry a clientTimestamp
+    @PostMapping("/{sessionId}/answers")
+    public ResponseEntity<?> submitAnswers(@PathVariable Long sessionId,
+                                           @RequestBody List<AnswerSubmission> answers,
+                                           @RequestHeader(value = "X-Client-Time", required = false) Long clientTime) {
+        if (answers.isEmpty() || answers.size() > MAX_BATCH_ANSWERS) {
+            return ResponseEntity.badRequest().body("A batch must hold between 1 and " + MAX_BATCH_ANSWERS + " answers");
+        }
+        for (AnswerSubmission answer : answers) {
+            if (answer == null || answer.getQuestionId() == null) {
+                return ResponseEntity.badRequest().body("Each answer needs a questionId");
+            }
+            if (answer.getClientTimestamp() != null && clientTime == null) {
+                return ResponseEntity.badRequest().body("X-Client-Time is required when answers carry a clientTimestamp");
+            }
+        }
+        ExamSession session = examSessionService.submitAnswers(sessionId, answers, clientTime);
+        return ResponseEntity.ok(session);
+    }
+    
     @PostMapping("/{sessionId}/submit")
     public ResponseEntity<ExamSession> submitSession(@PathVariable Long sessionId) {
         ExamSession session = examSessionService.submitSession(sessionId);
@@ -61,6 +147,32 @@ public class ExamSessionController {
         return ResponseEntity.ok(session);
     }
     
+    // Session, saved answers, exam and paper in one response; revalidate with If-None-Match
+    @GetMapping("/{sessionId}/resume")
+    public ResponseEntity<?> resumeSession(@PathVariable Long sessionId,
+                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        ResumeSnapshot snapshot;
+        try {
+            snapshot = sessionResumeService.getSnapshot(sessionId, ifNoneMatch);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Error resuming session: " + e.getMessage());
+        }
+        String timeRemaining = String.valueOf(snapshot.getTimeRemainingSeconds());
+        if (snapshot.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(snapshot.getEtag())
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .header("X-Time-Remaining-Seconds", timeRemaining)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(snapshot.getEtag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .header("X-Time-Remaining-Seconds", timeRemaining)
+                .body(snapshot.getJson());
+    }
+    
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<ExamSession>> getSessionsByUserId(@PathVariable Long userId) {
         List<ExamSession> sessions = examSessionService.getSessionsByUserId(userId);
@@ -74,19 +186,74 @@ public class ExamSessionController {
         return ResponseEntity.ok(sessions);
     }
     
+    // Keyset-paginated, newest first; pass nextCursor from the previous page as cursor
+    @GetMapping("/exam/{examId}/page")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<CursorPage<ExamSession>> getSessionsPageByExamId(
+            @PathVariable Long examId,
+            @RequestParam(value = "cursor", required = false) Long cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        return ResponseEntity.ok(examSessionService.getSessionsPageByExamId(examId, cursor, size));
+    }
+    
+    // Streams CSV or NDJSON straight from a database cursor; add gzip=true for a compressed download
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<StreamingResponseBody> exportSessions(
+            @RequestParam(value = "examId", required = false) Long examId,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "format", defaultValue = "csv") String format,
+            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip) {
+        ExportWriter.Format exportFormat;
+        SessionStatus sessionStatus;
+        try {
+            exportFormat = ExportWriter.Format.parse(format);
+            sessionStatus = status != null ? SessionStatus.valueOf(status.toUpperCase()) : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = out ->
+                examSessionService.exportSessions(examId, sessionStatus, from, to, exportFormat, gzip, out);
+        return ResponseEntity.ok()
+                .headers(ExportWriter.headers(examId != null ? "sessions-exam-" + examId : "sessions", exportFormat, gzip))
+                .body(body);
+    }
+    
     @GetMapping("/user/{userId}/active")
     public ResponseEntity<List<ExamSession>> getActiveSessionsByUserId(@PathVariable Long userId) {
         List<ExamSession> sessions = examSessionService.getActiveSessionsByUserId(userId);
         return ResponseEntity.ok(sessions);
     }
     
+    // Kept for old clients: the server owns the clock, so the reported time is ignored
     @PutMapping("/{sessionId}/time")
     public ResponseEntity<ExamSession> updateTimeRemaining(@PathVariable Long sessionId,
-                                                          @RequestParam Integer timeRemainingSeconds) {
-        ExamSession session = examSessionService.updateTimeRemaining(sessionId, timeRemainingSeconds);
+                                                          @RequestParam(required = false) Integer timeRemainingSeconds) {
+        ExamSession session = examSessionService.getSessionById(sessionId);
         return ResponseEntity.ok(session);
     }
     
+    // Server-Sent Events: "time" ticks, "extended" and a final "submit"
+    @GetMapping(value = "/{sessionId}/timer", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTimer(@PathVariable Long sessionId) {
+        return examSessionService.streamTimer(sessionId);
+    }
+    
+    @PostMapping("/{sessionId}/extend")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<?> extendSession(@PathVariable Long sessionId, @RequestParam Integer seconds) {
+        if (seconds <= 0) {
+            return ResponseEntity.badRequest().body("Extension must be a positive number of seconds");
+        }
+        try {
+            return ResponseEntity.ok(examSessionService.extendSession(sessionId, seconds));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Error extending session: " + e.getMessage());
+        }
+    }
+    
     @GetMapping("/{sessionId}/answers")
     public ResponseEntity<List<SessionAnswer>> getSessionAnswers(@PathVariable Long sessionId) {
         List<SessionAnswer> answers = examSessionService.getSessionAnswers(sessionId);
@@ -0,0 +1,44 @@
+package com.examportal.examsessionservice.dto;
+
+import java.util.List;
+
+/**
+ * Answer key row for one question, as stored in the shared questions table,
+ * with its options parsed into a list.
+ */
+public class AnswerKeyEntry {
+    
+    private final Long questionId;
+    private final String questionType;
+    private final Integer marks;
+    private final List<String> options;
+    private final String correctAnswer;
+    
+    public AnswerKeyEntry(Long questionId, String questionType, Integer marks, List<String> options, String correctAnswer) {
+        this.questionId = questionId;
+        this.questionType = questionType;
+        this.marks = marks;
+        this.options = options;
+        this.correctAnswer = correctAnswer;
+    }
+    
+    public Long getQuestionId() {
+        return questionId;
+    }
+    
+    public String getQuestionType() {
+        return questionType;
+    }
+    
+    public Integer getMarks() {
+        return marks;
+    }
+    
+    public List<String> getOptions() {
+        return options;
+    }
+    
+    public String getCorrectAnswer() {
+        return correctAnswer;
+    }
+}
@@ -0,0 +1,47 @@
+package com.examportal.examsessionservice.dto;
+
+/**
+ * One answer in a batch submission. clientTimestamp is when the student gave the
+ * answer, in epoch milliseconds on the client's clock; the server moves it onto
+ * its own clock using the batch's X-Client-Time header, and the result decides
+ * which of two writes to the same question wins.
+ */
+public class AnswerSubmission {
+    
+    private Long questionId;
+    private String answerText;
+    private Long clientTimestamp;
+    
+    public AnswerSubmission() {
+    }
+    
+    public AnswerSubmission(Long questionId, String answerText, Long clientTimestamp) {
+        this.questionId = questionId;
+        this.answerText = answerText;
+        this.clientTimestamp = clientTimestamp;
+    }
+    
+    public Long getQuestionId() {
+        return questionId;
+    }
+    
+    public void setQuestionId(Long questionId) {
+        this.questionId = questionId;
+    }
+    
+    public String getAnswerText() {
+        return answerText;
+    }
+    
+    public void setAnswerText(String answerText) {
+        this.answerText = answerText;
+    }
+    
+    public Long getClientTimestamp() {
+        return clientTimestamp;
+    }
+    
+    public void setClientTimestamp(Long clientTimestamp) {
+        this.clientTimestamp = clientTimestamp;
+    }
+}
@@ -0,0 +1,38 @@
+package com.examportal.examsessionservice.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * The latest answer a student gave to one question, held in memory until the
+ * next flush writes it to session_answers.
+ */
+public final class BufferedAnswer {
+
+    private final long sessionId;
+    private final long questionId;
+    private final String answerText;
+    private final LocalDateTime answeredAt;
+
+    public BufferedAnswer(long sessionId, long questionId, String answerText, LocalDateTime answeredAt) {
+        this.sessionId = sessionId;
+        this.questionId = questionId;
+        this.answerText = answerText;
+        this.answeredAt = answeredAt;
+    }
+
+    public long getSessionId() {
+        return sessionId;
+    }
+
+    public long getQuestionId() {
+        return questionId;
+    }
+
+    public String getAnswerText() {
+        return answerText;
+    }
+
+    public LocalDateTime getAnsweredAt() {
+        return answeredAt;
+    }
+}
@@ -0,0 +1,121 @@
+package com.examportal.examsessionservice.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Server-side grading outcome for one session, sent to result-service as the exam result.
+ */
+public class GradingSummary {
+    
+    private Long sessionId;
+    private Long examId;
+    private Long userId;
+    private Integer totalQuestions;
+    private Integer answeredQuestions;
+    private Integer correctAnswers;
+    private Integer wrongAnswers;
+    private Integer totalMarks;
+    private Integer obtainedMarks;
+    private Double percentage;
+    private Integer timeTakenMinutes;
+    private LocalDateTime submittedAt;
+    
+    public GradingSummary() {
+    }
+    
+    public Long getSessionId() {
+        return sessionId;
+    }
+    
+    public void setSessionId(Long sessionId) {
+        this.sessionId = sessionId;
+    }
+    
+    public Long getExamId() {
+        return examId;
+    }
+    
+    public void setExamId(Long examId) {
+        this.examId = examId;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public Integer getTotalQuestions() {
+        return totalQuestions;
+    }
+    
+    public void setTotalQuestions(Integer totalQuestions) {
+        this.totalQuestions = totalQuestions;
+    }
+    
+    public Integer getAnsweredQuestions() {
+        return answeredQuestions;
+    }
+    
+    public void setAnsweredQuestions(Integer answeredQuestions) {
+        this.answeredQuestions = answeredQuestions;
+    }
+    
+    public Integer getCorrectAnswers() {
+        return correctAnswers;
+    }
+    
+    public void setCorrectAnswers(Integer correctAnswers) {
+        this.correctAnswers = correctAnswers;
+    }
+    
+    public Integer getWrongAnswers() {
+        return wrongAnswers;
+    }
+    
+    public void setWrongAnswers(Integer wrongAnswers) {
+        this.wrongAnswers = wrongAnswers;
+    }
+    
+    public Integer getTotalMarks() {
+        return totalMarks;
+    }
+    
+    public void setTotalMarks(Integer totalMarks) {
+        this.totalMarks = totalMarks;
+    }
+    
+    public Integer getObtainedMarks() {
+        return obtainedMarks;
+    }
+    
+    public void setObtainedMarks(Integer obtainedMarks) {
+        this.obtainedMarks = obtainedMarks;
+    }
+    
+    public Double getPercentage() {
+        return percentage;
+    }
+    
+    public void setPercentage(Double percentage) {
+        this.percentage = percentage;
+    }
+    
+    public Integer getTimeTakenMinutes() {
+        return timeTakenMinutes;
+    }
+    
+    public void setTimeTakenMinutes(Integer timeTakenMinutes) {
+        this.timeTakenMinutes = timeTakenMinutes;
+    }
+    
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+    
+    public void setSubmittedAt(LocalDateTime submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+}
@@ -0,0 +1,55 @@
+package com.examportal.examsessionservice.dto;
+
+import java.util.HexFormat;
+
+/**
+ * Everything a client needs to resume a session, already serialized: the
+ * session, the saved answers, the exam and the paper without answers. The ETag
+ * is a hash of their versions, so it changes only when the session, its
+ * answers or the paper change. The JSON is null when the client's copy is
+ * current. Remaining time is carried separately because it changes every
+ * second.
+ */
+public class ResumeSnapshot {
+    
+    private final byte[] json;
+    private final String etag;
+    private final int timeRemainingSeconds;
+    
+    public ResumeSnapshot(byte[] json, byte[] digest, int timeRemainingSeconds) {
+        this.json = json;
+        this.etag = "\"" + HexFormat.of().formatHex(digest) + "\"";
+        this.timeRemainingSeconds = timeRemainingSeconds;
+    }
+    
+    public byte[] getJson() {
+        return json;
+    }
+    
+    public String getEtag() {
+        return etag;
+    }
+    
+    public int getTimeRemainingSeconds() {
+        return timeRemainingSeconds;
+    }
+    
+    /**
+     * True when an If-None-Match header lists this snapshot's ETag.
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -7,7 +7,12 @@ import java.time.LocalDateTime;
 import java.util.Map;
 
 @Entity
-@Table(name = "exam_sessions")
+@Table(name = "exam_sessions", indexes = {
+        @Index(name = "idx_exam_sessions_exam_id_id", columnList = "exam_id, id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_exam_sessions_user_exam_attempt", columnNames = {"user_id", "exam_id", "attempt_no"}),
+        @UniqueConstraint(name = "uk_exam_sessions_user_idempotency_key", columnNames = {"user_id", "idempotency_key"})
+})
 public class ExamSession {
     
     @Id
@@ -22,6 +27,13 @@ public class ExamSession {
     @Column(name = "user_id")
     private Long userId;
     
+    // 1 for the first attempt at the exam, 2 for the second, and so on
+    @Column(name = "attempt_no")
+    private Integer attemptNo;
+    
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+    
     @Enumerated(EnumType.STRING)
     private SessionStatus status;
     
@@ -98,6 +110,22 @@ public class ExamSession {
         this.userId = userId;
     }
     
+    public Integer getAttemptNo() {
+        return attemptNo;
+    }
+    
+    public void setAttemptNo(Integer attemptNo) {
+        this.attemptNo = attemptNo;
+    }
+    
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+    
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+    
     public SessionStatus getStatus() {
         return status;
     }
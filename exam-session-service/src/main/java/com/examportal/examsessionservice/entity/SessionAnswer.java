@@ -6,7 +6,9 @@ import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "session_answers")
+@Table(name = "session_answers", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_session_answers_session_question", columnNames = {"session_id", "question_id"})
+})
 public class SessionAnswer {
     
     @Id
@@ -0,0 +1,82 @@
+package com.examportal.examsessionservice.repository;
+
+import com.examportal.examsessionservice.dto.AnswerKeyEntry;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads an exam's answer key straight from the questions table in a single query.
+ *
+ * Schema dependency: questions belongs to question-service (Question entity)
+ * and is only reachable because both services share the exam_portal schema.
+ * Grading relies on its id, exam_id, question_type, marks, options (JSON array
+ * or comma-joined), correct_answer and updated_at columns; changing any of them
+ * in question-service has to be matched here.
+ */
+@Repository
+public class AnswerKeyRepository {
+    
+    private static final String ANSWER_KEY_SQL =
+            "SELECT id, question_type, marks, options, correct_answer FROM questions WHERE exam_id = ?";
+    
+    // Changes whenever a question is added, removed or updated
+    private static final String ANSWER_KEY_VERSION_SQL =
+            "SELECT COUNT(*), COALESCE(SUM(id), 0), MAX(updated_at) FROM questions WHERE exam_id = ?";
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<List<String>> LIST_TYPE = new TypeReference<>() {};
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    public List<AnswerKeyEntry> findAnswerKeyByExamId(Long examId) {
+        return jdbcTemplate.query(ANSWER_KEY_SQL, (rs, rowNum) -> new AnswerKeyEntry(
+                rs.getLong("id"),
+                rs.getString("question_type"),
+                rs.getObject("marks", Integer.class),
+                parseOptions(rs.getString("options")),
+                rs.getString("correct_answer")), examId);
+    }
+    
+    public String findAnswerKeyVersion(Long examId) {
+        return jdbcTemplate.queryForObject(ANSWER_KEY_VERSION_SQL, (rs, rowNum) -> {
+            Timestamp updatedAt = rs.getTimestamp(3);
+            return rs.getLong(1) + ":" + rs.getLong(2) + ":" + (updatedAt != null ? updatedAt.getTime() + "." + updatedAt.getNanos() : "-");
+        }, examId);
+    }
+    
+    // question-service stores options as a JSON array; older rows are comma-joined
+    static List<String> parseOptions(String value) {
+        List<String> options = new ArrayList<>();
+        if (value == null || value.trim().isEmpty()) {
+            return options;
+        }
+        String trimmed = value.trim();
+        if (trimmed.startsWith("[")) {
+            try {
+                for (String option : MAPPER.readValue(trimmed, LIST_TYPE)) {
+                    if (option != null && !option.trim().isEmpty()) {
+                        options.add(option.trim());
+                    }
+                }
+                return options;
+            } catch (JsonProcessingException e) {
+                // Not JSON after all; fall through to the legacy format
+            }
+        }
+        for (String option : value.split(",")) {
+            if (!option.trim().isEmpty()) {
+                options.add(option.trim());
+            }
+        }
+        return options;
+    }
+}
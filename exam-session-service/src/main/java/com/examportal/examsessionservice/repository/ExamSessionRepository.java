@@ -2,6 +2,7 @@ package com.examportal.examsessionservice.repository;
 
 import com.examportal.examsessionservice.entity.ExamSession;
 import com.examportal.examsessionservice.entity.SessionStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -11,7 +12,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 
 @Repository
 public interface ExamSessionRepository extends JpaRepository<ExamSession, Long> {
@@ -20,7 +20,8 @@ public interface ExamSessionRepository extends JpaRepository<ExamSession, Long>
     
     List<ExamSession> findByExamId(Long examId);
     
-    Optional<ExamSession> findByUserIdAndExamId(Long userId, Long examId);
+    // Keyset page, newest first: pass PageRequest.of(0, size) and the last id seen
+    List<ExamSession> findByExamIdAndIdLessThanOrderByIdDesc(Long examId, Long id, Pageable pageable);
     
     List<ExamSession> findByStatus(SessionStatus status);
     
@@ -38,6 +39,15 @@ public interface ExamSessionRepository extends JpaRepository<ExamSession, Long>
     @Query("SELECT es FROM ExamSession es WHERE es.examId = :examId AND es.status = 'SUBMITTED'")
     List<ExamSession> findCompletedSessionsByExam(@Param("examId") Long examId);
     
+    @Modifying
+    @Transactional
+    @Query("UPDATE ExamSession es SET es.endTime = :endTime, es.updatedAt = :updatedAt "
+            + "WHERE es.id = :id AND es.status = 'IN_PROGRESS' AND es.endTime = :expectedEndTime")
+    int updateEndTime(@Param("id") Long id,
+                      @Param("expectedEndTime") LocalDateTime expectedEndTime,
+                      @Param("endTime") LocalDateTime endTime,
+                      @Param("updatedAt") LocalDateTime updatedAt);
+    
     @Modifying
     @Transactional
     void deleteByUserId(Long userId);
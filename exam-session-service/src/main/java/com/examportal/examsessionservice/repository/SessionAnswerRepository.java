@@ -21,6 +21,9 @@ public interface SessionAnswerRepository extends JpaRepository<SessionAnswer, Lo
     @Query("SELECT sa FROM SessionAnswer sa WHERE sa.sessionId = :sessionId ORDER BY sa.questionId")
     List<SessionAnswer> findBySessionIdOrderByQuestionId(@Param("sessionId") Long sessionId);
     
+    @Query("SELECT sa.questionId FROM SessionAnswer sa WHERE sa.sessionId = :sessionId")
+    List<Long> findQuestionIdsBySessionId(@Param("sessionId") Long sessionId);
+    
     @Query("SELECT COUNT(sa) FROM SessionAnswer sa WHERE sa.sessionId = :sessionId")
     Long countAnswersBySessionId(@Param("sessionId") Long sessionId);
     
@@ -0,0 +1,126 @@
+package com.examportal.examsessionservice.repository;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Creates exam sessions with a single insert-or-return-existing statement.
+ * The next attempt number is computed in the insert itself and checked against
+ * the exam's max_attempts. While the student still has an unfinished attempt
+ * the insert reuses its number, so a repeated create collides on the (user_id,
+ * exam_id, attempt_no) key and returns that session instead of a duplicate; a
+ * repeated idempotency key collides the same way.
+ *
+ * Schema dependency: the insert reads exams.id and exams.max_attempts directly.
+ * That table belongs to exam-service (Exam entity) and is only reachable
+ * because both services share the exam_portal schema. Renaming or moving either
+ * column breaks session creation here; a missing exams row means no limit.
+ */
+@Repository
+// Hibernate adds attempt_no on startup; the backfill needs it to exist
+@DependsOn("entityManagerFactory")
+public class SessionCreateRepository {
+
+    private static final String INSERT_OR_GET_SQL =
+            "INSERT INTO exam_sessions (exam_id, user_id, attempt_no, idempotency_key, status, time_remaining_seconds, "
+                    + "total_questions, answered_questions, current_question_index, created_at, updated_at) "
+                    + "SELECT ?, ?, IF(t.active > 0, t.last_attempt, t.last_attempt + 1), ?, 'NOT_STARTED', ?, ?, 0, 0, ?, ? "
+                    + "FROM (SELECT COALESCE(MAX(attempt_no), 0) AS last_attempt, "
+                    + "COALESCE(SUM(status IN ('NOT_STARTED', 'IN_PROGRESS')), 0) AS active "
+                    + "FROM exam_sessions WHERE user_id = ? AND exam_id = ?) t "
+                    + "WHERE t.active > 0 "
+                    + "OR t.last_attempt < COALESCE((SELECT max_attempts FROM exams WHERE id = ?), 2147483647) "
+                    + "ON DUPLICATE KEY UPDATE id = LAST_INSERT_ID(id)";
+
+    // Concurrent creates for the same student can deadlock on the gap lock; one of them is retried
+    private static final int MAX_TRIES = 3;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Numbers sessions created before attempt_no existed, oldest first per student and exam.
+     * Sessions left without a number would escape the attempt limit, so a failure stops startup.
+     */
+    @PostConstruct
+    public void backfillAttemptNumbers() {
+        try {
+            int updated = jdbcTemplate.update(
+                    "UPDATE exam_sessions s JOIN (SELECT id, ROW_NUMBER() OVER (PARTITION BY user_id, exam_id ORDER BY id) AS n "
+                            + "FROM exam_sessions) r ON r.id = s.id SET s.attempt_no = r.n WHERE s.attempt_no IS NULL");
+            if (updated > 0) {
+                System.out.println("Numbered attempts for " + updated + " existing exam sessions");
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to number existing exam session attempts: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the id of the new session, of the student's unfinished session for
+     * the exam, or of the session created earlier with the same idempotency key.
+     * Returns null if the student has used all their attempts.
+     */
+    public Long insertOrGet(Long examId, Long userId, int timeRemainingSeconds, Integer totalQuestions, String idempotencyKey) {
+        for (int tries = 1; ; tries++) {
+            try {
+                Long id = tryInsert(examId, userId, timeRemainingSeconds, totalQuestions, idempotencyKey);
+                return id != null ? id : findExisting(examId, userId, idempotencyKey);
+            } catch (PessimisticLockingFailureException e) {
+                if (tries >= MAX_TRIES) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private Long tryInsert(Long examId, Long userId, int timeRemainingSeconds, Integer totalQuestions, String idempotencyKey) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_OR_GET_SQL, Statement.RETURN_GENERATED_KEYS);
+            ps.setLong(1, examId);
+            ps.setLong(2, userId);
+            ps.setString(3, idempotencyKey);
+            ps.setInt(4, timeRemainingSeconds);
+            ps.setObject(5, totalQuestions);
+            ps.setTimestamp(6, now);
+            ps.setTimestamp(7, now);
+            ps.setLong(8, userId);
+            ps.setLong(9, examId);
+            ps.setLong(10, examId);
+            return ps;
+        }, keyHolder);
+        Number key = keyHolder.getKey();
+        return key != null ? key.longValue() : null;
+    }
+
+    // Nothing inserted: a retry of a request whose key was used up, or no attempts left
+    private Long findExisting(Long examId, Long userId, String idempotencyKey) {
+        if (idempotencyKey != null) {
+            List<Long> byKey = jdbcTemplate.queryForList(
+                    "SELECT id FROM exam_sessions WHERE user_id = ? AND idempotency_key = ?",
+                    Long.class, userId, idempotencyKey);
+            if (!byKey.isEmpty()) {
+                return byKey.get(0);
+            }
+        }
+        List<Long> unfinished = jdbcTemplate.queryForList(
+                "SELECT id FROM exam_sessions WHERE user_id = ? AND exam_id = ? "
+                        + "AND status IN ('NOT_STARTED', 'IN_PROGRESS') ORDER BY attempt_no DESC LIMIT 1",
+                Long.class, userId, examId);
+        return unfinished.isEmpty() ? null : unfinished.get(0);
+    }
+}
@@ -0,0 +1,78 @@
+package com.examportal.examsessionservice.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Set-based session expiry: one locking SELECT and one UPDATE per chunk of ids,
+ * instead of loading and saving each session entity.
+ */
+@Repository
+public class SessionExpiryRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public List<Long> findExpiredSessionIds(LocalDateTime now, int limit) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM exam_sessions WHERE status = 'IN_PROGRESS' AND end_time < ? ORDER BY end_time LIMIT ?",
+                Long.class, Timestamp.valueOf(now), limit);
+    }
+
+    public List<Object[]> findInProgressDeadlines() {
+        return jdbcTemplate.query(
+                "SELECT id, end_time FROM exam_sessions WHERE status = 'IN_PROGRESS' AND end_time IS NOT NULL",
+                (rs, rowNum) -> new Object[] { rs.getLong(1), rs.getTimestamp(2).toLocalDateTime() });
+    }
+
+    /**
+     * Marks the given sessions TIMED_OUT if they are still in progress and past
+     * their end time. Returns the ids that were actually timed out.
+     */
+    @Transactional
+    public List<Long> timeOutSessions(List<Long> sessionIds, LocalDateTime now) {
+        if (sessionIds.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(",", Collections.nCopies(sessionIds.size(), "?"));
+        List<Object> args = new ArrayList<>(sessionIds);
+        args.add(Timestamp.valueOf(now));
+
+        List<Long> expired = jdbcTemplate.queryForList(
+                "SELECT id FROM exam_sessions WHERE id IN (" + placeholders + ") "
+                        + "AND status = 'IN_PROGRESS' AND end_time < ? FOR UPDATE",
+                Long.class, args.toArray());
+        if (expired.isEmpty()) {
+            return expired;
+        }
+
+        String expiredPlaceholders = String.join(",", Collections.nCopies(expired.size(), "?"));
+        List<Object> updateArgs = new ArrayList<>();
+        updateArgs.add(Timestamp.valueOf(now));
+        updateArgs.addAll(expired);
+        jdbcTemplate.update(
+                "UPDATE exam_sessions SET status = 'TIMED_OUT', submitted_time = end_time, updated_at = ? "
+                        + "WHERE id IN (" + expiredPlaceholders + ")",
+                updateArgs.toArray());
+        return expired;
+    }
+
+    /**
+     * Marks the session SUBMITTED if it is still in progress. Returns false when
+     * it is not, e.g. because the sweeper timed it out first.
+     */
+    public boolean submitSession(Long sessionId, LocalDateTime now) {
+        return jdbcTemplate.update(
+                "UPDATE exam_sessions SET status = 'SUBMITTED', submitted_time = ?, updated_at = ? "
+                        + "WHERE id = ? AND status = 'IN_PROGRESS'",
+                Timestamp.valueOf(now), Timestamp.valueOf(now), sessionId) == 1;
+    }
+}
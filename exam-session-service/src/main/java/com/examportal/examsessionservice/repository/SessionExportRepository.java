@@ -0,0 +1,60 @@
+package com.examportal.examsessionservice.repository;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Row-by-row reads for session exports. A fetch size of Integer.MIN_VALUE makes
+ * MySQL Connector/J stream the result set instead of buffering it.
+ */
+@Repository
+public class SessionExportRepository {
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate streamingTemplate;
+
+    @PostConstruct
+    public void init() {
+        streamingTemplate = new JdbcTemplate(dataSource);
+        streamingTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    /**
+     * Sessions matching the optional filters, by id. from/to bound the start time.
+     */
+    public void streamSessions(Long examId, String status, LocalDateTime from, LocalDateTime to, RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder("SELECT id, exam_id, user_id, status, start_time, end_time, submitted_time, "
+                + "time_remaining_seconds, total_questions, answered_questions, current_question_index, created_at, updated_at "
+                + "FROM exam_sessions WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (examId != null) {
+            sql.append(" AND exam_id = ?");
+            args.add(examId);
+        }
+        if (status != null) {
+            sql.append(" AND status = ?");
+            args.add(status);
+        }
+        if (from != null) {
+            sql.append(" AND start_time >= ?");
+            args.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND start_time < ?");
+            args.add(Timestamp.valueOf(to));
+        }
+        sql.append(" ORDER BY id");
+        streamingTemplate.query(sql.toString(), handler, args.toArray());
+    }
+}
@@ -26,6 +26,10 @@ public class SecurityConfig {
             .authorizeHttpRequests(authz -> authz
                 .requestMatchers("/api/sessions/health").permitAll()
                 .requestMatchers("/api/sessions/create").permitAll()
+                .requestMatchers("/api/sessions/admission/stats").hasAnyRole("ADMIN", "TEACHER")
+                .requestMatchers("/api/sessions/admission/**").permitAll()
+                .requestMatchers("/api/sessions/admission").permitAll()
+                .requestMatchers("/api/sessions/export").hasAnyRole("ADMIN", "TEACHER")
                 .requestMatchers("/api/sessions/{sessionId}/start").permitAll()
                 .requestMatchers("/api/sessions/{sessionId}/answer").permitAll()
                 .requestMatchers("/api/sessions/{sessionId}/submit").permitAll()
@@ -34,6 +38,9 @@ public class SecurityConfig {
                 .requestMatchers("/api/sessions/{sessionId}/answers").permitAll()
                 .requestMatchers("/api/sessions/{sessionId}/answer/**").permitAll()
                 .requestMatchers("/api/sessions/{sessionId}/time").permitAll()
+                .requestMatchers("/api/sessions/{sessionId}/timer").permitAll()
+                .requestMatchers("/api/sessions/{sessionId}/resume").permitAll()
+                .requestMatchers("/api/sessions/{sessionId}/extend").hasAnyRole("ADMIN", "TEACHER")
                 .requestMatchers("/api/sessions/{sessionId}/cancel").permitAll()
                 .requestMatchers("/api/sessions/exam/**").hasAnyRole("ADMIN", "TEACHER")
                 .requestMatchers("/api/sessions/expired").hasAnyRole("ADMIN", "TEACHER")
@@ -0,0 +1,126 @@
+package com.examportal.examsessionservice.service;
+
+import com.examportal.examsessionservice.entity.ExamSession;
+import com.examportal.examsessionservice.entity.SessionStatus;
+import com.examportal.examsessionservice.repository.ExamSessionRepository;
+import com.examportal.examsessionservice.repository.SessionAnswerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-progress sessions this node has seen, so answer writes can be validated
+ * without reading exam_sessions and session_answers on every call. A session is
+ * loaded once, on its first answer or when it is started, and dropped when it
+ * is submitted, cancelled or expires.
+ */
+@Component
+public class ActiveSessionRegistry {
+
+    @Autowired
+    private ExamSessionRepository examSessionRepository;
+
+    @Autowired
+    private SessionAnswerRepository sessionAnswerRepository;
+
+    private final ConcurrentHashMap<Long, ActiveSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the session if it is in progress, loading it on first use; null otherwise.
+     */
+    public ActiveSession get(Long sessionId) {
+        ActiveSession active = sessions.get(sessionId);
+        if (active != null) {
+            return active;
+        }
+
+        ExamSession session = examSessionRepository.findById(sessionId).orElse(null);
+        if (session == null || session.getStatus() != SessionStatus.IN_PROGRESS) {
+            return null;
+        }
+        ActiveSession loaded = new ActiveSession(session, sessionAnswerRepository.findQuestionIdsBySessionId(sessionId));
+        ActiveSession existing = sessions.putIfAbsent(sessionId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    public void register(ExamSession session) {
+        sessions.put(session.getId(), new ActiveSession(session, Set.of()));
+    }
+
+    /**
+     * Stops the session accepting answers. The closed entry stays registered until
+     * {@link #remove(Long)}, so a concurrent answer cannot reload it from the database.
+     */
+    public void close(Long sessionId) {
+        sessions.computeIfAbsent(sessionId, id -> new ActiveSession(null, Set.of())).close();
+    }
+
+    public void remove(Long sessionId) {
+        ActiveSession removed = sessions.remove(sessionId);
+        if (removed != null) {
+            removed.close();
+        }
+    }
+
+    public void evictExpired(LocalDateTime now) {
+        sessions.values().removeIf(active -> active.getSession() != null
+                && active.getSession().getEndTime() != null
+                && now.isAfter(active.getSession().getEndTime()));
+    }
+
+    public static final class ActiveSession {
+        private final ExamSession session;
+        private final Set<Long> answeredQuestionIds = ConcurrentHashMap.newKeySet();
+        private boolean closed;
+
+        ActiveSession(ExamSession session, Iterable<Long> answeredQuestionIds) {
+            this.session = session;
+            for (Long questionId : answeredQuestionIds) {
+                this.answeredQuestionIds.add(questionId);
+            }
+            if (session != null) {
+                session.setAnsweredQuestions(this.answeredQuestionIds.size());
+            }
+        }
+
+        public ExamSession getSession() {
+            return session;
+        }
+
+        /**
+         * Marks the question answered and returns true if it was not answered before.
+         */
+        public boolean markAnswered(Long questionId) {
+            boolean added = answeredQuestionIds.add(questionId);
+            if (added) {
+                session.setAnsweredQuestions(answeredQuestionIds.size());
+            }
+            return added;
+        }
+
+        /**
+         * Marks all the questions answered and updates the count once. Returns how many were new.
+         */
+        public int markAnswered(Collection<Long> questionIds) {
+            int before = answeredQuestionIds.size();
+            answeredQuestionIds.addAll(questionIds);
+            int added = answeredQuestionIds.size() - before;
+            if (added > 0) {
+                session.setAnsweredQuestions(answeredQuestionIds.size());
+            }
+            return added;
+        }
+
+        public synchronized boolean isClosed() {
+            return closed;
+        }
+
+        public synchronized void close() {
+            closed = true;
+        }
+    }
+}
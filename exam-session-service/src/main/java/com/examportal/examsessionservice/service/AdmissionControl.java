@@ -0,0 +1,492 @@
+package com.examportal.examsessionservice.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for session creation when an exam opens. Each exam has a
+ * token bucket and a FIFO waiting room; a student is admitted when their ticket
+ * reaches the head of the room and a token is free, and may then create and
+ * start one session before the grant expires.
+ *
+ * The admission rate is shared by all exams and sized from the observed latency
+ * of creating and starting sessions: it grows by a fixed step while latency
+ * stays under session.admission.latency-target-ms and there is demand, and is
+ * cut multiplicatively when it does not. Queue positions and admissions are
+ * pushed to waiting clients as Server-Sent Events from the same dispatcher
+ * thread that hands out tokens.
+ */
+@Component
+public class AdmissionControl {
+
+    public static final String POSITION = "position";
+    public static final String ADMITTED = "admitted";
+    public static final String EXPIRED = "expired";
+
+    @Value("${session.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${session.admission.initial-rate:20}")
+    private double initialRate;
+
+    @Value("${session.admission.min-rate:2}")
+    private double minRate;
+
+    @Value("${session.admission.max-rate:500}")
+    private double maxRate;
+
+    @Value("${session.admission.rate-step:5}")
+    private double rateStep;
+
+    @Value("${session.admission.decrease-factor:0.7}")
+    private double decreaseFactor;
+
+    @Value("${session.admission.latency-target-ms:250}")
+    private double latencyTargetMillis;
+
+    @Value("${session.admission.grant-ttl-ms:60000}")
+    private long grantTtlMillis;
+
+    @Value("${session.admission.dispatch-ms:100}")
+    private long dispatchMillis;
+
+    @Value("${session.admission.stream-timeout-ms:900000}")
+    private long streamTimeoutMillis;
+
+    private final ConcurrentHashMap<Long, ExamRoom> rooms = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Ticket> tickets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Ticket> ticketsByStudent = new ConcurrentHashMap<>();
+    private final Object latencyLock = new Object();
+
+    private volatile double rate;
+    private double latencyEwma;
+    private int latencySamples;
+    private long lastDispatch;
+    private long lastAdjust;
+    private long lastBroadcast;
+    private ScheduledExecutorService dispatcher;
+
+    @PostConstruct
+    public void start() {
+        rate = initialRate;
+        lastDispatch = System.nanoTime();
+        dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-admission");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dispatcher.scheduleWithFixedDelay(this::dispatch, dispatchMillis, dispatchMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (dispatcher != null) {
+            dispatcher.shutdownNow();
+        }
+        for (Ticket ticket : tickets.values()) {
+            ticket.emitters.forEach(SseEmitter::complete);
+        }
+    }
+
+    /**
+     * Decides whether the student may create a session now. With an admitted
+     * ticket the grant is used up; without one the student is admitted only if
+     * nobody is waiting for the exam and a token is free, and is otherwise
+     * placed in the waiting room.
+     */
+    public Decision admit(Long examId, Long userId, String ticketId) {
+        if (!enabled) {
+            return Decision.admitted(null);
+        }
+        if (ticketId != null && !ticketId.isBlank()) {
+            Ticket ticket = tickets.get(ticketId);
+            if (ticket == null) {
+                // Expired or already used: queue again
+                return waiting(join(examId, userId));
+            }
+            if (!ticket.examId.equals(examId) || !ticket.userId.equals(userId)) {
+                throw new RuntimeException("Admission ticket is for another exam or student");
+            }
+            synchronized (ticket) {
+                if (ticket.status == TicketStatus.ADMITTED) {
+                    ticket.status = TicketStatus.USED;
+                    forget(ticket);
+                    return Decision.admitted(ticket.id);
+                }
+            }
+            return waiting(ticket);
+        }
+        return waiting(join(examId, userId));
+    }
+
+    /**
+     * Puts the student in the exam's waiting room, or returns their existing ticket.
+     */
+    public Ticket join(Long examId, Long userId) {
+        String student = examId + ":" + userId;
+        while (true) {
+            ExamRoom room = rooms.computeIfAbsent(examId, id -> new ExamRoom(rate));
+            synchronized (room) {
+                if (room.removed) {
+                    // Closed by the dispatcher while idle; use the new one
+                    continue;
+                }
+                return join(room, examId, userId, student);
+            }
+        }
+    }
+
+    private Ticket join(ExamRoom room, Long examId, Long userId, String student) {
+        Ticket existing = ticketsByStudent.get(student);
+        if (existing != null && (existing.getStatus() == TicketStatus.WAITING || existing.getStatus() == TicketStatus.ADMITTED)) {
+            return existing;
+        }
+        Ticket ticket = new Ticket(UUID.randomUUID().toString(), examId, userId);
+        tickets.put(ticket.id, ticket);
+        ticketsByStudent.put(student, ticket);
+        // Nobody ahead and a token free: no need to wait for the dispatcher
+        if (room.waiting.isEmpty() && room.tokens >= 1) {
+            room.tokens -= 1;
+            grant(ticket);
+        } else {
+            room.waiting.addLast(ticket);
+        }
+        room.lastActivity = System.nanoTime();
+        return ticket;
+    }
+
+    public Map<String, Object> describe(Ticket ticket) {
+        int position = positionOf(ticket);
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("ticketId", ticket.id);
+        description.put("examId", ticket.examId);
+        description.put("status", ticket.getStatus().name());
+        description.put("position", position);
+        description.put("estimatedWaitSeconds", estimateWaitSeconds(position));
+        return description;
+    }
+
+    /**
+     * Opens an event stream for the ticket: position updates while waiting,
+     * then a single admitted or expired event.
+     */
+    public SseEmitter subscribe(String ticketId) {
+        Ticket ticket = tickets.get(ticketId);
+        if (ticket == null) {
+            throw new RuntimeException("Unknown admission ticket");
+        }
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        ticket.emitters.add(emitter);
+        emitter.onCompletion(() -> ticket.emitters.remove(emitter));
+        emitter.onTimeout(() -> ticket.emitters.remove(emitter));
+        emitter.onError(error -> ticket.emitters.remove(emitter));
+        // Rooms are locked before tickets, so read the position first
+        int position = positionOf(ticket);
+        synchronized (ticket) {
+            if (ticket.status == TicketStatus.WAITING) {
+                send(ticket, emitter, POSITION, positionPayload(ticket, position));
+            } else {
+                send(ticket, emitter, ticket.status == TicketStatus.EXPIRED ? EXPIRED : ADMITTED, grantPayload(ticket));
+                emitter.complete();
+            }
+        }
+        return emitter;
+    }
+
+    /**
+     * Records how long creating or starting a session took, commit included.
+     */
+    public void recordLatency(long millis) {
+        synchronized (latencyLock) {
+            latencyEwma = latencySamples == 0 ? millis : latencyEwma * 0.8 + millis * 0.2;
+            latencySamples++;
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        Map<Long, Integer> waiting = new LinkedHashMap<>();
+        rooms.forEach((examId, room) -> {
+            synchronized (room) {
+                waiting.put(examId, room.waiting.size());
+            }
+        });
+        synchronized (latencyLock) {
+            stats.put("latencyEwmaMs", Math.round(latencyEwma * 10) / 10.0);
+        }
+        stats.put("enabled", enabled);
+        stats.put("admissionsPerSecond", Math.round(rate * 10) / 10.0);
+        stats.put("latencyTargetMs", latencyTargetMillis);
+        stats.put("waitingByExam", waiting);
+        stats.put("openTickets", tickets.size());
+        return stats;
+    }
+
+    private Decision waiting(Ticket ticket) {
+        synchronized (ticket) {
+            if (ticket.status == TicketStatus.ADMITTED) {
+                ticket.status = TicketStatus.USED;
+                forget(ticket);
+                return Decision.admitted(ticket.id);
+            }
+        }
+        int position = positionOf(ticket);
+        return Decision.waiting(ticket.id, position, estimateWaitSeconds(position));
+    }
+
+    private void dispatch() {
+        try {
+            long now = System.nanoTime();
+            double elapsedSeconds = (now - lastDispatch) / 1_000_000_000.0;
+            lastDispatch = now;
+            adjustRate(now);
+
+            // Every exam gets an equal share of the admission rate
+            double share = rate / Math.max(1, rooms.size());
+            double burst = Math.max(1, share);
+            boolean broadcast = now - lastBroadcast >= 1_000_000_000L;
+            if (broadcast) {
+                lastBroadcast = now;
+            }
+
+            for (Iterator<ExamRoom> it = rooms.values().iterator(); it.hasNext(); ) {
+                ExamRoom room = it.next();
+                List<Ticket> admitted = new ArrayList<>();
+                Map<Ticket, Integer> positions = new LinkedHashMap<>();
+                synchronized (room) {
+                    room.tokens = Math.min(burst, room.tokens + share * elapsedSeconds);
+                    while (!room.waiting.isEmpty() && room.tokens >= 1) {
+                        room.tokens -= 1;
+                        admitted.add(room.waiting.pollFirst());
+                    }
+                    if (room.waiting.isEmpty() && now - room.lastActivity > 300_000_000_000L) {
+                        room.removed = true;
+                        it.remove();
+                        continue;
+                    }
+                    if (broadcast) {
+                        int position = 1;
+                        for (Ticket ticket : room.waiting) {
+                            if (!ticket.emitters.isEmpty()) {
+                                positions.put(ticket, position);
+                            }
+                            position++;
+                        }
+                    }
+                }
+                // A slow client must not hold up joins to the room, so events are sent after unlocking
+                positions.forEach((ticket, position) -> broadcast(ticket, POSITION, positionPayload(ticket, position)));
+                admitted.forEach(this::grant);
+            }
+            expireGrants(now);
+        } catch (Exception e) {
+            System.err.println("Admission dispatch failed: " + e.getMessage());
+        }
+    }
+
+    // Additive increase while the database keeps up and students are waiting; multiplicative decrease otherwise
+    private void adjustRate(long now) {
+        if (now - lastAdjust < 1_000_000_000L) {
+            return;
+        }
+        lastAdjust = now;
+        double latency;
+        int samples;
+        synchronized (latencyLock) {
+            latency = latencyEwma;
+            samples = latencySamples;
+            latencySamples = 0;
+        }
+        if (samples > 0 && latency > latencyTargetMillis) {
+            rate = Math.max(minRate, rate * decreaseFactor);
+        } else if (hasWaiting()) {
+            rate = Math.min(maxRate, rate + rateStep);
+        }
+    }
+
+    private boolean hasWaiting() {
+        for (ExamRoom room : rooms.values()) {
+            synchronized (room) {
+                if (!room.waiting.isEmpty()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void grant(Ticket ticket) {
+        synchronized (ticket) {
+            ticket.status = TicketStatus.ADMITTED;
+            ticket.admittedAt = System.nanoTime();
+        }
+        broadcast(ticket, ADMITTED, grantPayload(ticket));
+        ticket.emitters.forEach(SseEmitter::complete);
+    }
+
+    // A grant that is not used in time is dropped; its token is not returned
+    private void expireGrants(long now) {
+        long ttlNanos = grantTtlMillis * 1_000_000L;
+        for (Ticket ticket : tickets.values()) {
+            synchronized (ticket) {
+                if (ticket.status == TicketStatus.ADMITTED && now - ticket.admittedAt > ttlNanos) {
+                    ticket.status = TicketStatus.EXPIRED;
+                    forget(ticket);
+                }
+            }
+        }
+    }
+
+    private void forget(Ticket ticket) {
+        tickets.remove(ticket.id);
+        ticketsByStudent.remove(ticket.examId + ":" + ticket.userId, ticket);
+    }
+
+    private int positionOf(Ticket ticket) {
+        ExamRoom room = rooms.get(ticket.examId);
+        if (room == null) {
+            return 0;
+        }
+        synchronized (room) {
+            int position = 1;
+            for (Ticket waiting : room.waiting) {
+                if (waiting == ticket) {
+                    return position;
+                }
+                position++;
+            }
+        }
+        return 0;
+    }
+
+    private long estimateWaitSeconds(int position) {
+        double share = rate / Math.max(1, rooms.size());
+        return (long) Math.ceil(position / Math.max(share, 0.1));
+    }
+
+    private Map<String, Object> positionPayload(Ticket ticket, int position) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("ticketId", ticket.id);
+        payload.put("examId", ticket.examId);
+        payload.put("position", position);
+        payload.put("estimatedWaitSeconds", estimateWaitSeconds(position));
+        return payload;
+    }
+
+    private Map<String, Object> grantPayload(Ticket ticket) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("ticketId", ticket.id);
+        payload.put("examId", ticket.examId);
+        payload.put("status", ticket.status.name());
+        payload.put("validForSeconds", grantTtlMillis / 1000);
+        return payload;
+    }
+
+    private void broadcast(Ticket ticket, String name, Map<String, Object> payload) {
+        for (SseEmitter emitter : ticket.emitters) {
+            send(ticket, emitter, name, payload);
+        }
+    }
+
+    private void send(Ticket ticket, SseEmitter emitter, String name, Map<String, Object> payload) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(payload));
+        } catch (IOException | IllegalStateException e) {
+            // The client went away; the ticket keeps its place
+            ticket.emitters.remove(emitter);
+        }
+    }
+
+    public enum TicketStatus {
+        WAITING, ADMITTED, USED, EXPIRED
+    }
+
+    public static final class Ticket {
+        private final String id;
+        private final Long examId;
+        private final Long userId;
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        private TicketStatus status = TicketStatus.WAITING;
+        private long admittedAt;
+
+        Ticket(String id, Long examId, Long userId) {
+            this.id = id;
+            this.examId = examId;
+            this.userId = userId;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public synchronized TicketStatus getStatus() {
+            return status;
+        }
+    }
+
+    public static final class Decision {
+        private final boolean admitted;
+        private final String ticketId;
+        private final int position;
+        private final long retryAfterSeconds;
+
+        private Decision(boolean admitted, String ticketId, int position, long retryAfterSeconds) {
+            this.admitted = admitted;
+            this.ticketId = ticketId;
+            this.position = position;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        static Decision admitted(String ticketId) {
+            return new Decision(true, ticketId, 0, 0);
+        }
+
+        static Decision waiting(String ticketId, int position, long retryAfterSeconds) {
+            return new Decision(false, ticketId, position, Math.max(1, retryAfterSeconds));
+        }
+
+        public boolean isAdmitted() {
+            return admitted;
+        }
+
+        public String getTicketId() {
+            return ticketId;
+        }
+
+        public int getPosition() {
+            return position;
+        }
+
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+
+    private static final class ExamRoom {
+        private final ArrayDeque<Ticket> waiting = new ArrayDeque<>();
+        private double tokens;
+        private long lastActivity = System.nanoTime();
+        private boolean removed;
+
+        ExamRoom(double initialTokens) {
+            this.tokens = Math.max(1, initialTokens);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.examportal.examsessionservice.service;
+
+import com.examportal.examsessionservice.dto.BufferedAnswer;
+import com.examportal.examsessionservice.repository.SessionAnswerBatchRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind buffer for in-progress answers. Each answer is appended to the
+ * write-ahead log and kept in memory, where repeated writes to the same question
+ * collapse into one. A scheduled flush upserts everything buffered in one JDBC
+ * batch; submitSession flushes its own session synchronously before grading.
+ * Log segments are deleted only after their answers reach the database, and
+ * any left behind by a crash are replayed on startup.
+ */
+@Component
+public class AnswerBuffer {
+
+    @Autowired
+    private SessionAnswerBatchRepository sessionAnswerBatchRepository;
+
+    @Autowired
+    private ActiveSessionRegistry activeSessionRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SessionAnswerVersions answerVersions;
+
+    @Value("${session.answer-buffer.wal-dir:./data/answer-wal}")
+    private String walDir;
+
+    // Appends take the read lock; swapping the pending map takes the write lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object flushLock = new Object();
+    private final List<Path> sealedSegments = new ArrayList<>();
+
+    private volatile ConcurrentHashMap<Long, ConcurrentHashMap<Long, BufferedAnswer>> pending = new ConcurrentHashMap<>();
+    private volatile Map<Long, ConcurrentHashMap<Long, BufferedAnswer>> inFlight = Map.of();
+    private AnswerWriteAheadLog wal;
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void start() throws IOException {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        wal = new AnswerWriteAheadLog(Paths.get(walDir));
+
+        List<Path> recovered = wal.recoverableSegments();
+        int[] replayed = {0};
+        for (Path segment : recovered) {
+            AnswerWriteAheadLog.replay(segment, answer -> {
+                put(answer);
+                replayed[0]++;
+            });
+        }
+        sealedSegments.addAll(recovered);
+        if (!recovered.isEmpty()) {
+            int dropped = dropCancelledSessions();
+            System.out.println("Replayed " + replayed[0] + " buffered answers from " + recovered.size() + " log segments"
+                    + (dropped > 0 ? ", skipped " + dropped + " cancelled or deleted sessions" : ""));
+        }
+    }
+
+    public void record(Long sessionId, Long questionId, String answerText) {
+        BufferedAnswer answer = new BufferedAnswer(sessionId, questionId, answerText, LocalDateTime.now());
+        lock.readLock().lock();
+        try {
+            wal.append(answer);
+            put(answer);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to record answer for session " + sessionId, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Buffers a batch of answers with one log write. Where the same question is
+     * already buffered, the answer with the later answeredAt wins.
+     */
+    public void recordAll(List<BufferedAnswer> answers) {
+        if (answers.isEmpty()) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            wal.appendAll(answers);
+            answers.forEach(this::put);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to record answers for session " + answers.get(0).getSessionId(), e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Answers for the session that may not be in session_answers yet, by question id.
+     */
+    public Map<Long, BufferedAnswer> getPendingAnswers(Long sessionId) {
+        Map<Long, BufferedAnswer> answers = new HashMap<>();
+        Map<Long, BufferedAnswer> flushing = inFlight.get(sessionId);
+        if (flushing != null) {
+            answers.putAll(flushing);
+        }
+        Map<Long, BufferedAnswer> buffered = pending.get(sessionId);
+        if (buffered != null) {
+            buffered.forEach((questionId, answer) -> answers.merge(questionId, answer, AnswerBuffer::latest));
+        }
+        return answers;
+    }
+
+    @Scheduled(fixedDelayString = "${session.answer-buffer.flush-ms:1000}")
+    public void flush() {
+        synchronized (flushLock) {
+            Map<Long, ConcurrentHashMap<Long, BufferedAnswer>> snapshot;
+            lock.writeLock().lock();
+            try {
+                snapshot = pending;
+                pending = new ConcurrentHashMap<>();
+                inFlight = snapshot;
+                sealSegment();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            try {
+                if (!snapshot.isEmpty()) {
+                    writeToDatabase(snapshot);
+                }
+                wal.delete(sealedSegments);
+                sealedSegments.clear();
+            } catch (Exception e) {
+                System.err.println("Failed to flush buffered answers, will retry: " + e.getMessage());
+                restore(snapshot);
+            } finally {
+                inFlight = Map.of();
+            }
+        }
+        activeSessionRegistry.evictExpired(LocalDateTime.now());
+    }
+
+    /**
+     * Writes the session's buffered answers now. Waits for a flush already in
+     * progress, so everything answered before the call is in the database on return.
+     */
+    public void flushSession(Long sessionId) {
+        synchronized (flushLock) {
+            ConcurrentHashMap<Long, BufferedAnswer> answers;
+            lock.writeLock().lock();
+            try {
+                answers = pending.remove(sessionId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (answers == null || answers.isEmpty()) {
+                return;
+            }
+
+            Map<Long, ConcurrentHashMap<Long, BufferedAnswer>> snapshot = Map.of(sessionId, answers);
+            try {
+                writeToDatabase(snapshot);
+            } catch (RuntimeException e) {
+                restore(snapshot);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Drops the session's buffered answers. Log segments may still hold them;
+     * replay skips sessions that were cancelled or deleted.
+     */
+    public void discard(Long sessionId) {
+        lock.writeLock().lock();
+        try {
+            pending.remove(sessionId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        answerVersions.bump(sessionId);
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        flush();
+        wal.close();
+    }
+
+    private void sealSegment() {
+        try {
+            Path sealed = wal.rotate();
+            if (sealed != null) {
+                sealedSegments.add(sealed);
+            }
+        } catch (IOException e) {
+            // The active segment keeps these records; it is replayed after a crash
+            System.err.println("Failed to rotate answer log: " + e.getMessage());
+        }
+    }
+
+    // Answers logged before a session was cancelled or deleted must not be written after a restart
+    private int dropCancelledSessions() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        Set<Long> replayable = sessionAnswerBatchRepository.findSessionsToReplay(pending.keySet());
+        int before = pending.size();
+        pending.keySet().retainAll(replayable);
+        return before - pending.size();
+    }
+
+    // The version moves after the answer is visible, so a resume that sees it also sees the answer
+    private void put(BufferedAnswer answer) {
+        pending.computeIfAbsent(answer.getSessionId(), id -> new ConcurrentHashMap<>())
+                .merge(answer.getQuestionId(), answer, AnswerBuffer::latest);
+        answerVersions.bump(answer.getSessionId());
+    }
+
+    // Last writer wins; on a tie the answer recorded later is kept
+    private static BufferedAnswer latest(BufferedAnswer current, BufferedAnswer incoming) {
+        return incoming.getAnsweredAt().isBefore(current.getAnsweredAt()) ? current : incoming;
+    }
+
+    private void restore(Map<Long, ConcurrentHashMap<Long, BufferedAnswer>> snapshot) {
+        lock.readLock().lock();
+        try {
+            // Anything answered since the snapshot was taken wins unless it carries an older timestamp
+            snapshot.forEach((sessionId, answers) -> {
+                ConcurrentHashMap<Long, BufferedAnswer> current =
+                        pending.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>());
+                answers.forEach((questionId, answer) -> current.merge(questionId, answer, (newer, restored) ->
+                        newer.getAnsweredAt().isBefore(restored.getAnsweredAt()) ? restored : newer));
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void writeToDatabase(Map<Long, ConcurrentHashMap<Long, BufferedAnswer>> snapshot) {
+        List<BufferedAnswer> answers = new ArrayList<>();
+        snapshot.values().forEach(sessionAnswers -> answers.addAll(sessionAnswers.values()));
+        transactionTemplate.executeWithoutResult(status -> {
+            sessionAnswerBatchRepository.upsertAnswers(answers);
+            sessionAnswerBatchRepository.refreshAnsweredCounts(snapshot.keySet());
+        });
+    }
+}
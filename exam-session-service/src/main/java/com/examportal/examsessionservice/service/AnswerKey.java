@@ -0,0 +1,81 @@
+package com.examportal.examsessionservice.service;
+
+import com.examportal.examsessionservice.dto.AnswerKeyEntry;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, compiled answer key for one exam: one matcher and mark value per question.
+ */
+public class AnswerKey {
+    
+    private final Long examId;
+    private final String version;
+    private final Map<Long, KeyedQuestion> questions;
+    private final int totalMarks;
+    
+    private AnswerKey(Long examId, String version, Map<Long, KeyedQuestion> questions, int totalMarks) {
+        this.examId = examId;
+        this.version = version;
+        this.questions = questions;
+        this.totalMarks = totalMarks;
+    }
+    
+    public static AnswerKey compile(Long examId, String version, List<AnswerKeyEntry> entries) {
+        Map<Long, KeyedQuestion> questions = new HashMap<>(entries.size() * 2);
+        int totalMarks = 0;
+        for (AnswerKeyEntry entry : entries) {
+            int marks = entry.getMarks() != null ? entry.getMarks() : 1;
+            AnswerMatcher matcher = AnswerMatcher.compile(entry.getQuestionType(), entry.getOptions(), entry.getCorrectAnswer());
+            questions.put(entry.getQuestionId(), new KeyedQuestion(marks, matcher));
+            totalMarks += marks;
+        }
+        return new AnswerKey(examId, version, Collections.unmodifiableMap(questions), totalMarks);
+    }
+    
+    public Long getExamId() {
+        return examId;
+    }
+    
+    /**
+     * Fingerprint of the question rows this key was compiled from; see
+     * {@link AnswerKeyCache}.
+     */
+    public String getVersion() {
+        return version;
+    }
+    
+    public KeyedQuestion get(Long questionId) {
+        return questions.get(questionId);
+    }
+    
+    public int getQuestionCount() {
+        return questions.size();
+    }
+    
+    public int getTotalMarks() {
+        return totalMarks;
+    }
+    
+    public static class KeyedQuestion {
+        
+        private final int marks;
+        private final AnswerMatcher matcher;
+        
+        KeyedQuestion(int marks, AnswerMatcher matcher) {
+            this.marks = marks;
+            this.matcher = matcher;
+        }
+        
+        public int getMarks() {
+            return marks;
+        }
+        
+        public AnswerMatcher getMatcher() {
+            return matcher;
+        }
+    }
+}
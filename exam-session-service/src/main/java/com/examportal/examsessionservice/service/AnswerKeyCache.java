@@ -0,0 +1,61 @@
+package com.examportal.examsessionservice.service;
+
+import com.examportal.examsessionservice.repository.AnswerKeyRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled answer keys by exam. Before a key is reused, a one-row aggregate
+ * over the exam's questions (count, id sum, latest update) is compared with
+ * the version the key was compiled at, so question edits in question-service
+ * are picked up without loading and recompiling the key for every session.
+ */
+@Component
+public class AnswerKeyCache {
+    
+    @Autowired
+    private AnswerKeyRepository answerKeyRepository;
+    
+    @Value("${session.answer-key-cache.max-entries:1000}")
+    private int maxEntries;
+    
+    private final ConcurrentHashMap<Long, AnswerKey> keys = new ConcurrentHashMap<>();
+    
+    public AnswerKey get(Long examId) {
+        String version = answerKeyRepository.findAnswerKeyVersion(examId);
+        AnswerKey cached = keys.get(examId);
+        if (cached != null && version.equals(cached.getVersion())) {
+            return cached;
+        }
+        
+        // Sessions of the same exam graded together wait on one compile
+        AnswerKey compiled = keys.compute(examId, (id, existing) -> {
+            if (existing != null && version.equals(existing.getVersion())) {
+                return existing;
+            }
+            return AnswerKey.compile(id, version, answerKeyRepository.findAnswerKeyByExamId(id));
+        });
+        if (keys.size() > maxEntries) {
+            evictOne(examId);
+        }
+        return compiled;
+    }
+    
+    public void invalidate(Long examId) {
+        keys.remove(examId);
+    }
+    
+    private void evictOne(Long keep) {
+        Iterator<Long> examIds = keys.keySet().iterator();
+        while (examIds.hasNext()) {
+            if (!examIds.next().equals(keep)) {
+                examIds.remove();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.examportal.examsessionservice.service;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares a student's answer against one question's correct answer. Matchers
+ * are compiled once per question when the answer key is loaded:
+ * MULTIPLE_CHOICE and TRUE_FALSE resolve the answer to an option index and
+ * compare it with the correct index; SHORT_ANSWER and FILL_IN_THE_BLANK look
+ * the answer up in a trie of accepted alternatives. Neither allocates while
+ * grading.
+ */
+public abstract class AnswerMatcher {
+    
+    private static final List<String> TRUE_FALSE_OPTIONS = List.of("True", "False");
+    
+    /**
+     * @return TRUE/FALSE for auto-gradable questions, null when the question
+     *         needs manual marking (essays, or no correct answer on record)
+     */
+    public abstract Boolean matches(String answerText);
+    
+    public static AnswerMatcher compile(String questionType, List<String> options, String correctAnswer) {
+        if (correctAnswer == null || correctAnswer.trim().isEmpty() || "ESSAY".equals(questionType)) {
+            return MANUAL;
+        }
+        if ("MULTIPLE_CHOICE".equals(questionType) || "TRUE_FALSE".equals(questionType)) {
+            List<String> choices = options;
+            if ((choices == null || choices.isEmpty()) && "TRUE_FALSE".equals(questionType)) {
+                choices = TRUE_FALSE_OPTIONS;
+            }
+            ChoiceMatcher matcher = ChoiceMatcher.compile(choices != null ? choices : List.of(), correctAnswer);
+            if (matcher != null) {
+                return matcher;
+            }
+            // Correct answer is not one of the options; compare the text itself
+        }
+        return compileText(correctAnswer);
+    }
+    
+    private static AnswerMatcher compileText(String correctAnswer) {
+        // "garbage collector|GC": any alternative is accepted
+        NormalizedTrie accepted = new NormalizedTrie();
+        for (String alternative : correctAnswer.split("\\|")) {
+            accepted.put(alternative, 0);
+        }
+        return new TextMatcher(accepted);
+    }
+    
+    /**
+     * End of the option label in "B) 4 bytes", "b." or "B", including the
+     * punctuation and whitespace after it; -1 if the text has no label.
+     */
+    static int labelEnd(CharSequence text) {
+        int i = skipWhitespace(text, 0);
+        if (i >= text.length() || !isAsciiLetter(text.charAt(i))) {
+            return -1;
+        }
+        int j = skipWhitespace(text, i + 1);
+        if (j == text.length()) {
+            return j;
+        }
+        char c = text.charAt(j);
+        if (c == ')' || c == '.' || c == ':') {
+            return skipWhitespace(text, j + 1);
+        }
+        return -1;
+    }
+    
+    private static int skipWhitespace(CharSequence text, int from) {
+        int i = from;
+        while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+    
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+    
+    private static final AnswerMatcher MANUAL = new AnswerMatcher() {
+        @Override
+        public Boolean matches(String answerText) {
+            return null;
+        }
+    };
+    
+    private static final class ChoiceMatcher extends AnswerMatcher {
+        
+        // Full option text and text without its label, normalized -> option index
+        private final NormalizedTrie texts;
+        // Label letter A-Z -> option index
+        private final int[] labels;
+        private final int correctIndex;
+        
+        private ChoiceMatcher(NormalizedTrie texts, int[] labels, int correctIndex) {
+            this.texts = texts;
+            this.labels = labels;
+            this.correctIndex = correctIndex;
+        }
+        
+        static ChoiceMatcher compile(List<String> options, String correctAnswer) {
+            NormalizedTrie texts = new NormalizedTrie();
+            int[] labels = new int[26];
+            Arrays.fill(labels, NormalizedTrie.NONE);
+            for (int i = 0; i < options.size(); i++) {
+                String option = options.get(i);
+                int end = labelEnd(option);
+                int label = end >= 0
+                        ? Character.toUpperCase(option.charAt(skipWhitespace(option, 0))) - 'A'
+                        : i;
+                if (label < labels.length && labels[label] == NormalizedTrie.NONE) {
+                    labels[label] = i;
+                }
+                texts.put(end >= 0 ? option.substring(end) : option, i);
+                texts.put(option, i);
+            }
+            
+            ChoiceMatcher matcher = new ChoiceMatcher(texts, labels, NormalizedTrie.NONE);
+            int correctIndex = matcher.resolve(correctAnswer);
+            return correctIndex != NormalizedTrie.NONE ? new ChoiceMatcher(texts, labels, correctIndex) : null;
+        }
+        
+        @Override
+        public Boolean matches(String answerText) {
+            return answerText != null && resolve(answerText) == correctIndex;
+        }
+        
+        private int resolve(String answer) {
+            int index = texts.get(answer);
+            if (index != NormalizedTrie.NONE) {
+                return index;
+            }
+            if (labelEnd(answer) < 0) {
+                return NormalizedTrie.NONE;
+            }
+            int label = Character.toUpperCase(answer.charAt(skipWhitespace(answer, 0))) - 'A';
+            return label >= 0 && label < labels.length ? labels[label] : NormalizedTrie.NONE;
+        }
+    }
+    
+    private static final class TextMatcher extends AnswerMatcher {
+        
+        private final NormalizedTrie accepted;
+        
+        private TextMatcher(NormalizedTrie accepted) {
+            this.accepted = accepted;
+        }
+        
+        @Override
+        public Boolean matches(String answerText) {
+            return accepted.contains(answerText);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.examportal.examsessionservice.service;
+
+import com.examportal.examsessionservice.dto.BufferedAnswer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of buffered answers, split into numbered segment files.
+ * An answer is acknowledged only after its record is forced to disk; concurrent
+ * appenders share one fsync (group commit). A segment can be deleted once every
+ * answer in it has been written to the database.
+ *
+ * Record layout: length, crc32, sessionId, questionId, answeredAt (epoch millis),
+ * answer length (-1 for null), answer bytes. A torn record at the tail of a
+ * segment is ignored on replay.
+ */
+public class AnswerWriteAheadLog implements AutoCloseable {
+
+    private static final String SEGMENT_PREFIX = "answers-";
+    private static final String SEGMENT_SUFFIX = ".wal";
+    private static final int HEADER_BYTES = 8;
+    private static final int FIXED_BODY_BYTES = 8 + 8 + 8 + 4;
+
+    private final Path directory;
+    private final Object writeLock = new Object();
+    private final Object syncLock = new Object();
+
+    private volatile FileChannel channel;
+    private volatile long writtenBytes;
+    private Path currentSegment;
+    private long nextSegmentNumber;
+    private long syncedBytes;
+
+    public AnswerWriteAheadLog(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        List<Path> existing = listSegments();
+        this.nextSegmentNumber = existing.isEmpty() ? 1 : segmentNumber(existing.get(existing.size() - 1)) + 1;
+        openNewSegment();
+    }
+
+    /**
+     * Segments left by a previous run, oldest first, excluding the one this log writes to.
+     */
+    public List<Path> recoverableSegments() throws IOException {
+        return listSegments().stream()
+                .filter(segment -> !segment.equals(currentSegment))
+                .collect(Collectors.toList());
+    }
+
+    public void append(BufferedAnswer answer) throws IOException {
+        ByteBuffer record = encode(answer);
+        long position;
+        synchronized (writeLock) {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            writtenBytes += record.limit();
+            position = writtenBytes;
+        }
+        sync(position);
+    }
+
+    /**
+     * Appends all the answers as one write and forces them to disk together.
+     */
+    public void appendAll(List<BufferedAnswer> answers) throws IOException {
+        if (answers.isEmpty()) {
+            return;
+        }
+        List<ByteBuffer> records = new ArrayList<>(answers.size());
+        int total = 0;
+        for (BufferedAnswer answer : answers) {
+            ByteBuffer record = encode(answer);
+            records.add(record);
+            total += record.limit();
+        }
+        ByteBuffer batch = ByteBuffer.allocate(total);
+        records.forEach(batch::put);
+        batch.flip();
+
+        long position;
+        synchronized (writeLock) {
+            while (batch.hasRemaining()) {
+                channel.write(batch);
+            }
+            writtenBytes += total;
+            position = writtenBytes;
+        }
+        sync(position);
+    }
+
+    /**
+     * Closes the current segment and starts a new one. Returns the closed segment,
+     * or null if it held no records and was reused.
+     */
+    public Path rotate() throws IOException {
+        synchronized (writeLock) {
+            if (writtenBytes == 0) {
+                return null;
+            }
+            Path sealed = currentSegment;
+            synchronized (syncLock) {
+                channel.force(false);
+                channel.close();
+                openNewSegment();
+            }
+            return sealed;
+        }
+    }
+
+    public void delete(List<Path> segments) {
+        for (Path segment : segments) {
+            try {
+                Files.deleteIfExists(segment);
+            } catch (IOException e) {
+                System.err.println("Failed to delete answer log segment " + segment + ": " + e.getMessage());
+            }
+        }
+    }
+
+    public static void replay(Path segment, Consumer<BufferedAnswer> consumer) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(segment));
+        while (data.remaining() >= HEADER_BYTES) {
+            int length = data.getInt();
+            long expectedCrc = data.getInt() & 0xFFFFFFFFL;
+            if (length < FIXED_BODY_BYTES || length > data.remaining()) {
+                break;
+            }
+            byte[] body = new byte[length];
+            data.get(body);
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            if (crc.getValue() != expectedCrc) {
+                break;
+            }
+            consumer.accept(decode(ByteBuffer.wrap(body)));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (writeLock) {
+            synchronized (syncLock) {
+                channel.force(false);
+                channel.close();
+            }
+        }
+    }
+
+    private void sync(long position) throws IOException {
+        synchronized (syncLock) {
+            if (syncedBytes >= position) {
+                // Another appender's force already covered this record
+                return;
+            }
+            long target = writtenBytes;
+            channel.force(false);
+            syncedBytes = target;
+        }
+    }
+
+    private void openNewSegment() throws IOException {
+        currentSegment = directory.resolve(String.format("%s%012d%s", SEGMENT_PREFIX, nextSegmentNumber++, SEGMENT_SUFFIX));
+        channel = FileChannel.open(currentSegment,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        writtenBytes = 0;
+        syncedBytes = 0;
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted(Comparator.comparingLong(AnswerWriteAheadLog::segmentNumber))
+                    .collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+
+    private static long segmentNumber(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static ByteBuffer encode(BufferedAnswer answer) {
+        byte[] text = answer.getAnswerText() != null ? answer.getAnswerText().getBytes(StandardCharsets.UTF_8) : null;
+        int bodyLength = FIXED_BODY_BYTES + (text != null ? text.length : 0);
+        ByteBuffer body = ByteBuffer.allocate(bodyLength);
+        body.putLong(answer.getSessionId());
+        body.putLong(answer.getQuestionId());
+        body.putLong(answer.getAnsweredAt().toInstant(ZoneOffset.UTC).toEpochMilli());
+        body.putInt(text != null ? text.length : -1);
+        if (text != null) {
+            body.put(text);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(body.array());
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + bodyLength);
+        record.putInt(bodyLength);
+        record.putInt((int) crc.getValue());
+        record.put(body.array());
+        record.flip();
+        return record;
+    }
+
+    private static BufferedAnswer decode(ByteBuffer body) {
+        long sessionId = body.getLong();
+        long questionId = body.getLong();
+        LocalDateTime answeredAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(body.getLong()), ZoneOffset.UTC);
+        int textLength = body.getInt();
+        String text = null;
+        if (textLength >= 0) {
+            byte[] bytes = new byte[textLength];
+            body.get(bytes);
+            text = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return new BufferedAnswer(sessionId, questionId, text, answeredAt);
+    }
+}
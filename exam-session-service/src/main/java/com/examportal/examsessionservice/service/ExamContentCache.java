@@ -0,0 +1,153 @@
+package com.examportal.examsessionservice.service;
+
+import com.examportal.examsessionservice.client.ExamClient;
+import com.examportal.examsessionservice.client.QuestionClient;
+import feign.FeignException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Exam details and student papers fetched from exam-service and
+ * question-service, kept as raw JSON for session.resume.content-ttl-ms. When a
+ * class reconnects at once, each exam is fetched once rather than once per
+ * student. An expired paper is revalidated with its ETag, and a stale entry is
+ * served if the owning service cannot be reached.
+ */
+@Component
+public class ExamContentCache {
+    
+    @Autowired
+    private ExamClient examClient;
+    
+    @Autowired
+    private QuestionClient questionClient;
+    
+    @Value("${session.resume.content-ttl-ms:30000}")
+    private long ttlMillis;
+    
+    private final ConcurrentHashMap<Long, Content> exams = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Content> papers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, CompletableFuture<Content>> examFetches = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, CompletableFuture<Content>> paperFetches = new ConcurrentHashMap<>();
+    
+    public Content getExam(Long examId) {
+        return get(exams, examFetches, examId, stale -> new Content(examClient.getExamJson(examId), null));
+    }
+    
+    public Content getPaper(Long examId) {
+        return get(papers, paperFetches, examId, stale -> {
+            try {
+                ResponseEntity<String> response = questionClient.getStudentPaper(examId, stale != null ? stale.etag : null);
+                return new Content(response.getBody(), response.getHeaders().getETag());
+            } catch (FeignException e) {
+                if (e.status() == HttpStatus.NOT_MODIFIED.value() && stale != null) {
+                    return new Content(stale.json, stale.etag, stale.version);
+                }
+                throw e;
+            }
+        });
+    }
+    
+    private Content get(ConcurrentHashMap<Long, Content> cache, ConcurrentHashMap<Long, CompletableFuture<Content>> fetches,
+                        Long examId, Function<Content, Content> fetch) {
+        Content cached = cache.get(examId);
+        if (cached != null && cached.isFresh(ttlMillis)) {
+            return cached;
+        }
+        
+        // Concurrent misses for the same exam wait on one fetch, outside any map lock
+        CompletableFuture<Content> mine = new CompletableFuture<>();
+        CompletableFuture<Content> inFlight = fetches.putIfAbsent(examId, mine);
+        if (inFlight != null) {
+            return join(inFlight);
+        }
+        try {
+            Content existing = cache.get(examId);
+            Content content;
+            if (existing != null && existing.isFresh(ttlMillis)) {
+                content = existing;
+            } else {
+                try {
+                    content = fetch.apply(existing);
+                    cache.put(examId, content);
+                } catch (RuntimeException e) {
+                    if (existing == null) {
+                        throw e;
+                    }
+                    System.err.println("Serving cached content for exam " + examId + ": " + e.getMessage());
+                    content = existing;
+                }
+            }
+            mine.complete(content);
+            return content;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            fetches.remove(examId, mine);
+        }
+    }
+    
+    private static Content join(CompletableFuture<Content> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+    
+    /**
+     * Raw JSON as returned by the owning service. The version is the response's
+     * ETag, or a hash of the JSON when there is none, so it changes exactly when
+     * the content does.
+     */
+    public static final class Content {
+        private final String json;
+        private final String etag;
+        private final String version;
+        private final long fetchedAt = System.nanoTime();
+        
+        Content(String json, String etag) {
+            this(json, etag, etag != null ? etag : sha256(json));
+        }
+        
+        Content(String json, String etag, String version) {
+            this.json = json;
+            this.etag = etag;
+            this.version = version;
+        }
+        
+        public String getJson() {
+            return json;
+        }
+        
+        public String getVersion() {
+            return version;
+        }
+        
+        boolean isFresh(long ttlMillis) {
+            return System.nanoTime() - fetchedAt < ttlMillis * 1_000_000L;
+        }
+        
+        private static String sha256(String json) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(String.valueOf(json).getBytes(StandardCharsets.UTF_8));
+                return HexFormat.of().formatHex(digest);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
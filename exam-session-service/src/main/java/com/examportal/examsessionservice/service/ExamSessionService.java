@@ -1,16 +1,35 @@
 package com.examportal.examsessionservice.service;
 
+import com.examportal.examsessionservice.dto.AnswerSubmission;
+import com.examportal.examsessionservice.dto.BufferedAnswer;
 import com.examportal.examsessionservice.entity.ExamSession;
 import com.examportal.examsessionservice.entity.SessionAnswer;
 import com.examportal.examsessionservice.entity.SessionStatus;
 import com.examportal.examsessionservice.repository.ExamSessionRepository;
 import com.examportal.examsessionservice.repository.SessionAnswerRepository;
+import com.examportal.examsessionservice.repository.SessionCreateRepository;
+import com.examportal.examsessionservice.repository.SessionExpiryRepository;
+import com.examportal.examsessionservice.repository.SessionExportRepository;
+import com.examportal.web.CursorPage;
+import com.examportal.web.ExportWriter;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 
 @Service
 public class ExamSessionService {
@@ -21,28 +40,78 @@ public class ExamSessionService {
     @Autowired
     private SessionAnswerRepository sessionAnswerRepository;
     
-    public ExamSession createSession(Long examId, Long userId, Integer durationMinutes, Integer totalQuestions) {
-        // Check if user already has an active session for this exam
-        Optional<ExamSession> existingSession = examSessionRepository.findByUserIdAndExamId(userId, examId);
-        if (existingSession.isPresent() && 
-            (existingSession.get().getStatus() == SessionStatus.IN_PROGRESS || 
-             existingSession.get().getStatus() == SessionStatus.NOT_STARTED)) {
-            throw new RuntimeException("User already has an active session for this exam");
+    @Autowired
+    private AnswerBuffer answerBuffer;
+    
+    @Autowired
+    private ActiveSessionRegistry activeSessionRegistry;
+    
+    @Autowired
+    private SessionDeadlineIndex sessionDeadlineIndex;
+    
+    @Autowired
+    private SessionExpiryRepository sessionExpiryRepository;
+    
+    @Autowired
+    private SessionExportRepository sessionExportRepository;
+    
+    @Autowired
+    private SessionCreateRepository sessionCreateRepository;
+    
+    @Autowired
+    private SessionTimerHub sessionTimerHub;
+    
+    @Autowired
+    private AdmissionControl admissionControl;
+    
+    @Autowired
+    private SessionEvents sessionEvents;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private TransactionTemplate transactionTemplate;
+    
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    public ExamSession createSession(Long examId, Long userId, Integer durationMinutes, Integer totalQuestions,
+                                     String idempotencyKey) {
+        long started = System.currentTimeMillis();
+        try {
+            return doCreateSession(examId, userId, durationMinutes, totalQuestions, idempotencyKey);
+        } finally {
+            admissionControl.recordLatency(System.currentTimeMillis() - started);
         }
-        
-        ExamSession session = new ExamSession();
-        session.setExamId(examId);
-        session.setUserId(userId);
-        session.setTimeRemainingSeconds(durationMinutes * 60);
-        session.setTotalQuestions(totalQuestions);
-        session.setStatus(SessionStatus.NOT_STARTED);
-        session.setCreatedAt(LocalDateTime.now());
-        session.setUpdatedAt(LocalDateTime.now());
-        
-        return examSessionRepository.save(session);
+    }
+    
+    private ExamSession doCreateSession(Long examId, Long userId, Integer durationMinutes, Integer totalQuestions,
+                                        String idempotencyKey) {
+        // One statement: a new attempt, the unfinished one, or the one created with this key
+        Long sessionId = sessionCreateRepository.insertOrGet(examId, userId, durationMinutes * 60, totalQuestions, idempotencyKey);
+        if (sessionId == null) {
+            throw new RuntimeException("No attempts left for this exam");
+        }
+        ExamSession session = examSessionRepository.findById(sessionId)
+                .orElseThrow(() -> new RuntimeException("Session not found"));
+        if (!session.getExamId().equals(examId)) {
+            throw new RuntimeException("Idempotency key was already used for another exam");
+        }
+        return session;
     }
     
     public ExamSession startSession(Long sessionId) {
+        long started = System.currentTimeMillis();
+        try {
+            return doStartSession(sessionId);
+        } finally {
+            admissionControl.recordLatency(System.currentTimeMillis() - started);
+        }
+    }
+    
+    private ExamSession doStartSession(Long sessionId) {
         ExamSession session = examSessionRepository.findById(sessionId)
                 .orElseThrow(() -> new RuntimeException("Session not found"));
         
@@ -55,61 +124,144 @@ public class ExamSessionService {
         session.setEndTime(session.getStartTime().plusSeconds(session.getTimeRemainingSeconds()));
         session.setUpdatedAt(LocalDateTime.now());
         
-        return examSessionRepository.save(session);
+        ExamSession savedSession = examSessionRepository.save(session);
+        activeSessionRegistry.register(savedSession);
+        sessionDeadlineIndex.track(savedSession.getId(), savedSession.getEndTime());
+        return savedSession;
     }
     
     public ExamSession submitAnswer(Long sessionId, Long questionId, String answerText) {
-        ExamSession session = examSessionRepository.findById(sessionId)
-                .orElseThrow(() -> new RuntimeException("Session not found"));
-        
-        if (session.getStatus() != SessionStatus.IN_PROGRESS) {
+        ActiveSessionRegistry.ActiveSession active = activeSessionRegistry.get(sessionId);
+        if (active == null) {
+            examSessionRepository.findById(sessionId)
+                    .orElseThrow(() -> new RuntimeException("Session not found"));
             throw new RuntimeException("Session is not active");
         }
         
-        // Check if time has expired
-        if (LocalDateTime.now().isAfter(session.getEndTime())) {
-            session.setStatus(SessionStatus.TIMED_OUT);
-            examSessionRepository.save(session);
-            throw new RuntimeException("Session has expired");
+        synchronized (active) {
+            if (active.isClosed()) {
+                throw new RuntimeException("Session is not active");
+            }
+            ExamSession session = active.getSession();
+            
+            // Buffered and logged; written to session_answers by the next flush
+            if (!LocalDateTime.now().isAfter(session.getEndTime())) {
+                answerBuffer.record(sessionId, questionId, answerText);
+                active.markAnswered(questionId);
+                return session;
+            }
         }
         
-        // Save or update answer
-        Optional<SessionAnswer> existingAnswer = sessionAnswerRepository.findBySessionIdAndQuestionId(sessionId, questionId);
-        SessionAnswer answer;
-        
-        if (existingAnswer.isPresent()) {
-            answer = existingAnswer.get();
-            answer.setAnswerText(answerText);
-            answer.setAnsweredAt(LocalDateTime.now());
-        } else {
-            answer = new SessionAnswer(sessionId, questionId, answerText);
-            session.setAnsweredQuestions(session.getAnsweredQuestions() + 1);
+        // Time has expired: time out and grade now rather than wait for the sweeper
+        expireSessions(List.of(sessionId));
+        throw new RuntimeException("Session has expired");
+    }
+    
+    /**
+     * Records a batch of answers with one session check and one log write. Each
+     * clientTimestamp is moved onto the server's clock by the offset between
+     * clientTime (the client's clock when it sent the batch) and the time the
+     * batch arrived, so batch answers and single answers are ordered by the same
+     * clock and a retried or reordered batch never overwrites a later answer.
+     */
+    public ExamSession submitAnswers(Long sessionId, List<AnswerSubmission> submissions, Long clientTime) {
+        ActiveSessionRegistry.ActiveSession active = activeSessionRegistry.get(sessionId);
+        if (active == null) {
+            examSessionRepository.findById(sessionId)
+                    .orElseThrow(() -> new RuntimeException("Session not found"));
+            throw new RuntimeException("Session is not active");
         }
         
-        sessionAnswerRepository.save(answer);
-        examSessionRepository.save(session);
+        synchronized (active) {
+            if (active.isClosed()) {
+                throw new RuntimeException("Session is not active");
+            }
+            ExamSession session = active.getSession();
+            
+            LocalDateTime now = LocalDateTime.now();
+            if (!now.isAfter(session.getEndTime())) {
+                List<BufferedAnswer> answers = new ArrayList<>(submissions.size());
+                List<Long> questionIds = new ArrayList<>(submissions.size());
+                for (AnswerSubmission submission : submissions) {
+                    if (submission.getQuestionId() == null) {
+                        throw new RuntimeException("Each answer needs a questionId");
+                    }
+                    answers.add(new BufferedAnswer(sessionId, submission.getQuestionId(), submission.getAnswerText(),
+                            answeredAt(submission.getClientTimestamp(), clientTime, now)));
+                    questionIds.add(submission.getQuestionId());
+                }
+                answerBuffer.recordAll(answers);
+                active.markAnswered(questionIds);
+                return session;
+            }
+        }
         
-        return session;
+        expireSessions(List.of(sessionId));
+        throw new RuntimeException("Session has expired");
+    }
+    
+    // Single answers are stamped with the server's receive time, so batch answers must be too
+    private static LocalDateTime answeredAt(Long clientTimestamp, Long clientTime, LocalDateTime now) {
+        if (clientTimestamp == null) {
+            return now;
+        }
+        if (clientTime == null) {
+            throw new RuntimeException("X-Client-Time is required when answers carry a clientTimestamp");
+        }
+        long offsetMillis = now.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() - clientTime;
+        LocalDateTime serverTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(clientTimestamp + offsetMillis),
+                ZoneId.systemDefault());
+        // An answer cannot have been given after the batch was sent
+        return serverTime.isAfter(now) ? now : serverTime;
     }
     
     public ExamSession submitSession(Long sessionId) {
-        ExamSession session = examSessionRepository.findById(sessionId)
-                .orElseThrow(() -> new RuntimeException("Session not found"));
-        
-        if (session.getStatus() != SessionStatus.IN_PROGRESS) {
-            throw new RuntimeException("Session is not active");
+        // Stop taking answers and persist the buffered ones before reading the session
+        activeSessionRegistry.close(sessionId);
+        ExamSession savedSession;
+        try {
+            answerBuffer.flushSession(sessionId);
+            
+            ExamSession session = examSessionRepository.findById(sessionId)
+                    .orElseThrow(() -> new RuntimeException("Session not found"));
+            
+            if (session.getStatus() != SessionStatus.IN_PROGRESS) {
+                throw new RuntimeException("Session is not active");
+            }
+            
+            // Conditional on the status, so a session the sweeper just timed out stays TIMED_OUT;
+            // grading is queued with the status change and done by the outbox relay, which retries failures
+            LocalDateTime now = LocalDateTime.now();
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!sessionExpiryRepository.submitSession(sessionId, now)) {
+                    throw new RuntimeException("Session is not active");
+                }
+                sessionEvents.ended(sessionId);
+            });
+            
+            session.setStatus(SessionStatus.SUBMITTED);
+            session.setSubmittedTime(now);
+            session.setUpdatedAt(now);
+            savedSession = session;
+        } finally {
+            activeSessionRegistry.remove(sessionId);
         }
-        
-        session.setStatus(SessionStatus.SUBMITTED);
-        session.setSubmittedTime(LocalDateTime.now());
-        session.setUpdatedAt(LocalDateTime.now());
-        
-        return examSessionRepository.save(session);
+        sessionTimerHub.closed(sessionId, SessionStatus.SUBMITTED.name());
+        return savedSession;
     }
     
     public ExamSession getSessionById(Long sessionId) {
-        return examSessionRepository.findById(sessionId)
+        ExamSession session = examSessionRepository.findById(sessionId)
                 .orElseThrow(() -> new RuntimeException("Session not found"));
+        return withServerTime(session);
+    }
+    
+    // The stored value is the duration; while in progress, report what is left of it
+    private ExamSession withServerTime(ExamSession session) {
+        if (session.getStatus() == SessionStatus.IN_PROGRESS && session.getEndTime() != null) {
+            session.setTimeRemainingSeconds(SessionTimerHub.remainingSeconds(session.getEndTime(), LocalDateTime.now()));
+        }
+        return session;
     }
     
     public List<ExamSession> getSessionsByUserId(Long userId) {
@@ -120,37 +272,139 @@ public class ExamSessionService {
         return examSessionRepository.findByExamId(examId);
     }
     
+    /**
+     * Streams sessions matching the optional filters to out. Returns the number of rows written.
+     */
+    public long exportSessions(Long examId, SessionStatus status, LocalDateTime from, LocalDateTime to,
+                               ExportWriter.Format format, boolean gzip, OutputStream out) throws IOException {
+        long started = System.currentTimeMillis();
+        try (ExportWriter writer = new ExportWriter(out, format, gzip)) {
+            try {
+                sessionExportRepository.streamSessions(examId, status != null ? status.name() : null, from, to, rs -> {
+                    try {
+                        writer.writeRow(rs);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                // Usually the client went away mid-download
+                throw e.getCause();
+            }
+            System.out.println("Exported " + writer.getRows() + " sessions in " + (System.currentTimeMillis() - started) + "ms");
+            return writer.getRows();
+        }
+    }
+    
+    public CursorPage<ExamSession> getSessionsPageByExamId(Long examId, Long cursor, int size) {
+        int pageSize = CursorPage.clampSize(size);
+        return CursorPage.of(examSessionRepository.findByExamIdAndIdLessThanOrderByIdDesc(
+                examId, CursorPage.startBefore(cursor), PageRequest.of(0, pageSize + 1)), pageSize, ExamSession::getId);
+    }
+    
     public List<ExamSession> getActiveSessionsByUserId(Long userId) {
         return examSessionRepository.findActiveSessionsByUserId(userId);
     }
     
-    public ExamSession updateTimeRemaining(Long sessionId, Integer timeRemainingSeconds) {
+    /**
+     * Opens the session's timer stream. A session that is no longer in progress
+     * gets a single submit event.
+     */
+    public SseEmitter streamTimer(Long sessionId) {
+        ActiveSessionRegistry.ActiveSession active = activeSessionRegistry.get(sessionId);
+        if (active != null && active.getSession() != null && !active.isClosed()) {
+            return sessionTimerHub.subscribe(sessionId, active.getSession().getEndTime());
+        }
+        ExamSession session = examSessionRepository.findById(sessionId)
+                .orElseThrow(() -> new RuntimeException("Session not found"));
+        return sessionTimerHub.ended(sessionId, session.getStatus().name());
+    }
+    
+    /**
+     * Moves the end time of an in-progress session by the given number of seconds.
+     * The update only applies if the end time has not changed since it was read.
+     */
+    public ExamSession extendSession(Long sessionId, int seconds) {
         ExamSession session = examSessionRepository.findById(sessionId)
                 .orElseThrow(() -> new RuntimeException("Session not found"));
+        if (session.getStatus() != SessionStatus.IN_PROGRESS) {
+            throw new RuntimeException("Session is not active");
+        }
         
-        session.setTimeRemainingSeconds(timeRemainingSeconds);
-        session.setUpdatedAt(LocalDateTime.now());
+        LocalDateTime endTime = session.getEndTime().plusSeconds(seconds);
+        int updated = examSessionRepository.updateEndTime(sessionId, session.getEndTime(), endTime, LocalDateTime.now());
+        if (updated == 0) {
+            throw new RuntimeException("Session changed while extending, try again");
+        }
+        
+        ActiveSessionRegistry.ActiveSession active = activeSessionRegistry.get(sessionId);
+        if (active != null && active.getSession() != null) {
+            synchronized (active) {
+                active.getSession().setEndTime(endTime);
+            }
+        }
+        sessionDeadlineIndex.track(sessionId, endTime);
+        sessionTimerHub.extended(sessionId, endTime);
         
-        return examSessionRepository.save(session);
+        session.setEndTime(endTime);
+        return withServerTime(session);
     }
     
     public List<SessionAnswer> getSessionAnswers(Long sessionId) {
-        return sessionAnswerRepository.findBySessionId(sessionId);
+        List<SessionAnswer> answers = sessionAnswerRepository.findBySessionId(sessionId);
+        Map<Long, BufferedAnswer> buffered = answerBuffer.getPendingAnswers(sessionId);
+        if (buffered.isEmpty()) {
+            return answers;
+        }
+        
+        // Overlay answers that have not been flushed yet
+        Map<Long, SessionAnswer> byQuestion = new LinkedHashMap<>();
+        for (SessionAnswer answer : answers) {
+            byQuestion.put(answer.getQuestionId(), answer);
+        }
+        for (BufferedAnswer pending : buffered.values()) {
+            SessionAnswer answer = byQuestion.get(pending.getQuestionId());
+            if (answer == null) {
+                answer = new SessionAnswer(sessionId, pending.getQuestionId(), pending.getAnswerText());
+                byQuestion.put(pending.getQuestionId(), answer);
+            }
+            answer.setAnswerText(pending.getAnswerText());
+            answer.setAnsweredAt(pending.getAnsweredAt());
+        }
+        return new ArrayList<>(byQuestion.values());
     }
     
     public SessionAnswer getAnswerBySessionAndQuestion(Long sessionId, Long questionId) {
-        return sessionAnswerRepository.findBySessionIdAndQuestionId(sessionId, questionId)
+        BufferedAnswer pending = answerBuffer.getPendingAnswers(sessionId).get(questionId);
+        SessionAnswer answer = sessionAnswerRepository.findBySessionIdAndQuestionId(sessionId, questionId)
                 .orElse(null);
+        if (pending == null) {
+            return answer;
+        }
+        if (answer == null) {
+            answer = new SessionAnswer(sessionId, questionId, pending.getAnswerText());
+        }
+        answer.setAnswerText(pending.getAnswerText());
+        answer.setAnsweredAt(pending.getAnsweredAt());
+        return answer;
     }
     
     public void cancelSession(Long sessionId) {
         ExamSession session = examSessionRepository.findById(sessionId)
                 .orElseThrow(() -> new RuntimeException("Session not found"));
         
-        session.setStatus(SessionStatus.CANCELLED);
-        session.setUpdatedAt(LocalDateTime.now());
-        
-        examSessionRepository.save(session);
+        // Stop taking answers first, so none are buffered after the discard
+        activeSessionRegistry.close(sessionId);
+        try {
+            session.setStatus(SessionStatus.CANCELLED);
+            session.setUpdatedAt(LocalDateTime.now());
+            
+            examSessionRepository.save(session);
+            answerBuffer.discard(sessionId);
+        } finally {
+            activeSessionRegistry.remove(sessionId);
+        }
+        sessionTimerHub.closed(sessionId, SessionStatus.CANCELLED.name());
     }
     
     public List<ExamSession> getExpiredSessions() {
@@ -158,18 +412,51 @@ public class ExamSessionService {
     }
     
     public void autoSubmitExpiredSessions() {
-        List<ExamSession> expiredSessions = getExpiredSessions();
-        for (ExamSession session : expiredSessions) {
-            session.setStatus(SessionStatus.TIMED_OUT);
-            session.setUpdatedAt(LocalDateTime.now());
-            examSessionRepository.save(session);
+        List<Long> expired;
+        do {
+            expired = sessionExpiryRepository.findExpiredSessionIds(LocalDateTime.now(), 500);
+            expireSessions(expired);
+        } while (expired.size() == 500);
+    }
+    
+    /**
+     * Times out the given sessions that are still in progress and past their end
+     * time with one set-based UPDATE, and queues their grading in the same
+     * transaction. The outbox relay flushes their buffered answers and grades them.
+     */
+    public void expireSessions(List<Long> sessionIds) {
+        if (sessionIds.isEmpty()) {
+            return;
+        }
+        // Stop taking answers before the status changes, as submitSession does
+        for (Long sessionId : sessionIds) {
+            activeSessionRegistry.close(sessionId);
+        }
+        List<Long> timedOut;
+        try {
+            timedOut = transactionTemplate.execute(status -> {
+                List<Long> expired = sessionExpiryRepository.timeOutSessions(sessionIds, LocalDateTime.now());
+                expired.forEach(sessionEvents::ended);
+                return expired;
+            });
+        } finally {
+            // Sessions that turned out not to be due, e.g. extended, are reloaded on their next answer
+            for (Long sessionId : sessionIds) {
+                activeSessionRegistry.remove(sessionId);
+            }
+        }
+        for (Long sessionId : timedOut) {
+            sessionTimerHub.closed(sessionId, SessionStatus.TIMED_OUT.name());
         }
     }
     
     public void deleteSessionsByUserId(Long userId) {
         List<ExamSession> userSessions = examSessionRepository.findByUserId(userId);
         for (ExamSession session : userSessions) {
-            // Delete all answers for this session first
+            // Delete all answers for this session first, including unflushed ones
+            activeSessionRegistry.remove(session.getId());
+            sessionTimerHub.closed(session.getId(), SessionStatus.CANCELLED.name());
+            answerBuffer.discard(session.getId());
             sessionAnswerRepository.deleteBySessionId(session.getId());
         }
         // Then delete all sessions for the user
@@ -0,0 +1,102 @@
+package com.examportal.examsessionservice.service;
+
+import com.examportal.examsessionservice.dto.GradingSummary;
+import com.examportal.examsessionservice.entity.ExamSession;
+import com.examportal.examsessionservice.entity.SessionAnswer;
+import com.examportal.examsessionservice.repository.SessionAnswerBatchRepository;
+import com.examportal.examsessionservice.repository.SessionAnswerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Grades a whole session in one pass: a cached, precompiled answer key, one
+ * query for the session's answers, and one JDBC batch to write the marks back.
+ */
+@Service
+public class GradingService {
+    
+    @Autowired
+    private AnswerKeyCache answerKeyCache;
+    
+    @Autowired
+    private SessionAnswerRepository sessionAnswerRepository;
+    
+    @Autowired
+    private SessionAnswerBatchRepository sessionAnswerBatchRepository;
+    
+    @Autowired
+    private SessionAnswerVersions answerVersions;
+    
+    public AnswerKey loadAnswerKey(Long examId) {
+        return answerKeyCache.get(examId);
+    }
+    
+    @Transactional
+    public GradingSummary gradeSession(ExamSession session) {
+        AnswerKey answerKey = loadAnswerKey(session.getExamId());
+        List<SessionAnswer> answers = sessionAnswerRepository.findBySessionId(session.getId());
+        return gradeSession(session, answerKey, answers);
+    }
+    
+    @Transactional
+    public GradingSummary gradeSession(ExamSession session, AnswerKey answerKey, List<SessionAnswer> answers) {
+        int answered = 0;
+        int correct = 0;
+        int wrong = 0;
+        int obtained = 0;
+        
+        for (SessionAnswer answer : answers) {
+            AnswerKey.KeyedQuestion question = answerKey.get(answer.getQuestionId());
+            if (question == null) {
+                // Question was removed from the exam after the answer was given
+                answer.setIsCorrect(false);
+                answer.setMarksObtained(0);
+                continue;
+            }
+            if (answer.getAnswerText() != null && !answer.getAnswerText().trim().isEmpty()) {
+                answered++;
+            }
+            
+            Boolean isCorrect = question.getMatcher().matches(answer.getAnswerText());
+            answer.setIsCorrect(isCorrect);
+            if (Boolean.TRUE.equals(isCorrect)) {
+                answer.setMarksObtained(question.getMarks());
+                obtained += question.getMarks();
+                correct++;
+            } else {
+                answer.setMarksObtained(0);
+                if (Boolean.FALSE.equals(isCorrect)) {
+                    wrong++;
+                }
+            }
+        }
+        
+        if (!answers.isEmpty()) {
+            sessionAnswerBatchRepository.updateGrades(answers);
+            answerVersions.bumpAfterCommit(session.getId());
+        }
+        
+        int totalMarks = answerKey.getTotalMarks();
+        GradingSummary summary = new GradingSummary();
+        summary.setSessionId(session.getId());
+        summary.setExamId(session.getExamId());
+        summary.setUserId(session.getUserId());
+        summary.setTotalQuestions(answerKey.getQuestionCount() > 0 ? answerKey.getQuestionCount() : session.getTotalQuestions());
+        summary.setAnsweredQuestions(answered);
+        summary.setCorrectAnswers(correct);
+        summary.setWrongAnswers(wrong);
+        summary.setTotalMarks(totalMarks);
+        summary.setObtainedMarks(obtained);
+        summary.setPercentage(totalMarks > 0 ? (obtained * 100.0) / totalMarks : 0.0);
+        summary.setSubmittedAt(session.getSubmittedTime() != null ? session.getSubmittedTime() : LocalDateTime.now());
+        if (session.getStartTime() != null) {
+            summary.setTimeTakenMinutes((int) Duration.between(session.getStartTime(), summary.getSubmittedAt()).toMinutes());
+        }
+        return summary;
+    }
+}
@@ -0,0 +1,103 @@
+package com.examportal.examsessionservice.service;
+
+/**
+ * Maps answer strings to ints, comparing them the way answers are graded:
+ * case-insensitive, ignoring leading and trailing whitespace, and treating any
+ * run of inner whitespace as a single space. Lookups normalize while walking
+ * the trie, so grading an answer allocates nothing.
+ */
+final class NormalizedTrie {
+    
+    static final int NONE = -1;
+    
+    private final Node root = new Node();
+    
+    /**
+     * Empty (all-whitespace) keys are ignored.
+     */
+    void put(CharSequence key, int value) {
+        Node node = root;
+        boolean started = false;
+        boolean pendingSpace = false;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = started;
+                continue;
+            }
+            if (pendingSpace) {
+                node = node.childOrCreate(' ');
+                pendingSpace = false;
+            }
+            node = node.childOrCreate(Character.toUpperCase(c));
+            started = true;
+        }
+        if (started) {
+            node.value = value;
+        }
+    }
+    
+    int get(CharSequence text) {
+        if (text == null) {
+            return NONE;
+        }
+        Node node = root;
+        boolean started = false;
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length() && node != null; i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = started;
+                continue;
+            }
+            if (pendingSpace) {
+                node = node.child(' ');
+                pendingSpace = false;
+                if (node == null) {
+                    break;
+                }
+            }
+            node = node.child(Character.toUpperCase(c));
+            started = true;
+        }
+        return node != null && started ? node.value : NONE;
+    }
+    
+    boolean contains(CharSequence text) {
+        return get(text) != NONE;
+    }
+    
+    private static final class Node {
+        
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private int value = NONE;
+        
+        Node child(char c) {
+            // Fan-out is small (a handful of options or alternatives), so a scan beats hashing
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+        
+        Node childOrCreate(char c) {
+            Node existing = child(c);
+            if (existing != null) {
+                return existing;
+            }
+            int n = keys.length;
+            char[] grownKeys = new char[n + 1];
+            Node[] grownChildren = new Node[n + 1];
+            System.arraycopy(keys, 0, grownKeys, 0, n);
+            System.arraycopy(children, 0, grownChildren, 0, n);
+            grownKeys[n] = c;
+            grownChildren[n] = new Node();
+            keys = grownKeys;
+            children = grownChildren;
+            return grownChildren[n];
+        }
+    }
+}
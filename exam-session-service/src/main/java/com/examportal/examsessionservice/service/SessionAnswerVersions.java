@@ -0,0 +1,66 @@
+package com.examportal.examsessionservice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of each session's answers, bumped whenever they change in a way the
+ * session row does not show: buffered writes, discards and grading. Versions
+ * come from one counter seeded with the start time, so a session never gets a
+ * version it had before, even across restarts. A session without an entry,
+ * e.g. one evicted after idling, is given a new version, so anything built
+ * from an older one no longer matches.
+ */
+@Component
+public class SessionAnswerVersions {
+
+    private final AtomicLong counter = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final ConcurrentHashMap<Long, Entry> versions = new ConcurrentHashMap<>();
+
+    @Value("${session.resume.version-ttl-ms:3600000}")
+    private long ttlMillis;
+
+    public void bump(Long sessionId) {
+        versions.put(sessionId, new Entry(counter.incrementAndGet()));
+    }
+
+    // Bumping before the commit would let a resume cache the old answers under the new version
+    public void bumpAfterCommit(Long sessionId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(sessionId);
+                }
+            });
+        } else {
+            bump(sessionId);
+        }
+    }
+
+    public long get(Long sessionId) {
+        return versions.computeIfAbsent(sessionId, id -> new Entry(counter.incrementAndGet())).version;
+    }
+
+    // Dropping an entry only costs the next resume of that session one rebuild
+    @Scheduled(fixedDelayString = "${session.resume.version-ttl-ms:3600000}")
+    public void evictIdle() {
+        long cutoff = System.nanoTime() - ttlMillis * 1_000_000L;
+        versions.values().removeIf(entry -> entry.touchedAt - cutoff < 0);
+    }
+
+    private static final class Entry {
+        private final long version;
+        private final long touchedAt = System.nanoTime();
+
+        Entry(long version) {
+            this.version = version;
+        }
+    }
+}
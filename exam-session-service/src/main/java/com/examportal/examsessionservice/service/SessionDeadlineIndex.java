@@ -0,0 +1,97 @@
+package com.examportal.examsessionservice.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Min-heap of in-progress session end times. The expiry sweeper sleeps until
+ * the earliest deadline instead of polling the database. Entries are hints:
+ * a session that was submitted or extended in the meantime is filtered out by
+ * the expiry UPDATE itself, so stale entries are harmless.
+ */
+@Component
+public class SessionDeadlineIndex {
+
+    private final PriorityQueue<Deadline> deadlines = new PriorityQueue<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+
+    public void track(Long sessionId, LocalDateTime endTime) {
+        if (sessionId == null || endTime == null) {
+            return;
+        }
+        long dueAt = endTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        lock.lock();
+        try {
+            Deadline head = deadlines.peek();
+            deadlines.add(new Deadline(dueAt, sessionId));
+            if (head == null || dueAt < head.dueAt) {
+                // New earliest deadline: wake the sweeper so it re-arms its timer
+                changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until at least one deadline has passed or maxWaitMillis elapses,
+     * then removes and returns up to limit due session ids (possibly none).
+     */
+    public List<Long> awaitDue(long maxWaitMillis, int limit) throws InterruptedException {
+        long giveUpAt = System.currentTimeMillis() + maxWaitMillis;
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                long now = System.currentTimeMillis();
+                Deadline head = deadlines.peek();
+                if (head != null && head.dueAt <= now) {
+                    List<Long> due = new ArrayList<>();
+                    while (due.size() < limit && !deadlines.isEmpty() && deadlines.peek().dueAt <= now) {
+                        due.add(deadlines.poll().sessionId);
+                    }
+                    return due;
+                }
+                if (now >= giveUpAt) {
+                    return List.of();
+                }
+                long wakeAt = head != null ? Math.min(head.dueAt, giveUpAt) : giveUpAt;
+                changed.await(wakeAt - now, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return deadlines.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class Deadline implements Comparable<Deadline> {
+        private final long dueAt;
+        private final long sessionId;
+
+        Deadline(long dueAt, long sessionId) {
+            this.dueAt = dueAt;
+            this.sessionId = sessionId;
+        }
+
+        @Override
+        public int compareTo(Deadline other) {
+            return Long.compare(dueAt, other.dueAt);
+        }
+    }
+}
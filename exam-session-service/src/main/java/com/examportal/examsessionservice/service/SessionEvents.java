@@ -0,0 +1,25 @@
+package com.examportal.examsessionservice.service;
+
+import com.examportal.outbox.Outbox;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Queues the follow-up work of ended sessions in the outbox. Call from inside
+ * the transaction that ends the session, so a session can never be submitted
+ * or timed out without its grading being queued.
+ */
+@Component
+public class SessionEvents {
+
+    public static final String GRADE = "session.grade";
+
+    @Autowired
+    private Outbox outbox;
+
+    public void ended(Long sessionId) {
+        outbox.enqueue(GRADE, GRADE + ":" + sessionId, Map.of("sessionId", sessionId));
+    }
+}
@@ -0,0 +1,94 @@
+package com.examportal.examsessionservice.service;
+
+import com.examportal.examsessionservice.repository.SessionExpiryRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Background thread that times out sessions as their end time passes. It sleeps
+ * on {@link SessionDeadlineIndex} until the next deadline and expires due
+ * sessions in chunks. A slower safety sweep against the database catches
+ * sessions this node never saw start.
+ */
+@Component
+public class SessionExpirySweeper {
+
+    @Autowired
+    private SessionDeadlineIndex deadlineIndex;
+
+    @Autowired
+    private SessionExpiryRepository sessionExpiryRepository;
+
+    @Autowired
+    private ExamSessionService examSessionService;
+
+    @Value("${session.expiry.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${session.expiry.safety-sweep-ms:300000}")
+    private long safetySweepMillis;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        List<Object[]> inProgress = sessionExpiryRepository.findInProgressDeadlines();
+        for (Object[] row : inProgress) {
+            deadlineIndex.track((Long) row[0], (LocalDateTime) row[1]);
+        }
+        System.out.println("Session expiry sweeper tracking " + inProgress.size() + " in-progress sessions");
+
+        running = true;
+        worker = new Thread(this::run, "session-expiry-sweeper");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    private void run() {
+        long nextSafetySweep = System.currentTimeMillis() + safetySweepMillis;
+        while (running) {
+            try {
+                long wait = Math.max(1, nextSafetySweep - System.currentTimeMillis());
+                List<Long> due = deadlineIndex.awaitDue(wait, chunkSize);
+                if (!due.isEmpty()) {
+                    examSessionService.expireSessions(due);
+                }
+                if (System.currentTimeMillis() >= nextSafetySweep) {
+                    safetySweep();
+                    nextSafetySweep = System.currentTimeMillis() + safetySweepMillis;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                System.err.println("Session expiry sweep failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void safetySweep() {
+        List<Long> expired;
+        do {
+            expired = sessionExpiryRepository.findExpiredSessionIds(LocalDateTime.now(), chunkSize);
+            if (!expired.isEmpty()) {
+                examSessionService.expireSessions(expired);
+            }
+        } while (running && expired.size() == chunkSize);
+    }
+}
@@ -0,0 +1,47 @@
+package com.examportal.examsessionservice.service;
+
+import com.examportal.examsessionservice.client.ResultClient;
+import com.examportal.examsessionservice.dto.GradingSummary;
+import com.examportal.examsessionservice.entity.ExamSession;
+import com.examportal.examsessionservice.entity.SessionStatus;
+import com.examportal.examsessionservice.repository.ExamSessionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Grades an ended session and records the result in result-service. Runs from
+ * the outbox relay, so any failure is thrown and retried with backoff. Every
+ * step can be repeated: the buffer flush and grade write-back overwrite, and
+ * result-service keys the graded result by session.
+ */
+@Component
+public class SessionGrader {
+
+    @Autowired
+    private ExamSessionRepository examSessionRepository;
+
+    @Autowired
+    private AnswerBuffer answerBuffer;
+
+    @Autowired
+    private GradingService gradingService;
+
+    @Autowired
+    private ResultClient resultClient;
+
+    public void gradeAndRecordResult(Long sessionId) {
+        ExamSession session = examSessionRepository.findById(sessionId).orElse(null);
+        if (session == null) {
+            // Deleted along with its user; there is nothing left to grade
+            return;
+        }
+        if (session.getStatus() != SessionStatus.SUBMITTED && session.getStatus() != SessionStatus.TIMED_OUT) {
+            throw new IllegalStateException("Session " + sessionId + " has not ended (" + session.getStatus() + ")");
+        }
+
+        // Answers still buffered when the session ended, e.g. if the flush at timeout failed
+        answerBuffer.flushSession(sessionId);
+        GradingSummary summary = gradingService.gradeSession(session);
+        resultClient.recordGradedResult(summary);
+    }
+}
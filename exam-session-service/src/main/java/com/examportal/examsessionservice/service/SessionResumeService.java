@@ -0,0 +1,170 @@
+package com.examportal.examsessionservice.service;
+
+import com.examportal.examsessionservice.dto.ResumeSnapshot;
+import com.examportal.examsessionservice.entity.ExamSession;
+import com.examportal.examsessionservice.entity.SessionStatus;
+import com.examportal.examsessionservice.repository.ExamSessionRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Builds the resume snapshot for a session in one call. The ETag is derived
+ * from the session row, the answer version and the exam and paper versions, so
+ * a client whose copy is current gets its answer before any body is built. The
+ * last encoded body per session is kept and reused until one of those changes.
+ */
+@Service
+public class SessionResumeService {
+    
+    @Autowired
+    private ExamSessionRepository examSessionRepository;
+    
+    @Autowired
+    private ExamSessionService examSessionService;
+    
+    @Autowired
+    private ExamContentCache examContentCache;
+    
+    @Autowired
+    private SessionAnswerVersions answerVersions;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${session.resume.threads:8}")
+    private int threads;
+    
+    @Value("${session.resume.timeout-ms:5000}")
+    private long timeoutMillis;
+    
+    @Value("${session.resume.snapshot-ttl-ms:600000}")
+    private long snapshotTtlMillis;
+    
+    private final ConcurrentHashMap<Long, Encoded> encoded = new ConcurrentHashMap<>();
+    
+    private ExecutorService executor;
+    
+    @PostConstruct
+    public void start() {
+        executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "session-resume");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+    
+    /**
+     * The session's snapshot, without a body when ifNoneMatch already names its ETag.
+     */
+    public ResumeSnapshot getSnapshot(Long sessionId, String ifNoneMatch) {
+        // Read before anything it covers, so a change made while building moves it past this snapshot
+        long answerVersion = answerVersions.get(sessionId);
+        ExamSession session = examSessionRepository.findById(sessionId)
+                .orElseThrow(() -> new RuntimeException("Session not found"));
+        Long examId = session.getExamId();
+        
+        CompletableFuture<ExamContentCache.Content> exam =
+                CompletableFuture.supplyAsync(() -> examContentCache.getExam(examId), executor);
+        CompletableFuture<ExamContentCache.Content> paper =
+                CompletableFuture.supplyAsync(() -> examContentCache.getPaper(examId), executor);
+        ExamContentCache.Content examContent = await(exam, "exam");
+        ExamContentCache.Content paperContent = await(paper, "questions");
+        
+        byte[] digest = sha256((sessionId + "|" + session.getUpdatedAt() + "|" + answerVersion + "|"
+                + examContent.getVersion() + "|" + paperContent.getVersion()).getBytes(StandardCharsets.UTF_8));
+        int timeRemaining = session.getStatus() == SessionStatus.IN_PROGRESS
+                ? SessionTimerHub.remainingSeconds(session.getEndTime(), LocalDateTime.now())
+                : 0;
+        
+        ResumeSnapshot unchanged = new ResumeSnapshot(null, digest, timeRemaining);
+        if (unchanged.matches(ifNoneMatch)) {
+            return unchanged;
+        }
+        Encoded cached = encoded.get(sessionId);
+        if (cached != null && Arrays.equals(cached.digest, digest)) {
+            return new ResumeSnapshot(cached.json, digest, timeRemaining);
+        }
+        
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("session", session);
+        body.put("answers", examSessionService.getSessionAnswers(sessionId));
+        body.put("exam", new RawValue(examContent.getJson()));
+        body.put("questions", new RawValue(paperContent.getJson()));
+        
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize resume snapshot for session " + sessionId, e);
+        }
+        encoded.put(sessionId, new Encoded(json, digest));
+        return new ResumeSnapshot(json, digest, timeRemaining);
+    }
+    
+    @Scheduled(fixedDelayString = "${session.resume.snapshot-ttl-ms:600000}")
+    public void evictIdle() {
+        long cutoff = System.nanoTime() - snapshotTtlMillis * 1_000_000L;
+        encoded.values().removeIf(entry -> entry.builtAt - cutoff < 0);
+    }
+    
+    private <T> T await(CompletableFuture<T> future, String part) {
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new RuntimeException("Timed out loading " + part);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted loading " + part);
+        } catch (Exception e) {
+            Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+            throw new RuntimeException("Failed to load " + part + ": " + (cause != null ? cause.getMessage() : e.getMessage()));
+        }
+    }
+    
+    private static byte[] sha256(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static final class Encoded {
+        private final byte[] json;
+        private final byte[] digest;
+        private final long builtAt = System.nanoTime();
+        
+        Encoded(byte[] json, byte[] digest) {
+            this.json = json;
+            this.digest = digest;
+        }
+    }
+}
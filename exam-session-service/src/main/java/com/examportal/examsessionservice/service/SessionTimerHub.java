@@ -0,0 +1,213 @@
+package com.examportal.examsessionservice.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes exam timers to clients as Server-Sent Events. Remaining time is always
+ * computed from the session's end time, so the browser never reports it back.
+ * Every stream is served by a small shared pool: each thread ticks the sessions
+ * whose id falls in its partition, so the thread count does not grow with the
+ * number of students.
+ *
+ * Events: "time" on every tick, "extended" when the end time moves, and
+ * "submit" when the session ends, after which the stream is completed.
+ */
+@Component
+public class SessionTimerHub {
+    
+    public static final String TIME = "time";
+    public static final String EXTENDED = "extended";
+    public static final String SUBMIT = "submit";
+    
+    @Value("${session.timer.tick-ms:5000}")
+    private long tickMillis;
+    
+    @Value("${session.timer.threads:2}")
+    private int threads;
+    
+    // Sessions ended on another node are only noticed once this long overdue
+    @Value("${session.timer.grace-ms:30000}")
+    private long graceMillis;
+    
+    @Value("${session.timer.stream-timeout-ms:14400000}")
+    private long streamTimeoutMillis;
+    
+    private final ConcurrentHashMap<Long, TimedSession> sessions = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+    
+    @PostConstruct
+    public void start() {
+        int partitions = Math.max(1, threads);
+        scheduler = Executors.newScheduledThreadPool(partitions, runnable -> {
+            Thread thread = new Thread(runnable, "session-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < partitions; i++) {
+            int partition = i;
+            scheduler.scheduleWithFixedDelay(() -> tick(partition, partitions), tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        for (TimedSession timed : sessions.values()) {
+            timed.emitters.forEach(SseEmitter::complete);
+        }
+        sessions.clear();
+    }
+    
+    /**
+     * Opens a timer stream for an in-progress session ending at endTime.
+     */
+    public SseEmitter subscribe(Long sessionId, LocalDateTime endTime) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        TimedSession timed = sessions.compute(sessionId, (id, existing) -> {
+            TimedSession current = existing != null ? existing : new TimedSession(endTime);
+            current.emitters.add(emitter);
+            return current;
+        });
+        Runnable detach = () -> detach(sessionId, emitter);
+        emitter.onCompletion(detach);
+        emitter.onTimeout(detach);
+        emitter.onError(error -> detach.run());
+        send(sessionId, emitter, TIME, timePayload(sessionId, timed.endTime));
+        return emitter;
+    }
+    
+    /**
+     * Opens a stream that only reports that the session has already ended.
+     */
+    public SseEmitter ended(Long sessionId, String status) {
+        SseEmitter emitter = new SseEmitter(0L);
+        try {
+            emitter.send(SseEmitter.event().name(SUBMIT).data(submitPayload(sessionId, status)));
+            emitter.complete();
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+    
+    public void extended(Long sessionId, LocalDateTime endTime) {
+        TimedSession timed = sessions.get(sessionId);
+        if (timed == null) {
+            return;
+        }
+        timed.endTime = endTime;
+        broadcast(sessionId, timed, EXTENDED, timePayload(sessionId, endTime));
+    }
+    
+    /**
+     * Tells the session's clients it has ended, forcing them to submit, and closes their streams.
+     */
+    public void closed(Long sessionId, String status) {
+        TimedSession timed = sessions.remove(sessionId);
+        if (timed == null) {
+            return;
+        }
+        broadcast(sessionId, timed, SUBMIT, submitPayload(sessionId, status));
+        timed.emitters.forEach(SseEmitter::complete);
+    }
+    
+    public int getOpenStreams() {
+        int open = 0;
+        for (TimedSession timed : sessions.values()) {
+            open += timed.emitters.size();
+        }
+        return open;
+    }
+    
+    private void tick(int partition, int partitions) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            for (Map.Entry<Long, TimedSession> entry : sessions.entrySet()) {
+                Long sessionId = entry.getKey();
+                if (Math.floorMod(sessionId, partitions) != partition) {
+                    continue;
+                }
+                TimedSession timed = entry.getValue();
+                if (Duration.between(timed.endTime, now).toMillis() > graceMillis) {
+                    closed(sessionId, "TIMED_OUT");
+                    continue;
+                }
+                broadcast(sessionId, timed, TIME, timePayload(sessionId, timed.endTime));
+            }
+        } catch (Exception e) {
+            System.err.println("Session timer tick failed: " + e.getMessage());
+        }
+    }
+    
+    private void broadcast(Long sessionId, TimedSession timed, String name, Map<String, Object> payload) {
+        for (SseEmitter emitter : timed.emitters) {
+            send(sessionId, emitter, name, payload);
+        }
+    }
+    
+    private void send(Long sessionId, SseEmitter emitter, String name, Map<String, Object> payload) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(payload));
+        } catch (IOException | IllegalStateException e) {
+            // The client went away
+            detach(sessionId, emitter);
+        }
+    }
+    
+    private void detach(Long sessionId, SseEmitter emitter) {
+        sessions.computeIfPresent(sessionId, (id, timed) -> {
+            timed.emitters.remove(emitter);
+            return timed.emitters.isEmpty() ? null : timed;
+        });
+    }
+    
+    private static Map<String, Object> timePayload(Long sessionId, LocalDateTime endTime) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("sessionId", sessionId);
+        payload.put("timeRemainingSeconds", remainingSeconds(endTime, LocalDateTime.now()));
+        payload.put("endTime", endTime.toString());
+        payload.put("serverTime", System.currentTimeMillis());
+        return payload;
+    }
+    
+    private static Map<String, Object> submitPayload(Long sessionId, String status) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("sessionId", sessionId);
+        payload.put("status", status);
+        return payload;
+    }
+    
+    public static int remainingSeconds(LocalDateTime endTime, LocalDateTime now) {
+        if (endTime == null) {
+            return 0;
+        }
+        return (int) Math.max(0, Duration.between(now, endTime).getSeconds());
+    }
+    
+    private static final class TimedSession {
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        private volatile LocalDateTime endTime;
+        
+        TimedSession(LocalDateTime endTime) {
+            this.endTime = endTime;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.examportal.examsessionservice.service;
+
+import com.examportal.examsessionservice.service.AdmissionControl.Decision;
+import com.examportal.examsessionservice.service.AdmissionControl.Ticket;
+import com.examportal.examsessionservice.service.AdmissionControl.TicketStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdmissionControlTest {
+
+    private static final Long EXAM = 1L;
+
+    private AdmissionControl admission;
+
+    @AfterEach
+    void tearDown() {
+        if (admission != null) {
+            admission.stop();
+        }
+    }
+
+    @Test
+    void admitsImmediatelyWhileTokensLastThenQueues() {
+        start(2, 60000);
+
+        assertThat(admission.admit(EXAM, 1L, null).isAdmitted()).isTrue();
+        assertThat(admission.admit(EXAM, 2L, null).isAdmitted()).isTrue();
+
+        Decision third = admission.admit(EXAM, 3L, null);
+        Decision fourth = admission.admit(EXAM, 4L, null);
+        assertThat(third.isAdmitted()).isFalse();
+        assertThat(third.getPosition()).isEqualTo(1);
+        assertThat(third.getRetryAfterSeconds()).isPositive();
+        assertThat(fourth.getPosition()).isEqualTo(2);
+    }
+
+    @Test
+    void rejoiningWhileWaitingKeepsTheSameTicket() {
+        start(1, 60000);
+        admission.admit(EXAM, 1L, null);
+
+        Ticket ticket = admission.join(EXAM, 2L);
+
+        assertThat(admission.join(EXAM, 2L)).isSameAs(ticket);
+        assertThat(admission.admit(EXAM, 2L, null).getTicketId()).isEqualTo(ticket.getId());
+    }
+
+    @Test
+    void dispatcherAdmitsTheHeadOfTheQueueAndTheGrantIsUsedOnce() {
+        start(1, 60000);
+        admission.admit(EXAM, 1L, null);
+        Ticket first = admission.join(EXAM, 2L);
+        Ticket second = admission.join(EXAM, 3L);
+
+        dispatchAfterSeconds(1);
+
+        assertThat(first.getStatus()).isEqualTo(TicketStatus.ADMITTED);
+        assertThat(second.getStatus()).isEqualTo(TicketStatus.WAITING);
+        assertThat(admission.describe(second).get("position")).isEqualTo(1);
+
+        Decision decision = admission.admit(EXAM, 2L, first.getId());
+        assertThat(decision.isAdmitted()).isTrue();
+        assertThat(decision.getTicketId()).isEqualTo(first.getId());
+        assertThat(first.getStatus()).isEqualTo(TicketStatus.USED);
+
+        // A used ticket does not admit twice; the student queues again
+        Decision again = admission.admit(EXAM, 2L, first.getId());
+        assertThat(again.isAdmitted()).isFalse();
+        assertThat(again.getTicketId()).isNotEqualTo(first.getId());
+        assertThat(again.getPosition()).isEqualTo(2);
+    }
+
+    @Test
+    void unusedGrantExpiresAndTheStudentQueuesAgain() throws InterruptedException {
+        start(1, 0);
+        Ticket granted = admission.join(EXAM, 1L);
+        assertThat(granted.getStatus()).isEqualTo(TicketStatus.ADMITTED);
+
+        Thread.sleep(2);
+        dispatchAfterSeconds(0);
+
+        assertThat(granted.getStatus()).isEqualTo(TicketStatus.EXPIRED);
+        Decision decision = admission.admit(EXAM, 1L, granted.getId());
+        assertThat(decision.isAdmitted()).isFalse();
+        assertThat(decision.getTicketId()).isNotEqualTo(granted.getId());
+    }
+
+    @Test
+    void ticketOfAnotherStudentIsRejected() {
+        start(1, 60000);
+        Ticket ticket = admission.join(EXAM, 1L);
+
+        assertThatThrownBy(() -> admission.admit(EXAM, 2L, ticket.getId())).isInstanceOf(RuntimeException.class);
+        assertThatThrownBy(() -> admission.admit(2L, 1L, ticket.getId())).isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    void disabledAdmitsEveryone() {
+        admission = new AdmissionControl();
+        ReflectionTestUtils.setField(admission, "enabled", false);
+
+        for (long userId = 1; userId <= 5; userId++) {
+            assertThat(admission.admit(EXAM, userId, null).isAdmitted()).isTrue();
+        }
+    }
+
+    // The scheduled dispatcher is parked; tests run dispatch() themselves
+    private void start(double rate, long grantTtlMillis) {
+        admission = new AdmissionControl();
+        ReflectionTestUtils.setField(admission, "enabled", true);
+        ReflectionTestUtils.setField(admission, "initialRate", rate);
+        ReflectionTestUtils.setField(admission, "minRate", rate);
+        ReflectionTestUtils.setField(admission, "maxRate", rate);
+        ReflectionTestUtils.setField(admission, "rateStep", 0.0);
+        ReflectionTestUtils.setField(admission, "decreaseFactor", 1.0);
+        ReflectionTestUtils.setField(admission, "latencyTargetMillis", 250.0);
+        ReflectionTestUtils.setField(admission, "grantTtlMillis", grantTtlMillis);
+        ReflectionTestUtils.setField(admission, "dispatchMillis", 3_600_000L);
+        ReflectionTestUtils.setField(admission, "streamTimeoutMillis", 1000L);
+        admission.start();
+    }
+
+    // Runs one dispatch as if the given time had passed since the last one
+    private void dispatchAfterSeconds(long seconds) {
+        ReflectionTestUtils.setField(admission, "lastDispatch", System.nanoTime() - seconds * 1_000_000_000L);
+        ReflectionTestUtils.invokeMethod(admission, "dispatch");
+    }
+}
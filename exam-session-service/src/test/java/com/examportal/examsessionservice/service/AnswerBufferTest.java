@@ -0,0 +1,182 @@
+package com.examportal.examsessionservice.service;
+
+import com.examportal.examsessionservice.dto.BufferedAnswer;
+import com.examportal.examsessionservice.repository.SessionAnswerBatchRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AnswerBufferTest {
+
+    private static final LocalDateTime AT = LocalDateTime.of(2024, 5, 1, 10, 0, 0);
+
+    @TempDir
+    Path walDir;
+
+    private final SessionAnswerBatchRepository repository = mock(SessionAnswerBatchRepository.class);
+    private final SessionAnswerVersions answerVersions = new SessionAnswerVersions();
+    private AnswerBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new AnswerBuffer();
+        ReflectionTestUtils.setField(buffer, "sessionAnswerBatchRepository", repository);
+        ReflectionTestUtils.setField(buffer, "activeSessionRegistry", mock(ActiveSessionRegistry.class));
+        ReflectionTestUtils.setField(buffer, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(buffer, "walDir", walDir.toString());
+        ReflectionTestUtils.setField(buffer, "answerVersions", answerVersions);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        buffer.shutdown();
+    }
+
+    @Test
+    void keepsLatestAnswerPerQuestionWhateverTheArrivalOrder() throws IOException {
+        buffer.start();
+
+        buffer.recordAll(List.of(answer(1, 10, "new", AT.plusSeconds(5)), answer(1, 11, "A", AT)));
+        buffer.recordAll(List.of(answer(1, 10, "old", AT.plusSeconds(1)), answer(1, 11, "B", AT)));
+
+        Map<Long, BufferedAnswer> pending = buffer.getPendingAnswers(1L);
+        assertThat(pending.get(10L).getAnswerText()).isEqualTo("new");
+        // Same timestamp: the answer recorded later wins
+        assertThat(pending.get(11L).getAnswerText()).isEqualTo("B");
+    }
+
+    @Test
+    void flushWritesBufferedAnswersAndDeletesTheirSegments() throws IOException {
+        buffer.start();
+        buffer.recordAll(List.of(answer(1, 10, "A", AT), answer(2, 10, "B", AT)));
+
+        buffer.flush();
+
+        List<BufferedAnswer> written = captureUpsert();
+        assertThat(written).extracting(BufferedAnswer::getAnswerText).containsExactlyInAnyOrder("A", "B");
+        verify(repository).refreshAnsweredCounts(Set.of(1L, 2L));
+        assertThat(buffer.getPendingAnswers(1L)).isEmpty();
+        // Only the segment now being written to is left
+        assertThat(segments()).hasSize(1);
+    }
+
+    @Test
+    void failedFlushRestoresAnswersWithoutOverwritingNewerOnes() throws IOException {
+        buffer.start();
+        buffer.recordAll(List.of(answer(1, 10, "A", AT), answer(1, 11, "B", AT)));
+        doAnswer(invocation -> {
+            // Answers arriving while the write is in flight
+            buffer.recordAll(List.of(answer(1, 10, "A2", AT.plusSeconds(10)), answer(1, 11, "stale", AT.minusSeconds(10))));
+            throw new IllegalStateException("database down");
+        }).doNothing().when(repository).upsertAnswers(anyList());
+
+        buffer.flush();
+
+        Map<Long, BufferedAnswer> pending = buffer.getPendingAnswers(1L);
+        assertThat(pending.get(10L).getAnswerText()).isEqualTo("A2");
+        assertThat(pending.get(11L).getAnswerText()).isEqualTo("B");
+        // The failed flush's segment is kept for a crash until a later flush succeeds
+        assertThat(segments()).hasSize(2);
+
+        buffer.flush();
+
+        assertThat(buffer.getPendingAnswers(1L)).isEmpty();
+        assertThat(segments()).hasSize(1);
+    }
+
+    @Test
+    void failedSessionFlushKeepsAnswersAndRethrows() throws IOException {
+        buffer.start();
+        buffer.recordAll(List.of(answer(1, 10, "A", AT)));
+        doAnswer(invocation -> {
+            throw new IllegalStateException("database down");
+        }).when(repository).upsertAnswers(anyList());
+
+        // Surfaces to the caller, e.g. the outbox relay retrying the grade
+        assertThatThrownBy(() -> buffer.flushSession(1L)).isInstanceOf(IllegalStateException.class);
+
+        assertThat(buffer.getPendingAnswers(1L)).containsKey(10L);
+    }
+
+    @Test
+    void replaysLeftoverSegmentsSkippingCancelledSessions() throws IOException {
+        try (AnswerWriteAheadLog previousRun = new AnswerWriteAheadLog(walDir)) {
+            previousRun.appendAll(List.of(answer(1, 10, "A", AT), answer(2, 10, "B", AT)));
+        }
+        when(repository.findSessionsToReplay(anyCollection())).thenReturn(Set.of(1L));
+
+        buffer.start();
+
+        assertThat(buffer.getPendingAnswers(1L)).containsOnlyKeys(10L);
+        assertThat(buffer.getPendingAnswers(2L)).isEmpty();
+
+        buffer.flush();
+
+        assertThat(captureUpsert()).extracting(BufferedAnswer::getSessionId).containsExactly(1L);
+        assertThat(segments()).hasSize(1);
+    }
+
+    @Test
+    void discardDropsTheSessionsAnswers() throws IOException {
+        buffer.start();
+        buffer.recordAll(List.of(answer(1, 10, "A", AT), answer(2, 10, "B", AT)));
+
+        buffer.discard(1L);
+
+        assertThat(buffer.getPendingAnswers(1L)).isEmpty();
+        assertThat(buffer.getPendingAnswers(2L)).containsOnlyKeys(10L);
+    }
+
+    @Test
+    void recordingAndDiscardingMoveTheSessionsAnswerVersion() throws IOException {
+        buffer.start();
+        long initial = answerVersions.get(1L);
+
+        buffer.recordAll(List.of(answer(1, 10, "A", AT)));
+        long recorded = answerVersions.get(1L);
+        buffer.discard(1L);
+
+        assertThat(recorded).isNotEqualTo(initial);
+        assertThat(answerVersions.get(1L)).isNotEqualTo(recorded);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<BufferedAnswer> captureUpsert() {
+        ArgumentCaptor<List<BufferedAnswer>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repository).upsertAnswers(captor.capture());
+        return captor.getValue();
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(walDir)) {
+            return files.collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+        }
+    }
+
+    private static BufferedAnswer answer(long sessionId, long questionId, String text, LocalDateTime answeredAt) {
+        return new BufferedAnswer(sessionId, questionId, text, answeredAt);
+    }
+}
@@ -0,0 +1,82 @@
+package com.examportal.examsessionservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnswerMatcherTest {
+
+    private static final List<String> LABELED = List.of("A) 4 bytes", "B) 8 bytes", "C) 2 bytes");
+
+    @Test
+    void multipleChoiceAcceptsLabelOrOptionText() {
+        AnswerMatcher matcher = AnswerMatcher.compile("MULTIPLE_CHOICE", LABELED, "B");
+
+        assertThat(matcher.matches("B")).isTrue();
+        assertThat(matcher.matches("b")).isTrue();
+        assertThat(matcher.matches(" b. ")).isTrue();
+        assertThat(matcher.matches("8 bytes")).isTrue();
+        assertThat(matcher.matches("  8   BYTES ")).isTrue();
+        assertThat(matcher.matches("B) 8 bytes")).isTrue();
+
+        assertThat(matcher.matches("A")).isFalse();
+        assertThat(matcher.matches("4 bytes")).isFalse();
+        assertThat(matcher.matches("Z")).isFalse();
+        assertThat(matcher.matches("")).isFalse();
+        assertThat(matcher.matches(null)).isFalse();
+    }
+
+    @Test
+    void multipleChoiceCorrectAnswerMayBeTheOptionText() {
+        AnswerMatcher matcher = AnswerMatcher.compile("MULTIPLE_CHOICE", LABELED, "B) 8 bytes");
+
+        assertThat(matcher.matches("B")).isTrue();
+        assertThat(matcher.matches("8 bytes")).isTrue();
+        assertThat(matcher.matches("C")).isFalse();
+    }
+
+    @Test
+    void unlabeledOptionsAreLetteredByPosition() {
+        AnswerMatcher matcher = AnswerMatcher.compile("MULTIPLE_CHOICE", List.of("Paris", "London"), "Paris");
+
+        assertThat(matcher.matches("paris")).isTrue();
+        assertThat(matcher.matches("A")).isTrue();
+        assertThat(matcher.matches("B")).isFalse();
+    }
+
+    @Test
+    void correctAnswerOutsideTheOptionsIsComparedAsText() {
+        AnswerMatcher matcher = AnswerMatcher.compile("MULTIPLE_CHOICE", List.of("1", "2"), "3");
+
+        assertThat(matcher.matches("3")).isTrue();
+        assertThat(matcher.matches("1")).isFalse();
+    }
+
+    @Test
+    void trueFalseWithoutStoredOptions() {
+        AnswerMatcher matcher = AnswerMatcher.compile("TRUE_FALSE", List.of(), "true");
+
+        assertThat(matcher.matches("TRUE")).isTrue();
+        assertThat(matcher.matches("False")).isFalse();
+    }
+
+    @Test
+    void shortAnswerAcceptsAnyAlternative() {
+        AnswerMatcher matcher = AnswerMatcher.compile("SHORT_ANSWER", List.of(), "garbage collector|GC");
+
+        assertThat(matcher.matches("Garbage   Collector")).isTrue();
+        assertThat(matcher.matches(" gc ")).isTrue();
+        assertThat(matcher.matches("garbage")).isFalse();
+        assertThat(matcher.matches("garbage collectors")).isFalse();
+        assertThat(matcher.matches(null)).isFalse();
+    }
+
+    @Test
+    void essaysAndMissingKeysNeedManualMarking() {
+        assertThat(AnswerMatcher.compile("ESSAY", List.of(), "anything").matches("anything")).isNull();
+        assertThat(AnswerMatcher.compile("MULTIPLE_CHOICE", LABELED, null).matches("B")).isNull();
+        assertThat(AnswerMatcher.compile("SHORT_ANSWER", List.of(), "  ").matches("")).isNull();
+    }
+}
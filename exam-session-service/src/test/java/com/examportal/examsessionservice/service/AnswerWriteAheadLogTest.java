@@ -0,0 +1,127 @@
+package com.examportal.examsessionservice.service;
+
+import com.examportal.examsessionservice.dto.BufferedAnswer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class AnswerWriteAheadLogTest {
+
+    private static final LocalDateTime AT = LocalDateTime.of(2024, 5, 1, 10, 0, 0);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replaysAppendedAnswersInOrder() throws IOException {
+        Path segment;
+        try (AnswerWriteAheadLog wal = new AnswerWriteAheadLog(dir)) {
+            wal.append(new BufferedAnswer(1, 10, "A", AT));
+            wal.appendAll(List.of(
+                    new BufferedAnswer(1, 11, null, AT.plusSeconds(1)),
+                    new BufferedAnswer(2, 10, "caf\u00e9, \"quoted\"", AT.plusSeconds(2))));
+            segment = wal.rotate();
+        }
+
+        List<BufferedAnswer> replayed = replay(segment);
+
+        assertThat(replayed).extracting(BufferedAnswer::getSessionId, BufferedAnswer::getQuestionId,
+                        BufferedAnswer::getAnswerText, BufferedAnswer::getAnsweredAt)
+                .containsExactly(
+                        tuple(1L, 10L, "A", AT),
+                        tuple(1L, 11L, null, AT.plusSeconds(1)),
+                        tuple(2L, 10L, "caf\u00e9, \"quoted\"", AT.plusSeconds(2)));
+    }
+
+    @Test
+    void replayStopsAtTornTail() throws IOException {
+        Path segment;
+        try (AnswerWriteAheadLog wal = new AnswerWriteAheadLog(dir)) {
+            wal.append(new BufferedAnswer(1, 10, "A", AT));
+            wal.append(new BufferedAnswer(1, 11, "B", AT));
+            segment = wal.rotate();
+        }
+        // Crash in the middle of the second record
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(segment) - 3);
+        }
+
+        assertThat(replay(segment)).extracting(BufferedAnswer::getQuestionId).containsExactly(10L);
+    }
+
+    @Test
+    void replayStopsAtCorruptRecord() throws IOException {
+        Path segment;
+        try (AnswerWriteAheadLog wal = new AnswerWriteAheadLog(dir)) {
+            wal.append(new BufferedAnswer(1, 10, "A", AT));
+            wal.append(new BufferedAnswer(1, 11, "B", AT));
+            segment = wal.rotate();
+        }
+        byte[] bytes = Files.readAllBytes(segment);
+        bytes[bytes.length - 1] ^= 0x7F;
+        Files.write(segment, bytes);
+
+        assertThat(replay(segment)).extracting(BufferedAnswer::getQuestionId).containsExactly(10L);
+    }
+
+    @Test
+    void replayOfHeaderOnlyTailReturnsEarlierRecords() throws IOException {
+        Path segment;
+        try (AnswerWriteAheadLog wal = new AnswerWriteAheadLog(dir)) {
+            wal.append(new BufferedAnswer(1, 10, "A", AT));
+            segment = wal.rotate();
+        }
+        Files.write(segment, new byte[] {0, 0, 0, 5}, StandardOpenOption.APPEND);
+
+        assertThat(replay(segment)).extracting(BufferedAnswer::getQuestionId).containsExactly(10L);
+    }
+
+    @Test
+    void rotateReusesEmptySegment() throws IOException {
+        try (AnswerWriteAheadLog wal = new AnswerWriteAheadLog(dir)) {
+            assertThat(wal.rotate()).isNull();
+            wal.append(new BufferedAnswer(1, 10, "A", AT));
+            assertThat(wal.rotate()).isNotNull();
+        }
+    }
+
+    @Test
+    void recoversSegmentsOfPreviousRunOnly() throws IOException {
+        try (AnswerWriteAheadLog previous = new AnswerWriteAheadLog(dir)) {
+            previous.append(new BufferedAnswer(1, 10, "A", AT));
+            previous.rotate();
+            previous.append(new BufferedAnswer(1, 11, "B", AT));
+        }
+
+        try (AnswerWriteAheadLog wal = new AnswerWriteAheadLog(dir)) {
+            List<Path> recovered = wal.recoverableSegments();
+            assertThat(recovered).hasSize(2);
+
+            List<BufferedAnswer> replayed = new ArrayList<>();
+            for (Path segment : recovered) {
+                AnswerWriteAheadLog.replay(segment, replayed::add);
+            }
+            assertThat(replayed).extracting(BufferedAnswer::getQuestionId).containsExactly(10L, 11L);
+
+            wal.delete(recovered);
+            assertThat(wal.recoverableSegments()).isEmpty();
+        }
+    }
+
+    private static List<BufferedAnswer> replay(Path segment) throws IOException {
+        List<BufferedAnswer> replayed = new ArrayList<>();
+        AnswerWriteAheadLog.replay(segment, replayed::add);
+        return replayed;
+    }
+}
@@ -0,0 +1,76 @@
+package com.examportal.examsessionservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionDeadlineIndexTest {
+
+    private final SessionDeadlineIndex index = new SessionDeadlineIndex();
+
+    @Test
+    void returnsPassedDeadlinesEarliestFirstUpToTheLimit() throws InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+        index.track(3L, now.minusSeconds(1));
+        index.track(1L, now.minusSeconds(30));
+        index.track(2L, now.minusSeconds(10));
+        index.track(4L, now.plusHours(1));
+
+        assertThat(index.awaitDue(1000, 2)).containsExactly(1L, 2L);
+        assertThat(index.awaitDue(1000, 2)).containsExactly(3L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void returnsNothingWhenNoDeadlinePassesInTime() throws InterruptedException {
+        index.track(1L, LocalDateTime.now().plusHours(1));
+
+        long started = System.nanoTime();
+        List<Long> due = index.awaitDue(50, 10);
+
+        assertThat(due).isEmpty();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isGreaterThanOrEqualTo(45);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void wakesUpWhenTheEarliestDeadlinePasses() throws InterruptedException {
+        index.track(1L, LocalDateTime.now().plusNanos(100_000_000));
+
+        long started = System.nanoTime();
+        List<Long> due = index.awaitDue(10_000, 10);
+
+        assertThat(due).containsExactly(1L);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(5_000);
+    }
+
+    @Test
+    void newEarlierDeadlineWakesAWaitingSweeper() throws Exception {
+        index.track(1L, LocalDateTime.now().plusHours(1));
+        CompletableFuture<List<Long>> sweeper = CompletableFuture.supplyAsync(() -> {
+            try {
+                return index.awaitDue(30_000, 10);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(50);
+
+        index.track(2L, LocalDateTime.now().minusSeconds(1));
+
+        assertThat(sweeper.get(5, TimeUnit.SECONDS)).containsExactly(2L);
+    }
+
+    @Test
+    void ignoresSessionsWithoutEndTime() {
+        index.track(1L, null);
+        index.track(null, LocalDateTime.now());
+
+        assertThat(index.size()).isZero();
+    }
+}
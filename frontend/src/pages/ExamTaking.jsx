@@ -1,8 +1,29 @@
 import React, { useState, useEffect } from 'react'
 import { useParams, useNavigate } from 'react-router-dom'
-import { examAPI, questionAPI, sessionAPI, resultAPI } from '../services/api'
+import { examAPI, questionAPI, sessionAPI } from '../services/api'
 import axios from 'axios'
 
+// Resolves once the session-service admission queue lets this ticket through
+const waitForAdmission = (ticketId) => new Promise((resolve, reject) => {
+  const source = new EventSource(`/api/sessions/admission/${ticketId}/events`)
+  source.addEventListener('position', (event) => {
+    const { position, estimatedWaitSeconds } = JSON.parse(event.data)
+    console.log(`Waiting to start exam: position ${position}, about ${estimatedWaitSeconds}s`)
+  })
+  source.addEventListener('admitted', () => {
+    source.close()
+    resolve()
+  })
+  source.addEventListener('expired', () => {
+    source.close()
+    reject(new Error('Admission expired'))
+  })
+  source.onerror = () => {
+    source.close()
+    reject(new Error('Lost connection to the admission queue'))
+  }
+})
+
 const ExamTaking = () => {
   const { examId } = useParams()
   const navigate = useNavigate()
@@ -144,7 +165,9 @@ const ExamTaking = () => {
         let createResp;
         try {
           const token = localStorage.getItem('token')
-          createResp = await axios.post('/api/sessions/create', null, {
+          // Same key on every retry, so a repeated create returns the same session
+          const idempotencyKey = window.crypto?.randomUUID?.() ?? `${user.id}-${examId}-${Date.now()}`
+          const createSession = (admissionTicket) => axios.post('/api/sessions/create', null, {
             params: {
               examId: parseInt(examId),
               userId: user.id,
@@ -153,9 +176,22 @@ const ExamTaking = () => {
             },
             headers: {
               'Authorization': `Bearer ${token}`,
-              'Content-Type': 'application/json'
+              'Content-Type': 'application/json',
+              'Idempotency-Key': idempotencyKey,
+              ...(admissionTicket ? { 'X-Admission-Ticket': admissionTicket } : {})
             }
           })
+          try {
+            createResp = await createSession()
+          } catch (admissionError) {
+            if (admissionError.response?.status !== 429) {
+              throw admissionError
+            }
+            // Everyone is starting at once: wait for our turn in the exam's queue, then retry
+            const ticketId = admissionError.response.data.ticketId
+            await waitForAdmission(ticketId)
+            createResp = await createSession(ticketId)
+          }
         } catch (directError) {
           console.log('Direct axios call for session creation failed, trying API service:', directError.message)
           createResp = await sessionAPI.createSession({
@@ -231,64 +267,6 @@ const ExamTaking = () => {
     }
   }
 
-  const calculateScore = (submittedAnswers, examQuestions) => {
-    console.log('=== SCORE CALCULATION START ===')
-    console.log('Submitted answers:', submittedAnswers)
-    
-    let totalScore = 0
-    let correctCount = 0
-    const results = []
-    
-    examQuestions.forEach((question, index) => {
-      const questionId = question.id
-      const rawUserAnswer = submittedAnswers[questionId]
-      const correctAnswer = question.correctAnswer?.toString()?.trim()
-      const questionMarks = question.marks || 1
-      
-      // Extract letter from user answer (e.g., "B) 4 bytes" -> "B")
-      let userAnswerLetter = null
-      if (rawUserAnswer) {
-        const answerStr = rawUserAnswer.toString().trim()
-        // Extract first letter if format is "A) text" or just "A"
-        const match = answerStr.match(/^([A-D])\)?/i)
-        userAnswerLetter = match ? match[1].toUpperCase() : answerStr.charAt(0).toUpperCase()
-      }
-      
-      const isCorrect = userAnswerLetter && correctAnswer && 
-                       userAnswerLetter === correctAnswer.toUpperCase()
-      
-      console.log(`Q${questionId}: "${rawUserAnswer}" -> "${userAnswerLetter}" vs "${correctAnswer}" = ${isCorrect ? 'CORRECT' : 'WRONG'} (+${isCorrect ? questionMarks : 0})`)
-      
-      if (isCorrect) {
-        totalScore += questionMarks
-        correctCount++
-      }
-      
-      results.push({
-        questionId,
-        userAnswer: userAnswerLetter,
-        correctAnswer,
-        marks: questionMarks,
-        isCorrect,
-        scoreAdded: isCorrect ? questionMarks : 0
-      })
-    })
-    
-    const totalPossibleMarks = examQuestions.reduce((sum, q) => sum + (q.marks || 1), 0)
-    const percentage = totalPossibleMarks > 0 ? (totalScore / totalPossibleMarks) * 100 : 0
-    
-    console.log(`Final Score: ${totalScore}/${totalPossibleMarks} (${percentage.toFixed(1)}%)`)
-    
-    return {
-      score: totalScore,
-      totalMarks: totalPossibleMarks,
-      percentage: percentage,
-      correctCount: correctCount,
-      totalQuestions: examQuestions.length,
-      results: results
-    }
-  }
-
   const handleSubmitExam = async () => {
     try {
       console.log('Submitting exam via microservices')
@@ -296,33 +274,9 @@ const ExamTaking = () => {
       console.log('Questions:', questions)
       
       if (sessionId.startsWith('fallback-')) {
-        console.log('Using fallback submission')
-        
-        // Create result record for fallback mode
-        try {
-          const user = JSON.parse(localStorage.getItem('user'))
-          const scoreResult = calculateScore(answers, questions)
-          const { score, totalMarks, percentage } = scoreResult
-          
-          const resultData = {
-            userId: user.id,
-            examId: parseInt(examId),
-            sessionId: sessionId,
-            score: score,
-            totalMarks: totalMarks,
-            percentage: percentage,
-            status: 'COMPLETED'
-          }
-          
-          const createResponse = await resultAPI.createResult(resultData)
-          console.log('Result created successfully:', createResponse.data)
-          alert(`Exam submitted! Score: ${score}/${totalMarks} (${percentage.toFixed(1)}%)`)
-        } catch (error) {
-          console.error('Error creating result:', error)
-        }
-        
-        alert('Exam submitted successfully!')
-        navigate('/dashboard')
+        // No server session, so there is nothing that could grade these answers
+        console.log('Using fallback session, answers cannot be submitted')
+        alert('The exam session service is unavailable, so your answers could not be submitted. Please try again later.')
         return
       }
       
@@ -339,80 +293,12 @@ const ExamTaking = () => {
       const result = await sessionAPI.submitSession(sessionId)
       console.log('Exam submitted:', result.data)
       
-      // Create result record
-      try {
-        const user = JSON.parse(localStorage.getItem('user'))
-        const scoreResult = calculateScore(answers, questions)
-        const { score, totalMarks, percentage } = scoreResult
-        
-        console.log('Score calculation details:')
-        console.log('- Calculated score:', score)
-        console.log('- Exam totalMarks:', exam.totalMarks)
-        console.log('- Questions total marks:', questions.reduce((sum, q) => sum + (q.marks || 1), 0))
-        console.log('- Final totalMarks used:', totalMarks)
-        console.log('- Percentage:', percentage.toFixed(1) + '%')
-        
-        console.log(`Score calculation: ${score}/${totalMarks} = ${percentage.toFixed(1)}%`)
-        console.log(`Exam passing marks: ${exam.passingMarks || 60}%`)
-        
-        const resultData = {
-          userId: user.id,
-          examId: parseInt(examId),
-          sessionId: sessionId,
-          score: score,
-          totalMarks: totalMarks,
-          percentage: percentage,
-          status: 'COMPLETED'
-        }
-        
-        // Try direct axios call first, fallback to API service if it fails
-        let createResponse;
-        try {
-          const token = localStorage.getItem('token')
-          createResponse = await axios.post('/api/results', resultData, {
-            headers: {
-              'Authorization': `Bearer ${token}`,
-              'Content-Type': 'application/json'
-            }
-          })
-        } catch (directError) {
-          console.log('Direct axios call for result creation failed, trying API service:', directError.message)
-          createResponse = await resultAPI.createResult(resultData)
-        }
-        console.log('Result created successfully:', createResponse.data)
-      } catch (error) {
-        console.error('Error creating result:', error)
-      }
-      
+      // exam-session-service grades the session and records the result
       alert('Exam submitted successfully!')
       navigate('/dashboard')
     } catch (error) {
       console.error('Error submitting exam:', error)
-      
-      // Create result record even on error
-      try {
-        const user = JSON.parse(localStorage.getItem('user'))
-        const scoreResult = calculateScore(answers, questions)
-        const { score, totalMarks, percentage } = scoreResult
-        
-        const resultData = {
-          userId: user.id,
-          examId: parseInt(examId),
-          sessionId: sessionId,
-          score: score,
-          totalMarks: totalMarks,
-          percentage: percentage,
-          status: 'COMPLETED'
-        }
-        
-        const createResponse = await resultAPI.createResult(resultData)
-        console.log('Fallback result created successfully:', createResponse.data)
-      } catch (resultError) {
-        console.error('Error creating fallback result:', resultError)
-      }
-      
-      alert('Exam submitted successfully!')
-      navigate('/dashboard')
+      alert('Failed to submit exam: ' + (error.response?.data?.message || error.message))
     }
   }
 
@@ -108,7 +108,6 @@ export const resultAPI = {
   getResultsByExam: (examId) => api.get(`/results/exam/${examId}`),
   getResult: (resultId) => api.get(`/results/${resultId}`),
   checkExamCompleted: (userId, examId) => api.get(`/results/check/${userId}/${examId}`),
-  createResult: (resultData) => api.post('/results', resultData),
 }
 
 export const notificationAPI = {
@@ -1,13 +1,18 @@
 package com.examportal.notificationservice.client;
 
+import com.examportal.notificationservice.config.ServiceAuthFeignConfig;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import java.util.List;
 import java.util.Map;
 
-@FeignClient(name = "user-service")
+@FeignClient(name = "user-service", configuration = ServiceAuthFeignConfig.class)
 public interface UserClient {
     
     @GetMapping("/api/users/students")
     List<Map<String, Object>> getAllStudents();
+    
+    @GetMapping("/api/users/students/batch")
+    List<Map<String, Object>> getStudentsAfter(@RequestParam("afterId") Long afterId, @RequestParam("size") int size);
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.examportal.notificationservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    @Value("${notification.fanout.threads:2}")
+    private int fanoutThreads;
+
+    @Bean(name = "notificationFanoutExecutor")
+    public ThreadPoolTaskExecutor notificationFanoutExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(fanoutThreads);
+        executor.setMaxPoolSize(fanoutThreads);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("notification-fanout-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,8 +1,11 @@
 package com.examportal.notificationservice.controller;
 
 import com.examportal.notificationservice.entity.Notification;
+import com.examportal.notificationservice.entity.NotificationFanoutJob;
+import com.examportal.notificationservice.service.NotificationFanoutService;
 import com.examportal.notificationservice.service.NotificationService;
 import com.examportal.notificationservice.service.FallbackNotificationService;
+import com.examportal.web.CursorPage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -19,6 +22,9 @@ public class NotificationController {
     @Autowired
     private FallbackNotificationService fallbackService;
     
+    @Autowired
+    private NotificationFanoutService fanoutService;
+    
     @PostMapping("/exam-published/{examId}")
     public ResponseEntity<String> notifyExamPublished(@PathVariable Long examId) {
         try {
@@ -42,6 +48,15 @@ public class NotificationController {
         }
     }
     
+    @GetMapping("/exam-published/{examId}/progress")
+    public ResponseEntity<NotificationFanoutJob> getFanoutProgress(@PathVariable Long examId) {
+        try {
+            return ResponseEntity.ok(fanoutService.getJob(examId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<Notification>> getNotificationsByUser(@PathVariable Long userId) {
         try {
@@ -54,6 +69,14 @@ public class NotificationController {
         }
     }
     
+    // Keyset-paginated, newest first; pass nextCursor from the previous page as cursor
+    @GetMapping("/user/{userId}/page")
+    public ResponseEntity<CursorPage<Notification>> getNotificationsPageByUser(@PathVariable Long userId,
+                                                                               @RequestParam(value = "cursor", required = false) Long cursor,
+                                                                               @RequestParam(value = "size", defaultValue = "20") int size) {
+        return ResponseEntity.ok(notificationService.getNotificationsPageByUser(userId, cursor, size));
+    }
+    
     @GetMapping("/user/{userId}/unread")
     public ResponseEntity<List<Notification>> getUnreadNotificationsByUser(@PathVariable Long userId) {
         try {
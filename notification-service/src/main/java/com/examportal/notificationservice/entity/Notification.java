@@ -4,7 +4,11 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_user_id_id", columnList = "user_id, id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_notifications_exam_user_type", columnNames = {"exam_id", "user_id", "type"})
+})
 public class Notification {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,104 @@
+package com.examportal.notificationservice.entity;
+
+import jakarta.persistence.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * One row per exam: tracks the exam-published fan-out so it can be resumed
+ * from lastUserId and is never run twice for the same exam.
+ */
+@Entity
+@Table(name = "notification_fanout_jobs")
+public class NotificationFanoutJob {
+    @Id
+    private Long examId;
+
+    @Column(nullable = false)
+    private String status; // QUEUED, RUNNING, COMPLETED, FAILED
+
+    @Column(nullable = false)
+    private Long lastUserId = 0L;
+
+    @Column(nullable = false)
+    private Long studentsProcessed = 0L;
+
+    @Column(nullable = false)
+    private Long notificationsCreated = 0L;
+
+    @Column(nullable = false)
+    private Integer batches = 0;
+
+    @Column(length = 1000)
+    private String errorMessage;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime completedAt;
+
+    // Constructors
+    public NotificationFanoutJob() {}
+
+    public NotificationFanoutJob(Long examId) {
+        this.examId = examId;
+        this.status = "QUEUED";
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public void recordBatch(Long lastUserId, int students, int created) {
+        this.lastUserId = lastUserId;
+        this.studentsProcessed += students;
+        this.notificationsCreated += created;
+        this.batches++;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Notifications written per second since the job started
+    public double getThroughputPerSecond() {
+        if (startedAt == null) {
+            return 0.0;
+        }
+        LocalDateTime end = completedAt != null ? completedAt : LocalDateTime.now();
+        long millis = Math.max(1, Duration.between(startedAt, end).toMillis());
+        return notificationsCreated * 1000.0 / millis;
+    }
+
+    // Getters and Setters
+    public Long getExamId() { return examId; }
+    public void setExamId(Long examId) { this.examId = examId; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public Long getLastUserId() { return lastUserId; }
+    public void setLastUserId(Long lastUserId) { this.lastUserId = lastUserId; }
+
+    public Long getStudentsProcessed() { return studentsProcessed; }
+    public void setStudentsProcessed(Long studentsProcessed) { this.studentsProcessed = studentsProcessed; }
+
+    public Long getNotificationsCreated() { return notificationsCreated; }
+    public void setNotificationsCreated(Long notificationsCreated) { this.notificationsCreated = notificationsCreated; }
+
+    public Integer getBatches() { return batches; }
+    public void setBatches(Integer batches) { this.batches = batches; }
+
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+}
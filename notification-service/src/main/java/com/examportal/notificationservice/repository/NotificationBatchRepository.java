@@ -0,0 +1,86 @@
+package com.examportal.notificationservice.repository;
+
+import com.examportal.notificationservice.entity.Notification;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Plain JDBC access for bulk notification writes. Each chunk goes to MySQL as
+ * one multi-row INSERT IGNORE: a student already notified for the exam hits
+ * the (exam_id, user_id, type) key and is skipped, and the statement's update
+ * count is the number of notifications actually created.
+ */
+@Repository
+// Hibernate creates the unique key on startup unless duplicates already exist
+@DependsOn("entityManagerFactory")
+public class NotificationBatchRepository {
+
+    private static final String UNIQUE_KEY = "uk_notifications_exam_user_type";
+
+    private static final String INSERT_SQL =
+            "INSERT IGNORE INTO notifications (user_id, exam_id, title, message, type, is_read, created_at) VALUES ";
+
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Removes duplicate notifications written before the unique key existed,
+     * keeping the oldest, and adds the key. INSERT IGNORE relies on it, so a
+     * failure here stops startup.
+     */
+    @PostConstruct
+    public void ensureUniqueKey() {
+        try {
+            Integer existing = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM information_schema.statistics WHERE table_schema = DATABASE() "
+                            + "AND table_name = 'notifications' AND index_name = ?",
+                    Integer.class, UNIQUE_KEY);
+            if (existing != null && existing > 0) {
+                return;
+            }
+            int removed = jdbcTemplate.update(
+                    "DELETE n FROM notifications n JOIN notifications k ON k.exam_id = n.exam_id "
+                            + "AND k.user_id = n.user_id AND k.type = n.type AND k.id < n.id");
+            jdbcTemplate.execute("ALTER TABLE notifications ADD CONSTRAINT " + UNIQUE_KEY
+                    + " UNIQUE (exam_id, user_id, type)");
+            System.out.println("Added " + UNIQUE_KEY + " after removing " + removed + " duplicate notifications");
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to add " + UNIQUE_KEY + " to notifications: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Inserts the notifications in chunks of batchSize, skipping any that
+     * already exist, and returns how many were created.
+     */
+    public int insertAll(List<Notification> notifications, int batchSize) {
+        int created = 0;
+        for (int from = 0; from < notifications.size(); from += batchSize) {
+            List<Notification> chunk = notifications.subList(from, Math.min(from + batchSize, notifications.size()));
+            List<Object> args = new ArrayList<>(chunk.size() * 7);
+            for (Notification notification : chunk) {
+                args.add(notification.getUserId());
+                args.add(notification.getExamId());
+                args.add(notification.getTitle());
+                args.add(notification.getMessage());
+                args.add(notification.getType());
+                args.add(notification.getIsRead());
+                args.add(Timestamp.valueOf(notification.getCreatedAt()));
+            }
+            created += jdbcTemplate.update(
+                    INSERT_SQL + String.join(", ", Collections.nCopies(chunk.size(), ROW_PLACEHOLDERS)),
+                    args.toArray());
+        }
+        return created;
+    }
+}
@@ -0,0 +1,11 @@
+package com.examportal.notificationservice.repository;
+
+import com.examportal.notificationservice.entity.NotificationFanoutJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface NotificationFanoutJobRepository extends JpaRepository<NotificationFanoutJob, Long> {
+    List<NotificationFanoutJob> findByStatusIn(List<String> statuses);
+}
@@ -1,6 +1,7 @@
 package com.examportal.notificationservice.repository;
 
 import com.examportal.notificationservice.entity.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import java.util.List;
@@ -8,6 +9,8 @@ import java.util.List;
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     List<Notification> findByUserIdOrderByCreatedAtDesc(Long userId);
+    // Keyset page, newest first: pass PageRequest.of(0, size) and the last id seen
+    List<Notification> findByUserIdAndIdLessThanOrderByIdDesc(Long userId, Long id, Pageable pageable);
     List<Notification> findByExamIdOrderByCreatedAtDesc(Long examId);
     List<Notification> findByUserIdAndIsReadOrderByCreatedAtDesc(Long userId, Boolean isRead);
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.examportal.notificationservice.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This service takes no user tokens; it only signs the SERVICE tokens it sends
+ * to other services' internal endpoints.
+ */
+@Component
+public class JwtUtil {
+
+    @Value("${jwt.secret:mySecretKey123456789012345678901234567890}")
+    private String secret;
+
+    private SecretKey signingKey;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+    }
+
+    /**
+     * Short-lived token with the SERVICE role, for calls to other services'
+     * internal endpoints. User tokens never carry this role.
+     */
+    public String generateServiceToken(String serviceName, long validityMillis) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("role", "SERVICE");
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .setClaims(claims)
+                .setSubject(serviceName)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + validityMillis))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
@@ -0,0 +1,55 @@
+package com.examportal.notificationservice.service;
+
+import com.examportal.notificationservice.entity.NotificationFanoutJob;
+import com.examportal.notificationservice.repository.NotificationFanoutJobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Queues exam-published fan-out jobs. There is at most one job per exam, so
+ * repeated publish calls return the existing job instead of notifying twice.
+ */
+@Service
+public class NotificationFanoutService {
+
+    @Autowired
+    private NotificationFanoutJobRepository jobRepository;
+
+    @Autowired
+    private NotificationFanoutWorker worker;
+
+    public synchronized NotificationFanoutJob enqueueExamPublished(Long examId) {
+        NotificationFanoutJob job = jobRepository.findById(examId).orElse(null);
+        if (job != null && !"FAILED".equals(job.getStatus())) {
+            return job;
+        }
+
+        if (job == null) {
+            job = new NotificationFanoutJob(examId);
+        } else {
+            // Retry keeps the cursor, so already notified students are skipped
+            job.setStatus("QUEUED");
+        }
+        job = jobRepository.saveAndFlush(job);
+        worker.run(examId);
+        return job;
+    }
+
+    public NotificationFanoutJob getJob(Long examId) {
+        return jobRepository.findById(examId)
+                .orElseThrow(() -> new RuntimeException("No notification job for exam " + examId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedJobs() {
+        List<NotificationFanoutJob> unfinished = jobRepository.findByStatusIn(List.of("QUEUED", "RUNNING"));
+        for (NotificationFanoutJob job : unfinished) {
+            System.out.println("📧 NotificationFanoutService: Resuming fan-out for exam " + job.getExamId());
+            worker.run(job.getExamId());
+        }
+    }
+}
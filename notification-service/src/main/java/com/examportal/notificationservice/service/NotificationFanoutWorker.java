@@ -0,0 +1,132 @@
+package com.examportal.notificationservice.service;
+
+import com.examportal.notificationservice.client.ExamClient;
+import com.examportal.notificationservice.client.UserClient;
+import com.examportal.notificationservice.entity.Notification;
+import com.examportal.notificationservice.entity.NotificationFanoutJob;
+import com.examportal.notificationservice.repository.NotificationBatchRepository;
+import com.examportal.notificationservice.repository.NotificationFanoutJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Runs an exam-published fan-out off the request thread. Students are read in
+ * id order one page at a time; each page is inserted with JDBC batches and the
+ * job cursor is advanced in the same transaction, so a restarted job resumes
+ * exactly where it stopped. Students who already have the notification, e.g.
+ * from a page retried after a crash, are skipped by the insert's unique key.
+ */
+@Service
+public class NotificationFanoutWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationFanoutWorker.class);
+
+    static final String EXAM_PUBLISHED = "EXAM_PUBLISHED";
+
+    @Autowired
+    private NotificationFanoutJobRepository jobRepository;
+
+    @Autowired
+    private NotificationBatchRepository batchRepository;
+
+    @Autowired
+    private UserClient userClient;
+
+    @Autowired
+    private ExamClient examClient;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${notification.fanout.page-size:1000}")
+    private int pageSize;
+
+    @Value("${notification.fanout.batch-size:500}")
+    private int batchSize;
+
+    @Async("notificationFanoutExecutor")
+    public void run(Long examId) {
+        NotificationFanoutJob job = jobRepository.findById(examId).orElse(null);
+        if (job == null) {
+            return;
+        }
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        try {
+            job.setStatus("RUNNING");
+            job.setErrorMessage(null);
+            if (job.getStartedAt() == null) {
+                job.setStartedAt(LocalDateTime.now());
+            }
+            job = jobRepository.save(job);
+
+            String message = "A new exam '" + resolveExamTitle(examId) + "' has been published and is now available for you to take.";
+            Long afterId = job.getLastUserId();
+
+            while (true) {
+                List<Map<String, Object>> students = userClient.getStudentsAfter(afterId, pageSize);
+                if (students == null || students.isEmpty()) {
+                    break;
+                }
+
+                List<Long> userIds = students.stream()
+                        .map(student -> ((Number) student.get("id")).longValue())
+                        .collect(Collectors.toList());
+                Long lastUserId = userIds.get(userIds.size() - 1);
+                NotificationFanoutJob current = job;
+
+                job = transactionTemplate.execute(status -> {
+                    List<Notification> notifications = new ArrayList<>(userIds.size());
+                    for (Long userId : userIds) {
+                        notifications.add(new Notification(userId, examId, "New Exam Published", message, EXAM_PUBLISHED));
+                    }
+                    int created = batchRepository.insertAll(notifications, batchSize);
+                    current.recordBatch(lastUserId, userIds.size(), created);
+                    return jobRepository.save(current);
+                });
+                afterId = lastUserId;
+
+                log.debug("Fan-out for exam {}: {} notifications, {}/s", examId,
+                        job.getNotificationsCreated(), String.format("%.0f", job.getThroughputPerSecond()));
+
+                if (students.size() < pageSize) {
+                    break;
+                }
+            }
+
+            job.setStatus("COMPLETED");
+            job.setCompletedAt(LocalDateTime.now());
+            jobRepository.save(job);
+            log.info("Fan-out for exam {} completed: {} notifications for {} students", examId,
+                    job.getNotificationsCreated(), job.getStudentsProcessed());
+        } catch (Exception e) {
+            log.error("Fan-out for exam {} failed", examId, e);
+            job.setStatus("FAILED");
+            job.setErrorMessage(e.getMessage());
+            job.setUpdatedAt(LocalDateTime.now());
+            jobRepository.save(job);
+        }
+    }
+
+    private String resolveExamTitle(Long examId) {
+        try {
+            Map<String, Object> exam = examClient.getExamById(examId);
+            return (String) exam.get("title");
+        } catch (Exception e) {
+            log.warn("Failed to get details of exam {}: {}", examId, e.getMessage());
+            return "Exam " + examId;
+        }
+    }
+}
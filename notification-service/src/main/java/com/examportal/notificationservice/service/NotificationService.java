@@ -1,10 +1,12 @@
 package com.examportal.notificationservice.service;
 
-import com.examportal.notificationservice.client.ExamClient;
 import com.examportal.notificationservice.client.UserClient;
 import com.examportal.notificationservice.entity.Notification;
+import com.examportal.notificationservice.entity.NotificationFanoutJob;
 import com.examportal.notificationservice.repository.NotificationRepository;
+import com.examportal.web.CursorPage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.Map;
@@ -19,70 +21,12 @@ public class NotificationService {
     private UserClient userClient;
     
     @Autowired
-    private ExamClient examClient;
-    
-    @Autowired
-    private FallbackNotificationService fallbackService;
+    private NotificationFanoutService fanoutService;
     
     public String notifyExamPublished(Long examId) {
-        try {
-            System.out.println("📧 NotificationService: Starting notification process for exam ID: " + examId);
-            
-            String examTitle = "Exam " + examId; // Fallback title
-            List<Map<String, Object>> students = null;
-            
-            // Try to get exam details and students, but continue even if it fails
-            try {
-                Map<String, Object> exam = examClient.getExamById(examId);
-                examTitle = (String) exam.get("title");
-                System.out.println("📧 NotificationService: Retrieved exam title: " + examTitle);
-            } catch (Exception e) {
-                System.err.println("⚠️ NotificationService: Failed to get exam details: " + e.getMessage());
-            }
-            
-            try {
-                students = userClient.getAllStudents();
-                System.out.println("📧 NotificationService: Found " + students.size() + " students");
-            } catch (Exception e) {
-                System.err.println("⚠️ NotificationService: Feign failed, trying fallback: " + e.getMessage());
-                return fallbackService.notifyExamPublishedFallback(examId);
-            }
-            
-            if (students == null || students.isEmpty()) {
-                return "No students found to notify";
-            }
-            
-            int notificationCount = 0;
-            // Create notifications for all students
-            for (Map<String, Object> student : students) {
-                try {
-                    Long userId = ((Number) student.get("id")).longValue();
-                    String username = (String) student.get("username");
-                    
-                    Notification notification = new Notification(
-                        userId,
-                        examId,
-                        "New Exam Published",
-                        "A new exam '" + examTitle + "' has been published and is now available for you to take.",
-                        "EXAM_PUBLISHED"
-                    );
-                    
-                    notificationRepository.save(notification);
-                    notificationCount++;
-                    System.out.println("📧 NotificationService: Created notification for student: " + username + " (ID: " + userId + ")");
-                } catch (Exception e) {
-                    System.err.println("⚠️ NotificationService: Failed to create notification for student: " + e.getMessage());
-                }
-            }
-            
-            String result = "Notifications sent to " + notificationCount + " students";
-            System.out.println("📧 NotificationService: " + result);
-            return result;
-        } catch (Exception e) {
-            System.err.println("❌ NotificationService Error: " + e.getMessage());
-            e.printStackTrace();
-            return "Error sending notifications: " + e.getMessage();
-        }
+        System.out.println("📧 NotificationService: Queueing notification fan-out for exam ID: " + examId);
+        NotificationFanoutJob job = fanoutService.enqueueExamPublished(examId);
+        return "Notification job for exam " + examId + " is " + job.getStatus();
     }
     
     public List<Notification> getNotificationsByUser(Long userId) {
@@ -96,6 +40,18 @@ public class NotificationService {
         }
     }
     
+    public CursorPage<Notification> getNotificationsPageByUser(Long userId, Long cursor, int size) {
+        int pageSize = CursorPage.clampSize(size);
+        try {
+            return CursorPage.of(notificationRepository.findByUserIdAndIdLessThanOrderByIdDesc(
+                    userId, CursorPage.startBefore(cursor), PageRequest.of(0, pageSize + 1)), pageSize, Notification::getId);
+        } catch (Exception e) {
+            System.err.println("❌ Error fetching notification page for user " + userId + ": " + e.getMessage());
+            e.printStackTrace();
+            return CursorPage.of(List.of(), pageSize, Notification::getId);
+        }
+    }
+    
     public List<Notification> getUnreadNotificationsByUser(Long userId) {
         try {
             return notificationRepository.findByUserIdAndIsReadOrderByCreatedAtDesc(userId, false);
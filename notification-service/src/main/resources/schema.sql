@@ -13,4 +13,19 @@ CREATE TABLE IF NOT EXISTS notifications (
 -- Create indexes for better performance
 CREATE INDEX idx_notifications_user_id ON notifications(user_id);
 CREATE INDEX idx_notifications_exam_id ON notifications(exam_id);
-CREATE INDEX idx_notifications_created_at ON notifications(created_at);
\ No newline at end of file
+CREATE INDEX idx_notifications_created_at ON notifications(created_at);
+
+-- Tracks exam-published fan-out progress, one row per exam
+CREATE TABLE IF NOT EXISTS notification_fanout_jobs (
+    exam_id BIGINT PRIMARY KEY,
+    status VARCHAR(20) NOT NULL,
+    last_user_id BIGINT NOT NULL DEFAULT 0,
+    students_processed BIGINT NOT NULL DEFAULT 0,
+    notifications_created BIGINT NOT NULL DEFAULT 0,
+    batches INT NOT NULL DEFAULT 0,
+    error_message VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP NULL,
+    updated_at TIMESTAMP NULL,
+    completed_at TIMESTAMP NULL
+);
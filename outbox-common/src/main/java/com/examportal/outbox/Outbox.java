@@ -0,0 +1,44 @@
+package com.examportal.outbox;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+
+/**
+ * Records side effects for other services in the caller's local transaction.
+ * The event row commits or rolls back with the business change, and the
+ * relay delivers it after commit, so the request no longer waits on remote
+ * calls and a failed call is retried instead of lost.
+ */
+public class Outbox {
+    
+    @Autowired
+    private OutboxStore outboxStore;
+    
+    @Autowired
+    private OutboxRelay outboxRelay;
+    
+    /**
+     * Queues an event. The idempotency key names the side effect, e.g.
+     * "user.results.delete:42"; an event whose key is already queued is
+     * ignored. Call inside a transaction to make the event atomic with the
+     * caller's writes.
+     */
+    public void enqueue(String eventType, String idempotencyKey, Map<String, Object> payload) {
+        if (!outboxStore.insert(eventType, idempotencyKey, payload)) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    outboxRelay.wakeUp();
+                }
+            });
+        } else {
+            outboxRelay.wakeUp();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.examportal.outbox;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Registers the outbox, its store and the relay in any service that has this
+ * module on the classpath. Set outbox.enabled=false to turn it off.
+ */
+@AutoConfiguration(after = { JdbcTemplateAutoConfiguration.class, JacksonAutoConfiguration.class })
+@ConditionalOnProperty(name = "outbox.enabled", havingValue = "true", matchIfMissing = true)
+@Import({ OutboxStore.class, OutboxRelay.class, Outbox.class })
+public class OutboxAutoConfiguration {
+}
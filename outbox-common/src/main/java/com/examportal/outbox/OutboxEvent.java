@@ -0,0 +1,62 @@
+package com.examportal.outbox;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * An event read back from the outbox table for delivery.
+ */
+public class OutboxEvent {
+    
+    private final Long id;
+    private final String eventType;
+    private final String idempotencyKey;
+    private final Map<String, Object> payload;
+    private final int attempts;
+    private final LocalDateTime createdAt;
+    
+    public OutboxEvent(Long id, String eventType, String idempotencyKey, Map<String, Object> payload,
+                       int attempts, LocalDateTime createdAt) {
+        this.id = id;
+        this.eventType = eventType;
+        this.idempotencyKey = idempotencyKey;
+        this.payload = payload;
+        this.attempts = attempts;
+        this.createdAt = createdAt;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String getEventType() {
+        return eventType;
+    }
+    
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+    
+    public Map<String, Object> getPayload() {
+        return payload;
+    }
+    
+    public Long getLong(String name) {
+        Object value = payload.get(name);
+        return value instanceof Number ? ((Number) value).longValue() : value != null ? Long.valueOf(value.toString()) : null;
+    }
+    
+    public String getString(String name) {
+        Object value = payload.get(name);
+        return value != null ? value.toString() : null;
+    }
+    
+    // Earlier failed deliveries of this event
+    public int getAttempts() {
+        return attempts;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,33 @@
+package com.examportal.outbox;
+
+/**
+ * Delivers one type of outbox event, usually as a call to another service.
+ * Handlers are found as beans. A handler that throws is retried with backoff,
+ * and an event can be delivered more than once, so handlers must be safe to
+ * repeat.
+ */
+public interface OutboxHandler {
+    
+    String getEventType();
+    
+    void handle(OutboxEvent event) throws Exception;
+    
+    static OutboxHandler of(String eventType, Delivery delivery) {
+        return new OutboxHandler() {
+            @Override
+            public String getEventType() {
+                return eventType;
+            }
+            
+            @Override
+            public void handle(OutboxEvent event) throws Exception {
+                delivery.deliver(event);
+            }
+        };
+    }
+    
+    @FunctionalInterface
+    interface Delivery {
+        void deliver(OutboxEvent event) throws Exception;
+    }
+}
@@ -0,0 +1,165 @@
+package com.examportal.outbox;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Background thread that delivers outbox events. It claims due events in
+ * batches, hands each to the handler for its type, and records the outcome:
+ * delivered, retried later with exponential backoff, or failed once
+ * outbox.relay.max-attempts is reached. It wakes up right after a transaction
+ * that queued events commits, and otherwise polls every outbox.relay.poll-ms.
+ */
+public class OutboxRelay {
+    
+    @Autowired
+    private OutboxStore outboxStore;
+    
+    @Autowired(required = false)
+    private List<OutboxHandler> handlerBeans = new ArrayList<>();
+    
+    @Value("${outbox.relay.batch-size:100}")
+    private int batchSize;
+    
+    @Value("${outbox.relay.poll-ms:1000}")
+    private long pollMs;
+    
+    @Value("${outbox.relay.lease-ms:60000}")
+    private long leaseMs;
+    
+    @Value("${outbox.relay.retry-backoff-ms:1000}")
+    private long retryBackoffMs;
+    
+    @Value("${outbox.relay.max-retry-backoff-ms:300000}")
+    private long maxRetryBackoffMs;
+    
+    @Value("${outbox.relay.max-attempts:12}")
+    private int maxAttempts;
+    
+    @Value("${outbox.relay.retention-hours:72}")
+    private long retentionHours;
+    
+    private final Map<String, OutboxHandler> handlers = new HashMap<>();
+    private final Object signal = new Object();
+    private boolean woken;
+    private volatile boolean running;
+    private Thread thread;
+    private long lastPurge;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        for (OutboxHandler handler : handlerBeans) {
+            handlers.put(handler.getEventType(), handler);
+        }
+        running = true;
+        thread = new Thread(this::run, "outbox-relay");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    @PreDestroy
+    public void stop() {
+        running = false;
+        wakeUp();
+    }
+    
+    public void wakeUp() {
+        synchronized (signal) {
+            woken = true;
+            signal.notifyAll();
+        }
+    }
+    
+    /**
+     * Delivers one batch of due events and returns how many were claimed.
+     */
+    public int relayBatch() {
+        List<OutboxEvent> events = outboxStore.claimDue(batchSize, leaseMs);
+        List<Long> delivered = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            OutboxHandler handler = handlers.get(event.getEventType());
+            if (handler == null) {
+                outboxStore.markFailed(event.getId(), event.getAttempts(), "No handler for " + event.getEventType());
+                continue;
+            }
+            try {
+                handler.handle(event);
+                delivered.add(event.getId());
+            } catch (Exception e) {
+                retryLater(event, e);
+            }
+        }
+        outboxStore.markDelivered(delivered);
+        return events.size();
+    }
+    
+    private void run() {
+        while (running) {
+            int claimed = 0;
+            try {
+                claimed = relayBatch();
+                purgeDelivered();
+            } catch (Exception e) {
+                System.err.println("Outbox relay batch failed: " + e.getMessage());
+            }
+            // A full batch means more may be waiting
+            if (claimed < batchSize) {
+                awaitWork();
+            }
+        }
+    }
+    
+    private void awaitWork() {
+        synchronized (signal) {
+            try {
+                if (!woken && running) {
+                    signal.wait(pollMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            woken = false;
+        }
+    }
+    
+    private void retryLater(OutboxEvent event, Exception error) {
+        int attempts = event.getAttempts() + 1;
+        String message = error.getClass().getSimpleName() + ": " + error.getMessage();
+        if (attempts >= maxAttempts) {
+            System.err.println("Giving up on outbox event " + event.getIdempotencyKey() + " after " + attempts
+                    + " attempts: " + message);
+            outboxStore.markFailed(event.getId(), attempts, message);
+            return;
+        }
+        long backoff = Math.min(retryBackoffMs << Math.min(attempts - 1, 20), maxRetryBackoffMs);
+        outboxStore.markRetry(event.getId(), attempts, LocalDateTime.now().plusNanos(backoff * 1_000_000), message);
+        System.err.println("Outbox event " + event.getIdempotencyKey() + " failed (attempt " + attempts
+                + ", retrying in " + backoff + " ms): " + message);
+    }
+    
+    // Delivered rows are only kept for a while, so the table stays small
+    private void purgeDelivered() {
+        long now = System.currentTimeMillis();
+        if (now - lastPurge < 3_600_000L) {
+            return;
+        }
+        lastPurge = now;
+        int purged = outboxStore.deleteDeliveredBefore(LocalDateTime.now().minusHours(retentionHours), 10_000);
+        if (purged > 0) {
+            System.out.println("Purged " + purged + " delivered outbox events");
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.examportal.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC access to the outbox_events table. Inserts join the caller's
+ * transaction; claims lock due rows with SKIP LOCKED so several instances of a
+ * service can relay from the same table without handing out the same event.
+ * The services share one database, so every row carries the name of the
+ * service that wrote it and is only relayed by that service.
+ */
+public class OutboxStore {
+    
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {};
+    
+    private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS outbox_events ("
+            + "id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+            + "source VARCHAR(64) NOT NULL, "
+            + "event_type VARCHAR(100) NOT NULL, "
+            + "idempotency_key VARCHAR(191) NOT NULL, "
+            + "payload TEXT NOT NULL, "
+            + "status VARCHAR(20) NOT NULL, "
+            + "attempts INT NOT NULL DEFAULT 0, "
+            + "next_attempt_at DATETIME(3) NOT NULL, "
+            + "created_at DATETIME(3) NOT NULL, "
+            + "delivered_at DATETIME(3) NULL, "
+            + "last_error VARCHAR(500) NULL, "
+            + "UNIQUE KEY uk_outbox_source_key (source, idempotency_key), "
+            + "KEY idx_outbox_due (source, status, next_attempt_at))";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${outbox.source:${spring.application.name}}")
+    private String source;
+    
+    @PostConstruct
+    public void createTable() {
+        jdbcTemplate.execute(CREATE_TABLE);
+    }
+    
+    /**
+     * Inserts a pending event unless one with the same idempotency key exists.
+     * Returns false for a duplicate.
+     */
+    public boolean insert(String eventType, String idempotencyKey, Map<String, Object> payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize outbox payload for " + eventType, e);
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return jdbcTemplate.update("INSERT IGNORE INTO outbox_events (source, event_type, idempotency_key, payload, "
+                + "status, attempts, next_attempt_at, created_at) VALUES (?, ?, ?, ?, 'PENDING', 0, ?, ?)",
+                source, eventType, idempotencyKey, json, now, now) > 0;
+    }
+    
+    /**
+     * Claims up to limit due events by pushing their next attempt past the
+     * lease. Events of a relay that dies mid-batch become due again once the
+     * lease runs out.
+     */
+    public List<OutboxEvent> claimDue(int limit, long leaseMs) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<OutboxEvent> claimed = transaction.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> due = jdbcTemplate.query("SELECT id, event_type, idempotency_key, payload, attempts, created_at "
+                    + "FROM outbox_events WHERE source = ? AND status = 'PENDING' AND next_attempt_at <= ? "
+                    + "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED",
+                    (rs, rowNum) -> new OutboxEvent(rs.getLong("id"), rs.getString("event_type"),
+                            rs.getString("idempotency_key"), readPayload(rs.getString("payload")),
+                            rs.getInt("attempts"), rs.getTimestamp("created_at").toLocalDateTime()),
+                    source, Timestamp.valueOf(now), limit);
+            if (!due.isEmpty()) {
+                Timestamp leaseUntil = Timestamp.valueOf(now.plusNanos(leaseMs * 1_000_000));
+                List<Object[]> rows = new ArrayList<>(due.size());
+                for (OutboxEvent event : due) {
+                    rows.add(new Object[] { leaseUntil, event.getId() });
+                }
+                jdbcTemplate.batchUpdate("UPDATE outbox_events SET next_attempt_at = ? WHERE id = ?", rows);
+            }
+            return due;
+        });
+        return claimed != null ? claimed : Collections.emptyList();
+    }
+    
+    public void markDelivered(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            rows.add(new Object[] { now, id });
+        }
+        jdbcTemplate.batchUpdate("UPDATE outbox_events SET status = 'DELIVERED', delivered_at = ?, last_error = NULL "
+                + "WHERE id = ?", rows);
+    }
+    
+    public void markRetry(Long id, int attempts, LocalDateTime nextAttemptAt, String error) {
+        jdbcTemplate.update("UPDATE outbox_events SET attempts = ?, next_attempt_at = ?, last_error = ? WHERE id = ?",
+                attempts, Timestamp.valueOf(nextAttemptAt), truncate(error), id);
+    }
+    
+    // Gives up on an event; it stays in the table with its last error for inspection
+    public void markFailed(Long id, int attempts, String error) {
+        jdbcTemplate.update("UPDATE outbox_events SET status = 'FAILED', attempts = ?, last_error = ? WHERE id = ?",
+                attempts, truncate(error), id);
+    }
+    
+    public int deleteDeliveredBefore(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.update("DELETE FROM outbox_events WHERE source = ? AND status = 'DELIVERED' "
+                + "AND delivered_at < ? LIMIT ?", source, Timestamp.valueOf(cutoff), limit);
+    }
+    
+    private Map<String, Object> readPayload(String json) {
+        try {
+            return objectMapper.readValue(json, PAYLOAD_TYPE);
+        } catch (JsonProcessingException e) {
+            // Leave it to the handler to fail, so one bad row cannot block the claim
+            System.err.println("Unreadable outbox payload: " + e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
+    
+    private static String truncate(String error) {
+        return error != null && error.length() > 500 ? error.substring(0, 500) : error;
+    }
+}
@@ -3,11 +3,13 @@ package com.examportal.questionservice;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 
 @SpringBootApplication
 @EnableMethodSecurity(prePostEnabled = true)
 @EnableFeignClients
+@EnableScheduling
 public class QuestionServiceApplication {
 
     public static void main(String[] args) {
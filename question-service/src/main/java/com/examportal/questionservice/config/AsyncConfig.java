@@ -0,0 +1,26 @@
+package com.examportal.questionservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+    
+    @Value("${question.import.threads:2}")
+    private int importThreads;
+    
+    @Bean(name = "questionImportExecutor")
+    public ThreadPoolTaskExecutor questionImportExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(importThreads);
+        executor.setMaxPoolSize(importThreads);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("question-import-");
+        executor.initialize();
+        return executor;
+    }
+}
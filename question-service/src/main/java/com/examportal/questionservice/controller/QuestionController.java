@@ -1,15 +1,32 @@
 package com.examportal.questionservice.controller;
 
 import com.examportal.questionservice.entity.Question;
+import com.examportal.questionservice.entity.QuestionImportJob;
 import com.examportal.questionservice.entity.QuestionType;
 import com.examportal.questionservice.entity.DifficultyLevel;
+import com.examportal.questionservice.service.EncodedPaper;
+import com.examportal.questionservice.service.QuestionImportResult;
+import com.examportal.questionservice.service.QuestionImportService;
+import com.examportal.questionservice.service.QuestionSearchIndex;
 import com.examportal.questionservice.service.QuestionService;
+import com.examportal.web.CursorPage;
+import com.examportal.web.ExportWriter;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
@@ -22,6 +39,9 @@ public class QuestionController {
     @Autowired
     private QuestionService questionService;
     
+    @Autowired
+    private QuestionImportService questionImportService;
+    
     @GetMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('TEACHER')")
     public ResponseEntity<List<Question>> getAllQuestions() {
@@ -29,6 +49,69 @@ public class QuestionController {
         return ResponseEntity.ok(questions);
     }
     
+    // Keyset-paginated, newest first; pass nextCursor from the previous page as cursor
+    @GetMapping("/page")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<CursorPage<Question>> getQuestionsPage(@RequestParam(value = "cursor", required = false) Long cursor,
+                                                                 @RequestParam(value = "size", defaultValue = "20") int size) {
+        return ResponseEntity.ok(questionService.getQuestionsPage(cursor, size));
+    }
+    
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<Map<String, Object>> searchQuestions(@RequestParam("q") String query,
+                                                               @RequestParam(value = "examId", required = false) Long examId,
+                                                               @RequestParam(value = "type", required = false) QuestionType type,
+                                                               @RequestParam(value = "difficulty", required = false) DifficultyLevel difficulty,
+                                                               @RequestParam(value = "page", defaultValue = "0") int page,
+                                                               @RequestParam(value = "size", defaultValue = "20") int size) {
+        long started = System.nanoTime();
+        page = Math.max(0, page);
+        size = Math.max(1, Math.min(size, 100));
+        QuestionSearchIndex.SearchPage hits = questionService.searchQuestions(query, examId, type, difficulty, page, size);
+        
+        List<Long> ids = new ArrayList<>();
+        Map<Long, Float> scores = new HashMap<>();
+        for (QuestionSearchIndex.SearchHit hit : hits.getHits()) {
+            ids.add(hit.getQuestionId());
+            scores.put(hit.getQuestionId(), hit.getScore());
+        }
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (Question question : questionService.getQuestionsByIds(ids)) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("question", question);
+            result.put("score", scores.get(question.getId()));
+            results.add(result);
+        }
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("query", query);
+        response.put("total", hits.getTotal());
+        response.put("page", page);
+        response.put("size", size);
+        response.put("results", results);
+        response.put("tookMs", (System.nanoTime() - started) / 1_000_000);
+        return ResponseEntity.ok(response);
+    }
+    
+    // Streams CSV or NDJSON straight from a database cursor; add gzip=true for a compressed download
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<StreamingResponseBody> exportQuestions(@RequestParam(value = "examId", required = false) Long examId,
+                                                                 @RequestParam(value = "format", defaultValue = "csv") String format,
+                                                                 @RequestParam(value = "gzip", defaultValue = "false") boolean gzip) {
+        ExportWriter.Format exportFormat;
+        try {
+            exportFormat = ExportWriter.Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = out -> questionService.exportQuestions(examId, exportFormat, gzip, out);
+        return ResponseEntity.ok()
+                .headers(ExportWriter.headers(examId != null ? "questions-exam-" + examId : "questions", exportFormat, gzip))
+                .body(body);
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<Question> getQuestionById(@PathVariable Long id) {
         Question question = questionService.getQuestionById(id);
@@ -56,10 +139,35 @@ public class QuestionController {
         return ResponseEntity.ok().build();
     }
     
+    /**
+     * The exam's questions as pre-serialized JSON. Admins and teachers get the
+     * full questions; everyone else gets them without answers. Responses carry
+     * a strong ETag per encoding, and a matching If-None-Match is answered with 304.
+     */
     @GetMapping("/exam/{examId}")
-    public ResponseEntity<List<Question>> getQuestionsByExamId(@PathVariable Long examId) {
-        List<Question> questions = questionService.getQuestionsByExamId(examId);
-        return ResponseEntity.ok(questions);
+    public ResponseEntity<byte[]> getQuestionsByExamId(@PathVariable Long examId,
+                                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                       @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                       Authentication authentication) {
+        EncodedPaper paper = questionService.getEncodedExamPaper(examId, canSeeAnswers(authentication));
+        boolean gzipped = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+        if (paper.matches(ifNoneMatch, gzipped)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(paper.getEtag(gzipped))
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING, HttpHeaders.AUTHORIZATION)
+                    .build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(paper.getEtag(gzipped))
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING, HttpHeaders.AUTHORIZATION);
+        if (gzipped) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(paper.getGzip());
+        }
+        return response.body(paper.getJson());
     }
     
     @GetMapping("/created-by/{createdBy}")
@@ -69,6 +177,14 @@ public class QuestionController {
         return ResponseEntity.ok(questions);
     }
     
+    @GetMapping("/created-by/{createdBy}/page")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<CursorPage<Question>> getQuestionsPageByCreatedBy(@PathVariable Long createdBy,
+                                                                            @RequestParam(value = "cursor", required = false) Long cursor,
+                                                                            @RequestParam(value = "size", defaultValue = "20") int size) {
+        return ResponseEntity.ok(questionService.getQuestionsPageByCreatedBy(createdBy, cursor, size));
+    }
+    
     @GetMapping("/type/{questionType}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('TEACHER')")
     public ResponseEntity<List<Question>> getQuestionsByType(@PathVariable QuestionType questionType) {
@@ -98,14 +214,33 @@ public class QuestionController {
     }
     
     @GetMapping("/exam/{examId}/random")
-    public ResponseEntity<List<Question>> getRandomQuestionsByExamId(@PathVariable Long examId) {
-        List<Question> questions = questionService.getRandomQuestionsByExamId(examId);
+    public ResponseEntity<List<Question>> getRandomQuestionsByExamId(@PathVariable Long examId,
+                                                                     @RequestParam(required = false) Long sessionId,
+                                                                     @RequestParam(required = false) Long userId) {
+        List<Question> questions = questionService.getRandomQuestionsByExamId(examId, sessionId, userId);
         return ResponseEntity.ok(questions);
     }
     
     @GetMapping("/exam/{examId}/random/difficulty/{difficulty}")
-    public ResponseEntity<List<Question>> getRandomQuestionsByExamIdAndDifficulty(@PathVariable Long examId, @PathVariable DifficultyLevel difficulty) {
-        List<Question> questions = questionService.getRandomQuestionsByExamIdAndDifficulty(examId, difficulty);
+    public ResponseEntity<List<Question>> getRandomQuestionsByExamIdAndDifficulty(@PathVariable Long examId, @PathVariable DifficultyLevel difficulty,
+                                                                                  @RequestParam(required = false) Long sessionId,
+                                                                                  @RequestParam(required = false) Long userId) {
+        List<Question> questions = questionService.getRandomQuestionsByExamIdAndDifficulty(examId, difficulty, sessionId, userId);
+        return ResponseEntity.ok(questions);
+    }
+    
+    @GetMapping("/exam/{examId}/random/stratified")
+    public ResponseEntity<List<Question>> getStratifiedQuestionsByExamId(@PathVariable Long examId,
+                                                                         @RequestParam(defaultValue = "0") int easy,
+                                                                         @RequestParam(defaultValue = "0") int medium,
+                                                                         @RequestParam(defaultValue = "0") int hard,
+                                                                         @RequestParam(required = false) Long sessionId,
+                                                                         @RequestParam(required = false) Long userId) {
+        Map<DifficultyLevel, Integer> counts = new EnumMap<>(DifficultyLevel.class);
+        counts.put(DifficultyLevel.EASY, easy);
+        counts.put(DifficultyLevel.MEDIUM, medium);
+        counts.put(DifficultyLevel.HARD, hard);
+        List<Question> questions = questionService.getStratifiedQuestionsByExamId(examId, counts, sessionId, userId);
         return ResponseEntity.ok(questions);
     }
     
@@ -123,9 +258,14 @@ public class QuestionController {
     
     @PostMapping("/exam/{examId}/bulk")
     @PreAuthorize("hasRole('ADMIN') or hasRole('TEACHER')")
-    public ResponseEntity<List<Question>> createQuestionsForExam(@PathVariable Long examId, @RequestBody List<Question> questions, @RequestParam Long createdBy) {
-        List<Question> createdQuestions = questionService.createQuestionsForExam(examId, questions, createdBy);
-        return ResponseEntity.ok(createdQuestions);
+    public ResponseEntity<Map<String, Object>> createQuestionsForExam(@PathVariable Long examId, @RequestBody List<Question> questions, @RequestParam Long createdBy) {
+        QuestionImportResult result = questionService.createQuestionsForExam(examId, questions, createdBy);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("count", result.getQuestions().size());
+        response.put("questions", result.getQuestions());
+        response.put("duplicates", result.getDuplicates());
+        return ResponseEntity.ok(response);
     }
     
     @PostMapping("/import-csv")
@@ -152,12 +292,14 @@ public class QuestionController {
                 return ResponseEntity.badRequest().body(response);
             }
             
-            List<Question> importedQuestions = questionService.importQuestionsFromCSV(file, examId, createdBy);
+            QuestionImportResult result = questionService.importQuestionsFromCSV(file, examId, createdBy);
+            List<Question> importedQuestions = result.getQuestions();
             
             response.put("success", true);
             response.put("message", "Successfully imported " + importedQuestions.size() + " questions");
             response.put("count", importedQuestions.size());
             response.put("questions", importedQuestions);
+            response.put("duplicates", result.getDuplicates());
             
             return ResponseEntity.ok(response);
             
@@ -168,6 +310,50 @@ public class QuestionController {
         }
     }
     
+    // Streaming import for large question banks: send the CSV as the raw request body
+    @PostMapping(value = "/import-csv/jobs", consumes = {"text/csv", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @PreAuthorize("hasRole('ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<Map<String, Object>> startCsvImportJob(
+            HttpServletRequest request,
+            @RequestParam("examId") Long examId,
+            @RequestParam("createdBy") Long createdBy,
+            @RequestParam(value = "fileName", required = false) String fileName) {
+        try {
+            return importQueued(questionImportService.startImport(request.getInputStream(), fileName, examId, createdBy));
+        } catch (Exception e) {
+            return importFailed(e);
+        }
+    }
+    
+    @PostMapping(value = "/import-csv/jobs", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<Map<String, Object>> startCsvImportJobFromFile(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam("examId") Long examId,
+            @RequestParam("createdBy") Long createdBy) {
+        try {
+            return importQueued(questionImportService.startImport(file.getInputStream(), file.getOriginalFilename(), examId, createdBy));
+        } catch (Exception e) {
+            return importFailed(e);
+        }
+    }
+    
+    @GetMapping("/import-csv/jobs/{jobId}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<QuestionImportJob> getCsvImportJob(@PathVariable Long jobId) {
+        try {
+            return ResponseEntity.ok(questionImportService.getJob(jobId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    @GetMapping("/import-csv/jobs")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<List<QuestionImportJob>> getCsvImportJobsByExamId(@RequestParam("examId") Long examId) {
+        return ResponseEntity.ok(questionImportService.getJobsByExamId(examId));
+    }
+    
     @GetMapping("/csv-template")
     @PreAuthorize("hasRole('ADMIN') or hasRole('TEACHER')")
     public ResponseEntity<String> getCSVTemplate() {
@@ -188,8 +374,54 @@ public class QuestionController {
         return ResponseEntity.ok().build();
     }
     
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<Map<String, Object>> getPaperCacheStats() {
+        return ResponseEntity.ok(questionService.getPaperCacheStats());
+    }
+    
+    @GetMapping("/marks/stats")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<Map<String, Object>> getExamMarksStats() {
+        return ResponseEntity.ok(questionService.getExamMarksStats());
+    }
+    
+    @GetMapping("/search/stats")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('TEACHER')")
+    public ResponseEntity<Map<String, Object>> getSearchIndexStats() {
+        return ResponseEntity.ok(questionService.getSearchIndexStats());
+    }
+    
     @GetMapping("/health")
     public ResponseEntity<String> health() {
         return ResponseEntity.ok("Question Service is running!");
     }
+    
+    private static boolean canSeeAnswers(Authentication authentication) {
+        if (authentication == null) {
+            return false;
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if ("ROLE_ADMIN".equals(authority.getAuthority()) || "ROLE_TEACHER".equals(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private ResponseEntity<Map<String, Object>> importQueued(QuestionImportJob job) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Import queued");
+        response.put("jobId", job.getId());
+        response.put("job", job);
+        return ResponseEntity.accepted().body(response);
+    }
+    
+    private ResponseEntity<Map<String, Object>> importFailed(Exception e) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", "Error starting import: " + e.getMessage());
+        return ResponseEntity.badRequest().body(response);
+    }
 }
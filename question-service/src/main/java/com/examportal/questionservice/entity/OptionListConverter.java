@@ -0,0 +1,69 @@
+package com.examportal.questionservice.entity;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores question options as a JSON array, so an option may contain commas.
+ * Rows written before the switch hold a comma-joined string; those are still
+ * read by splitting on commas and are rewritten as JSON on their next save.
+ */
+@Converter
+public class OptionListConverter implements AttributeConverter<List<String>, String> {
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<List<String>> LIST_TYPE = new TypeReference<>() {};
+    
+    @Override
+    public String convertToDatabaseColumn(List<String> options) {
+        return toJson(options);
+    }
+    
+    @Override
+    public List<String> convertToEntityAttribute(String column) {
+        return parse(column);
+    }
+    
+    public static String toJson(List<String> options) {
+        try {
+            return MAPPER.writeValueAsString(options != null ? options : List.of());
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize question options", e);
+        }
+    }
+    
+    /**
+     * Parses a JSON array, or a legacy comma-separated list.
+     */
+    public static List<String> parse(String value) {
+        List<String> options = new ArrayList<>();
+        if (value == null || value.trim().isEmpty()) {
+            return options;
+        }
+        String trimmed = value.trim();
+        if (trimmed.startsWith("[")) {
+            try {
+                for (String option : MAPPER.readValue(trimmed, LIST_TYPE)) {
+                    if (option != null && !option.trim().isEmpty()) {
+                        options.add(option.trim());
+                    }
+                }
+                return options;
+            } catch (JsonProcessingException e) {
+                // Not JSON after all, e.g. "[1] first,[2] second"
+            }
+        }
+        for (String option : value.split(",")) {
+            if (!option.trim().isEmpty()) {
+                options.add(option.trim());
+            }
+        }
+        return options;
+    }
+}
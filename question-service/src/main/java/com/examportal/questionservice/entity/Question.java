@@ -4,13 +4,20 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
-import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonSetter;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
+// exam-session-service reads this table directly to grade (AnswerKeyRepository)
 @Entity
-@Table(name = "questions")
+@Table(name = "questions", indexes = {
+        @Index(name = "idx_questions_exam_id_id", columnList = "exam_id, id"),
+        @Index(name = "idx_questions_created_by_id", columnList = "created_by, id")
+})
 public class Question {
     
     @Id
@@ -45,9 +52,10 @@ public class Question {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
-    // For MCQ questions - store as comma-separated string
+    // For MCQ and true/false questions, in display order
+    @Convert(converter = OptionListConverter.class)
     @Column(name = "options", columnDefinition = "TEXT")
-    private String options;
+    private List<String> options = new ArrayList<>();
     
     @Column(name = "correct_answer")
     private String correctAnswer;
@@ -55,6 +63,10 @@ public class Question {
     @Column(name = "explanation", columnDefinition = "TEXT")
     private String explanation;
     
+    // Earlier question this one was flagged as a near-duplicate of on import
+    @Column(name = "duplicate_of_id")
+    private Long duplicateOfId;
+    
     // Constructors
     public Question() {
         this.createdAt = LocalDateTime.now();
@@ -145,45 +157,41 @@ public class Question {
         this.updatedAt = updatedAt;
     }
     
-    public String getOptions() {
-        return options;
+    public List<String> getOptions() {
+        return options != null ? options : List.of();
     }
     
-    public void setOptions(String options) {
-        this.options = options;
+    public void setOptions(List<String> options) {
+        this.options = options != null ? new ArrayList<>(options) : new ArrayList<>();
     }
     
-    // Helper method to get options as array for frontend
-    @JsonProperty("options")
+    @JsonIgnore
     public String[] getOptionsArray() {
-        if (options == null || options.isEmpty()) {
-            return new String[0];
-        }
-        return options.split(",");
+        return getOptions().toArray(new String[0]);
     }
     
     // Helper method to set options from array (used by frontend)
     public void setOptionsArray(String[] optionsArray) {
-        if (optionsArray == null || optionsArray.length == 0) {
-            this.options = "";
-        } else {
-            this.options = String.join(",", optionsArray);
-        }
+        setOptions(optionsArray != null ? Arrays.asList(optionsArray) : null);
     }
     
-    // Custom setter to handle both string and array inputs
+    // Accept options as a JSON array or, from older clients, a comma-separated string
     @JsonSetter("options")
     public void setOptionsFromJson(Object optionsInput) {
         if (optionsInput instanceof String) {
-            this.options = (String) optionsInput;
+            this.options = OptionListConverter.parse((String) optionsInput);
         } else if (optionsInput instanceof String[]) {
             setOptionsArray((String[]) optionsInput);
-        } else if (optionsInput instanceof java.util.List) {
-            @SuppressWarnings("unchecked")
-            java.util.List<String> optionsList = (java.util.List<String>) optionsInput;
-            setOptionsArray(optionsList.toArray(new String[0]));
+        } else if (optionsInput instanceof List) {
+            List<String> optionsList = new ArrayList<>();
+            for (Object option : (List<?>) optionsInput) {
+                if (option != null) {
+                    optionsList.add(option.toString());
+                }
+            }
+            setOptions(optionsList);
         } else {
-            this.options = "";
+            this.options = new ArrayList<>();
         }
     }
     
@@ -203,6 +211,14 @@ public class Question {
         this.explanation = explanation;
     }
     
+    public Long getDuplicateOfId() {
+        return duplicateOfId;
+    }
+    
+    public void setDuplicateOfId(Long duplicateOfId) {
+        this.duplicateOfId = duplicateOfId;
+    }
+    
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = LocalDateTime.now();
@@ -0,0 +1,69 @@
+package com.examportal.questionservice.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * MinHash signature of a question and its LSH band buckets. Mapped here so the
+ * tables are created with the rest of the schema; reads and writes go through
+ * QuestionFingerprintRepository in JDBC batches.
+ */
+@Entity
+@Table(name = "question_fingerprints")
+public class QuestionFingerprint {
+    
+    @Id
+    @Column(name = "question_id")
+    private Long questionId;
+    
+    @Column(name = "signature", nullable = false, columnDefinition = "VARBINARY(512)")
+    private byte[] signature;
+    
+    // One row per band; the bucket index is what near-duplicate lookups hit
+    @ElementCollection
+    @CollectionTable(name = "question_lsh_buckets", joinColumns = @JoinColumn(name = "question_id"),
+            indexes = @Index(name = "idx_lsh_bucket", columnList = "bucket"))
+    @Column(name = "bucket", nullable = false)
+    private Set<Long> buckets = new HashSet<>();
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    public QuestionFingerprint() {
+    }
+    
+    public Long getQuestionId() {
+        return questionId;
+    }
+    
+    public void setQuestionId(Long questionId) {
+        this.questionId = questionId;
+    }
+    
+    public byte[] getSignature() {
+        return signature;
+    }
+    
+    public void setSignature(byte[] signature) {
+        this.signature = signature;
+    }
+    
+    public Set<Long> getBuckets() {
+        return buckets;
+    }
+    
+    public void setBuckets(Set<Long> buckets) {
+        this.buckets = buckets;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,260 @@
+package com.examportal.questionservice.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Progress of a streaming CSV import. rowsRead is committed together with each
+ * batch of inserted questions, so an interrupted job resumes after the last
+ * committed row instead of importing rows twice.
+ */
+@Entity
+@Table(name = "question_import_jobs")
+public class QuestionImportJob {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "exam_id", nullable = false)
+    private Long examId;
+    
+    @Column(name = "created_by")
+    private Long createdBy;
+    
+    @Column(nullable = false)
+    private String status; // QUEUED, RUNNING, COMPLETED, FAILED
+    
+    @Column(name = "file_name")
+    private String fileName;
+    
+    @Column(name = "file_bytes")
+    private Long fileBytes = 0L;
+    
+    @Column(name = "rows_read", nullable = false)
+    private Long rowsRead = 0L;
+    
+    @Column(name = "questions_imported", nullable = false)
+    private Long questionsImported = 0L;
+    
+    @Column(name = "rows_rejected", nullable = false)
+    private Long rowsRejected = 0L;
+    
+    // Near-duplicates of stored questions or earlier rows; linked or skipped per question.dedup.mode
+    @Column(name = "duplicates_found")
+    private Long duplicatesFound = 0L;
+    
+    @Column(nullable = false)
+    private Integer batches = 0;
+    
+    @Column(name = "total_marks")
+    private Integer totalMarks;
+    
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+    
+    // First rejected rows only; rowsRejected has the full count
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "question_import_job_errors", joinColumns = @JoinColumn(name = "job_id"))
+    @OrderColumn(name = "position")
+    @Column(name = "error", length = 500)
+    private List<String> rowErrors = new ArrayList<>();
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+    
+    // Constructors
+    public QuestionImportJob() {
+    }
+    
+    public QuestionImportJob(Long examId, Long createdBy, String fileName) {
+        this.examId = examId;
+        this.createdBy = createdBy;
+        this.fileName = fileName;
+        this.status = "QUEUED";
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    public void recordBatch(long rows, int imported, int duplicates, List<String> errors, int maxErrors) {
+        this.rowsRead += rows;
+        this.questionsImported += imported;
+        this.duplicatesFound = (duplicatesFound != null ? duplicatesFound : 0L) + duplicates;
+        this.rowsRejected += errors.size();
+        this.batches++;
+        for (String error : errors) {
+            if (rowErrors.size() >= maxErrors) {
+                break;
+            }
+            rowErrors.add(error.length() > 500 ? error.substring(0, 500) : error);
+        }
+        this.updatedAt = LocalDateTime.now();
+    }
+    
+    // Rows read per second since the job started
+    public double getRowsPerSecond() {
+        if (startedAt == null) {
+            return 0.0;
+        }
+        LocalDateTime end = completedAt != null ? completedAt : LocalDateTime.now();
+        long millis = Math.max(1, Duration.between(startedAt, end).toMillis());
+        return rowsRead * 1000.0 / millis;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getExamId() {
+        return examId;
+    }
+    
+    public void setExamId(Long examId) {
+        this.examId = examId;
+    }
+    
+    public Long getCreatedBy() {
+        return createdBy;
+    }
+    
+    public void setCreatedBy(Long createdBy) {
+        this.createdBy = createdBy;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public String getFileName() {
+        return fileName;
+    }
+    
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+    
+    public Long getFileBytes() {
+        return fileBytes;
+    }
+    
+    public void setFileBytes(Long fileBytes) {
+        this.fileBytes = fileBytes;
+    }
+    
+    public Long getRowsRead() {
+        return rowsRead;
+    }
+    
+    public void setRowsRead(Long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+    
+    public Long getQuestionsImported() {
+        return questionsImported;
+    }
+    
+    public void setQuestionsImported(Long questionsImported) {
+        this.questionsImported = questionsImported;
+    }
+    
+    public Long getDuplicatesFound() {
+        return duplicatesFound;
+    }
+    
+    public void setDuplicatesFound(Long duplicatesFound) {
+        this.duplicatesFound = duplicatesFound;
+    }
+    
+    public Long getRowsRejected() {
+        return rowsRejected;
+    }
+    
+    public void setRowsRejected(Long rowsRejected) {
+        this.rowsRejected = rowsRejected;
+    }
+    
+    public Integer getBatches() {
+        return batches;
+    }
+    
+    public void setBatches(Integer batches) {
+        this.batches = batches;
+    }
+    
+    public Integer getTotalMarks() {
+        return totalMarks;
+    }
+    
+    public void setTotalMarks(Integer totalMarks) {
+        this.totalMarks = totalMarks;
+    }
+    
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+    
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+    
+    public List<String> getRowErrors() {
+        return rowErrors;
+    }
+    
+    public void setRowErrors(List<String> rowErrors) {
+        this.rowErrors = rowErrors;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+    
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
@@ -0,0 +1,90 @@
+package com.examportal.questionservice.repository;
+
+import com.examportal.questionservice.entity.OptionListConverter;
+import com.examportal.questionservice.entity.Question;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC batch inserts for questions. Question uses IDENTITY ids, so Hibernate
+ * cannot batch these statements itself; with rewriteBatchedStatements on the
+ * datasource URL each batch goes to MySQL as a multi-row INSERT.
+ */
+@Repository
+public class QuestionBatchRepository {
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO questions (question_text, question_type, difficulty_level, marks, exam_id, created_by, "
+                    + "created_at, updated_at, options, correct_answer, explanation, duplicate_of_id) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    /**
+     * Inserts the questions and sets their generated ids. Throws if the driver
+     * does not return one id per row.
+     */
+    public void insertAll(List<Question> questions) {
+        if (questions.isEmpty()) {
+            return;
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        bind(ps, questions.get(i));
+                    }
+                    
+                    @Override
+                    public int getBatchSize() {
+                        return questions.size();
+                    }
+                }, keyHolder);
+        
+        // Questions without ids cannot be deduplicated or indexed later, so the batch is rolled back instead
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        if (keys.size() != questions.size()) {
+            throw new RuntimeException("Expected " + questions.size() + " generated question ids but got " + keys.size());
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            questions.get(i).setId(((Number) keys.get(i).values().iterator().next()).longValue());
+        }
+    }
+    
+    private static void bind(PreparedStatement ps, Question question) throws SQLException {
+        ps.setString(1, question.getQuestionText());
+        ps.setString(2, question.getQuestionType().name());
+        ps.setString(3, question.getDifficultyLevel().name());
+        ps.setInt(4, question.getMarks());
+        ps.setLong(5, question.getExamId());
+        if (question.getCreatedBy() != null) {
+            ps.setLong(6, question.getCreatedBy());
+        } else {
+            ps.setNull(6, Types.BIGINT);
+        }
+        ps.setTimestamp(7, Timestamp.valueOf(question.getCreatedAt()));
+        ps.setTimestamp(8, Timestamp.valueOf(question.getUpdatedAt()));
+        ps.setString(9, OptionListConverter.toJson(question.getOptions()));
+        ps.setString(10, question.getCorrectAnswer());
+        ps.setString(11, question.getExplanation());
+        if (question.getDuplicateOfId() != null) {
+            ps.setLong(12, question.getDuplicateOfId());
+        } else {
+            ps.setNull(12, Types.BIGINT);
+        }
+    }
+}
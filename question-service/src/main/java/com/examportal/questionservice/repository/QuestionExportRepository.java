@@ -0,0 +1,41 @@
+package com.examportal.questionservice.repository;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+
+/**
+ * Row-by-row reads for exports. The template's fetch size of Integer.MIN_VALUE
+ * makes MySQL Connector/J stream the result set instead of buffering it, so
+ * memory stays flat however many rows are exported.
+ */
+@Repository
+public class QuestionExportRepository {
+    
+    private static final String QUESTION_COLUMNS =
+            "SELECT id, exam_id, question_text, question_type, difficulty_level, marks, options, correct_answer, "
+                    + "explanation, created_by, created_at, updated_at, duplicate_of_id FROM questions ";
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    private JdbcTemplate streamingTemplate;
+    
+    @PostConstruct
+    public void init() {
+        streamingTemplate = new JdbcTemplate(dataSource);
+        streamingTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+    
+    public void streamQuestions(Long examId, RowCallbackHandler handler) {
+        if (examId != null) {
+            streamingTemplate.query(QUESTION_COLUMNS + "WHERE exam_id = ? ORDER BY id", handler, examId);
+        } else {
+            streamingTemplate.query(QUESTION_COLUMNS + "ORDER BY id", handler);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.examportal.questionservice.repository;
+
+import com.examportal.questionservice.entity.OptionListConverter;
+import com.examportal.questionservice.entity.Question;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC access to question_fingerprints and question_lsh_buckets. Lookups go
+ * through the bucket index in chunks, so checking a batch of questions costs a
+ * handful of indexed IN queries regardless of how many questions are stored.
+ */
+@Repository
+public class QuestionFingerprintRepository {
+    
+    private static final int IN_CHUNK = 1000;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    /**
+     * Question ids sharing each of the given buckets.
+     */
+    public Map<Long, List<Long>> findByBuckets(Collection<Long> buckets) {
+        Map<Long, List<Long>> byBucket = new HashMap<>();
+        for (List<Long> chunk : chunks(buckets)) {
+            jdbcTemplate.query("SELECT bucket, question_id FROM question_lsh_buckets WHERE bucket IN (" + placeholders(chunk) + ")",
+                    rs -> {
+                        byBucket.computeIfAbsent(rs.getLong(1), bucket -> new ArrayList<>()).add(rs.getLong(2));
+                    }, chunk.toArray());
+        }
+        return byBucket;
+    }
+    
+    /**
+     * Signatures of the given questions, skipping any whose question row is gone.
+     */
+    public Map<Long, byte[]> findSignatures(Collection<Long> questionIds) {
+        Map<Long, byte[]> signatures = new HashMap<>();
+        for (List<Long> chunk : chunks(questionIds)) {
+            jdbcTemplate.query("SELECT f.question_id, f.signature FROM question_fingerprints f "
+                            + "JOIN questions q ON q.id = f.question_id WHERE f.question_id IN (" + placeholders(chunk) + ")",
+                    rs -> {
+                        signatures.put(rs.getLong(1), rs.getBytes(2));
+                    }, chunk.toArray());
+        }
+        return signatures;
+    }
+    
+    /**
+     * Questions after afterId with no fingerprint yet, in id order; only id,
+     * text and options are loaded.
+     */
+    public List<Question> findUnfingerprinted(Long examId, long afterId, int limit) {
+        String sql = "SELECT q.id, q.question_text, q.options FROM questions q "
+                + "LEFT JOIN question_fingerprints f ON f.question_id = q.id WHERE f.question_id IS NULL AND q.id > ? "
+                + (examId != null ? "AND q.exam_id = ? " : "") + "ORDER BY q.id LIMIT ?";
+        Object[] args = examId != null ? new Object[] { afterId, examId, limit } : new Object[] { afterId, limit };
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            Question question = new Question();
+            question.setId(rs.getLong(1));
+            question.setQuestionText(rs.getString(2));
+            question.setOptions(OptionListConverter.parse(rs.getString(3)));
+            return question;
+        }, args);
+    }
+    
+    /**
+     * Replaces the fingerprints of the given questions. The upserts tolerate the
+     * background backfill fingerprinting the same rows concurrently.
+     */
+    @Transactional
+    public void saveAll(Map<Long, byte[]> signatures, Map<Long, long[]> buckets) {
+        if (signatures.isEmpty()) {
+            return;
+        }
+        deleteByQuestionIds(signatures.keySet());
+        
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Map.Entry<Long, byte[]>> rows = new ArrayList<>(signatures.entrySet());
+        jdbcTemplate.batchUpdate("INSERT INTO question_fingerprints (question_id, signature, created_at) VALUES (?, ?, ?) "
+                        + "ON DUPLICATE KEY UPDATE signature = VALUES(signature), created_at = VALUES(created_at)",
+                rows, rows.size(), (ps, row) -> {
+                    ps.setLong(1, row.getKey());
+                    ps.setBytes(2, row.getValue());
+                    ps.setTimestamp(3, now);
+                });
+        
+        List<long[]> bucketRows = new ArrayList<>();
+        for (Map.Entry<Long, long[]> entry : buckets.entrySet()) {
+            long[] distinct = Arrays.stream(entry.getValue()).distinct().toArray();
+            for (long bucket : distinct) {
+                bucketRows.add(new long[] { entry.getKey(), bucket });
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT IGNORE INTO question_lsh_buckets (question_id, bucket) VALUES (?, ?)",
+                bucketRows, bucketRows.size(), (ps, row) -> {
+                    ps.setLong(1, row[0]);
+                    ps.setLong(2, row[1]);
+                });
+    }
+    
+    @Transactional
+    public void deleteByQuestionIds(Collection<Long> questionIds) {
+        for (List<Long> chunk : chunks(questionIds)) {
+            String in = placeholders(chunk);
+            jdbcTemplate.update("DELETE FROM question_lsh_buckets WHERE question_id IN (" + in + ")", chunk.toArray());
+            jdbcTemplate.update("DELETE FROM question_fingerprints WHERE question_id IN (" + in + ")", chunk.toArray());
+        }
+    }
+    
+    public void linkDuplicates(Map<Long, Long> duplicateOf) {
+        if (duplicateOf.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Long, Long>> rows = new ArrayList<>(duplicateOf.entrySet());
+        jdbcTemplate.batchUpdate("UPDATE questions SET duplicate_of_id = ? WHERE id = ?",
+                rows, rows.size(), (ps, row) -> {
+                    ps.setLong(1, row.getValue());
+                    ps.setLong(2, row.getKey());
+                });
+    }
+    
+    private static List<List<Long>> chunks(Collection<Long> values) {
+        List<Long> all = new ArrayList<>(values);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += IN_CHUNK) {
+            chunks.add(all.subList(from, Math.min(from + IN_CHUNK, all.size())));
+        }
+        return chunks;
+    }
+    
+    private static String placeholders(List<Long> values) {
+        return String.join(",", Collections.nCopies(values.size(), "?"));
+    }
+}
@@ -0,0 +1,16 @@
+package com.examportal.questionservice.repository;
+
+import com.examportal.questionservice.entity.QuestionImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface QuestionImportJobRepository extends JpaRepository<QuestionImportJob, Long> {
+    
+    List<QuestionImportJob> findByStatusIn(Collection<String> statuses);
+    
+    List<QuestionImportJob> findByExamIdOrderByCreatedAtDesc(Long examId);
+}
@@ -3,6 +3,7 @@ package com.examportal.questionservice.repository;
 import com.examportal.questionservice.entity.Question;
 import com.examportal.questionservice.entity.QuestionType;
 import com.examportal.questionservice.entity.DifficultyLevel;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -19,6 +20,11 @@ public interface QuestionRepository extends JpaRepository<Question, Long> {
     
     List<Question> findByCreatedBy(Long createdBy);
     
+    // Keyset pages, newest first: pass PageRequest.of(0, size) and the last id seen
+    List<Question> findByIdLessThanOrderByIdDesc(Long id, Pageable pageable);
+    
+    List<Question> findByCreatedByAndIdLessThanOrderByIdDesc(Long createdBy, Long id, Pageable pageable);
+    
     List<Question> findByQuestionType(QuestionType questionType);
     
     List<Question> findByDifficultyLevel(DifficultyLevel difficultyLevel);
@@ -27,12 +33,6 @@ public interface QuestionRepository extends JpaRepository<Question, Long> {
     
     List<Question> findByExamIdAndDifficultyLevel(Long examId, DifficultyLevel difficultyLevel);
     
-    @Query("SELECT q FROM Question q WHERE q.examId = :examId ORDER BY RAND()")
-    List<Question> findRandomQuestionsByExamId(@Param("examId") Long examId);
-    
-    @Query("SELECT q FROM Question q WHERE q.examId = :examId AND q.difficultyLevel = :difficulty ORDER BY RAND()")
-    List<Question> findRandomQuestionsByExamIdAndDifficulty(@Param("examId") Long examId, @Param("difficulty") DifficultyLevel difficulty);
-    
     @Query("SELECT COUNT(q) FROM Question q WHERE q.examId = :examId")
     Long countByExamId(@Param("examId") Long examId);
     
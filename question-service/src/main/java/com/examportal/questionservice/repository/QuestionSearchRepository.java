@@ -0,0 +1,68 @@
+package com.examportal.questionservice.repository;
+
+import com.examportal.questionservice.entity.DifficultyLevel;
+import com.examportal.questionservice.entity.Question;
+import com.examportal.questionservice.entity.QuestionType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lightweight reads for keeping the search index in step with the questions
+ * table: (id, updated_at) stamps to find what changed, and just the indexed
+ * columns for the rows that did.
+ */
+@Repository
+public class QuestionSearchRepository {
+    
+    private static final String INDEX_COLUMNS =
+            "SELECT id, exam_id, question_type, difficulty_level, question_text, explanation, updated_at FROM questions ";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    public Map<Long, Timestamp> findIndexStamps() {
+        Map<Long, Timestamp> stamps = new HashMap<>();
+        jdbcTemplate.query("SELECT id, updated_at FROM questions",
+                rs -> {
+                    stamps.put(rs.getLong(1), rs.getTimestamp(2));
+                });
+        return stamps;
+    }
+    
+    public Map<Long, Timestamp> findIndexStampsByExamId(Long examId) {
+        Map<Long, Timestamp> stamps = new HashMap<>();
+        jdbcTemplate.query("SELECT id, updated_at FROM questions WHERE exam_id = ?",
+                rs -> {
+                    stamps.put(rs.getLong(1), rs.getTimestamp(2));
+                }, examId);
+        return stamps;
+    }
+    
+    public List<Question> findForIndex(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        return jdbcTemplate.query(INDEX_COLUMNS + "WHERE id IN (" + placeholders + ")", (rs, rowNum) -> {
+            Question question = new Question();
+            question.setId(rs.getLong("id"));
+            question.setExamId(rs.getObject("exam_id", Long.class));
+            String type = rs.getString("question_type");
+            question.setQuestionType(type != null ? QuestionType.valueOf(type) : null);
+            String difficulty = rs.getString("difficulty_level");
+            question.setDifficultyLevel(difficulty != null ? DifficultyLevel.valueOf(difficulty) : null);
+            question.setQuestionText(rs.getString("question_text"));
+            question.setExplanation(rs.getString("explanation"));
+            Timestamp updatedAt = rs.getTimestamp("updated_at");
+            question.setUpdatedAt(updatedAt != null ? updatedAt.toLocalDateTime() : null);
+            return question;
+        }, ids.toArray());
+    }
+}
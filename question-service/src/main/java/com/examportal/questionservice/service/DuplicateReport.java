@@ -0,0 +1,148 @@
+package com.examportal.questionservice.service;
+
+import com.examportal.questionservice.entity.Question;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Near-duplicates found while importing a batch of questions. Returned with the
+ * import result; the signatures and in-batch links are kept for
+ * {@link QuestionDeduplicator#record} and are not serialized.
+ */
+public class DuplicateReport {
+    
+    // Matches beyond this are counted but not listed
+    private static final int MAX_LISTED = 500;
+    
+    private final String mode;
+    private final double threshold;
+    private final int checked;
+    private int duplicates;
+    private int skipped;
+    private final List<Match> matches = new ArrayList<>();
+    
+    final Map<Question, int[]> signatures = new IdentityHashMap<>();
+    final Set<Question> flagged = Collections.newSetFromMap(new IdentityHashMap<>());
+    final Map<Question, Question> duplicateOfInBatch = new IdentityHashMap<>();
+    final Map<Question, Match> matchByQuestion = new IdentityHashMap<>();
+    
+    DuplicateReport(String mode, double threshold, int checked) {
+        this.mode = mode;
+        this.threshold = threshold;
+        this.checked = checked;
+    }
+    
+    void add(Question question, Match match) {
+        flagged.add(question);
+        duplicates++;
+        if ("SKIP".equals(mode)) {
+            skipped++;
+        }
+        if (matches.size() < MAX_LISTED) {
+            matches.add(match);
+            matchByQuestion.put(question, match);
+        }
+    }
+    
+    /**
+     * The questions to save: all of them when linking, the non-duplicates when skipping.
+     */
+    public List<Question> accepted(List<Question> questions) {
+        if (!"SKIP".equals(mode) || duplicates == 0) {
+            return questions;
+        }
+        List<Question> accepted = new ArrayList<>(questions.size());
+        for (Question question : questions) {
+            if (!flagged.contains(question)) {
+                accepted.add(question);
+            }
+        }
+        return accepted;
+    }
+    
+    public String getMode() {
+        return mode;
+    }
+    
+    public double getThreshold() {
+        return threshold;
+    }
+    
+    public int getChecked() {
+        return checked;
+    }
+    
+    public int getDuplicates() {
+        return duplicates;
+    }
+    
+    public int getSkipped() {
+        return skipped;
+    }
+    
+    public List<Match> getMatches() {
+        return matches;
+    }
+    
+    public static class Match {
+        
+        private final int index;
+        private final String questionText;
+        private final double similarity;
+        private Long questionId;
+        private Long duplicateOfId;
+        private Integer duplicateOfIndex;
+        
+        Match(int index, String questionText, double similarity) {
+            this.index = index;
+            this.questionText = questionText != null && questionText.length() > 200
+                    ? questionText.substring(0, 200) : questionText;
+            this.similarity = similarity;
+        }
+        
+        // Position of the question in the checked batch, from 0
+        public int getIndex() {
+            return index;
+        }
+        
+        public String getQuestionText() {
+            return questionText;
+        }
+        
+        public double getSimilarity() {
+            return similarity;
+        }
+        
+        // Null when the question was skipped
+        public Long getQuestionId() {
+            return questionId;
+        }
+        
+        void setQuestionId(Long questionId) {
+            this.questionId = questionId;
+        }
+        
+        // Stored question it duplicates; for an in-batch duplicate, set once the original is saved
+        public Long getDuplicateOfId() {
+            return duplicateOfId;
+        }
+        
+        void setDuplicateOfId(Long duplicateOfId) {
+            this.duplicateOfId = duplicateOfId;
+        }
+        
+        // Earlier question in the same batch it duplicates, if any
+        public Integer getDuplicateOfIndex() {
+            return duplicateOfIndex;
+        }
+        
+        void setDuplicateOfIndex(Integer duplicateOfIndex) {
+            this.duplicateOfIndex = duplicateOfIndex;
+        }
+    }
+}
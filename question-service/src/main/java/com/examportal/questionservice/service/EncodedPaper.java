@@ -0,0 +1,127 @@
+package com.examportal.questionservice.service;
+
+import com.examportal.questionservice.entity.Question;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * An {@link ExamPaper} serialized once to JSON, with a gzipped copy and a
+ * strong ETag for each, taken from a hash of the JSON. The two encodings are
+ * different representations, so they never share a tag (RFC 9110 8.8.3).
+ * Built once per paper version and served as-is, so readers of the same exam
+ * share the same bytes.
+ *
+ * The student variant leaves out correct answers, explanations and
+ * bookkeeping fields.
+ */
+public class EncodedPaper {
+    
+    private final long version;
+    private final byte[] json;
+    private final byte[] gzip;
+    private final String etag;
+    private final String gzipEtag;
+    
+    private EncodedPaper(long version, byte[] json, byte[] gzip, String etag, String gzipEtag) {
+        this.version = version;
+        this.json = json;
+        this.gzip = gzip;
+        this.etag = etag;
+        this.gzipEtag = gzipEtag;
+    }
+    
+    public static EncodedPaper encode(ExamPaper paper, boolean withAnswers, ObjectMapper objectMapper) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(withAnswers ? paper.getQuestions() : studentView(paper));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize paper for exam " + paper.getExamId(), e);
+        }
+        String tag = tag(json, withAnswers);
+        return new EncodedPaper(paper.getVersion(), json, gzip(json), "\"" + tag + "\"", "\"" + tag + "-gzip\"");
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public byte[] getJson() {
+        return json;
+    }
+    
+    public byte[] getGzip() {
+        return gzip;
+    }
+    
+    public String getEtag(boolean gzipped) {
+        return gzipped ? gzipEtag : etag;
+    }
+    
+    /**
+     * True when an If-None-Match header lists the ETag of the chosen encoding or "*".
+     */
+    public boolean matches(String ifNoneMatch, boolean gzipped) {
+        String etag = getEtag(gzipped);
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static List<Map<String, Object>> studentView(ExamPaper paper) {
+        List<Map<String, Object>> questions = new ArrayList<>(paper.getQuestionCount());
+        for (Question question : paper.getQuestions()) {
+            Map<String, Object> view = new LinkedHashMap<>();
+            view.put("id", question.getId());
+            view.put("questionText", question.getQuestionText());
+            view.put("questionType", question.getQuestionType());
+            view.put("difficultyLevel", question.getDifficultyLevel());
+            view.put("marks", question.getMarks());
+            view.put("examId", question.getExamId());
+            view.put("options", paper.getOptions(question.getId()));
+            questions.add(view);
+        }
+        return questions;
+    }
+    
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+    
+    // Hash of the bytes, so the tag stays valid across restarts and instances
+    private static String tag(byte[] json, boolean withAnswers) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return (withAnswers ? "f" : "s") + HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.examportal.questionservice.service;
+
+import com.examportal.questionservice.client.ExamClient;
+import com.examportal.questionservice.repository.QuestionRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps exam total marks as a running total per exam and pushes it to
+ * exam-service once edits to that exam have settled. The total is loaded with
+ * one SUM query when an exam first changes and then moved by deltas, so a
+ * burst of question edits costs one aggregate query and one cross-service
+ * update instead of one of each per save.
+ *
+ * The pushed value is the absolute total, so a retried or repeated update is
+ * harmless. Failed pushes are retried with backoff; once an exam is pushed and
+ * unchanged its entry is dropped, and the next edit reloads it from the
+ * database, which corrects any drift.
+ */
+@Component
+public class ExamMarksAggregator {
+    
+    @Autowired
+    private QuestionRepository questionRepository;
+    
+    @Autowired
+    private ExamClient examClient;
+    
+    @Value("${question.marks.debounce-ms:2000}")
+    private long debounceMs;
+    
+    @Value("${question.marks.retry-backoff-ms:1000}")
+    private long retryBackoffMs;
+    
+    @Value("${question.marks.max-retry-backoff-ms:60000}")
+    private long maxRetryBackoffMs;
+    
+    @Value("${question.marks.max-attempts:10}")
+    private int maxAttempts;
+    
+    private final Map<Long, PendingTotal> pending = new ConcurrentHashMap<>();
+    
+    private final AtomicLong pushes = new AtomicLong();
+    private final AtomicLong failedPushes = new AtomicLong();
+    private final AtomicLong coalescedChanges = new AtomicLong();
+    
+    private static class PendingTotal {
+        int total;
+        long version;
+        long changedAt;
+        int attempts;
+        long retryAt;
+    }
+    
+    /**
+     * Records a change of delta marks to an exam whose questions have already
+     * been saved. Call after the write, so a total loaded now includes it.
+     */
+    public void add(Long examId, int delta) {
+        if (examId == null) {
+            return;
+        }
+        pending.compute(examId, (id, entry) -> {
+            if (entry == null) {
+                entry = new PendingTotal();
+                entry.total = loadTotal(id);
+            } else {
+                entry.total += delta;
+                coalescedChanges.incrementAndGet();
+            }
+            touch(entry);
+            return entry;
+        });
+    }
+    
+    public void move(Long fromExamId, int fromMarks, Long toExamId, int toMarks) {
+        if (fromExamId != null && fromExamId.equals(toExamId)) {
+            if (fromMarks != toMarks) {
+                add(toExamId, toMarks - fromMarks);
+            }
+            return;
+        }
+        add(fromExamId, -fromMarks);
+        add(toExamId, toMarks);
+    }
+    
+    /**
+     * Reloads an exam's total from the database, for writes whose delta is not
+     * known, and schedules a push.
+     */
+    public void recompute(Long examId) {
+        if (examId == null) {
+            return;
+        }
+        pending.compute(examId, (id, entry) -> {
+            if (entry == null) {
+                entry = new PendingTotal();
+            }
+            entry.total = loadTotal(id);
+            touch(entry);
+            return entry;
+        });
+    }
+    
+    // Drops any pending push, e.g. when the exam's questions are deleted with the exam
+    public void forget(Long examId) {
+        if (examId != null) {
+            pending.remove(examId);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${question.marks.flush-ms:500}")
+    public void flush() {
+        flush(false);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        flush(true);
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pendingExams", pending.size());
+        stats.put("pushes", pushes.get());
+        stats.put("failedPushes", failedPushes.get());
+        stats.put("coalescedChanges", coalescedChanges.get());
+        return stats;
+    }
+    
+    private void flush(boolean all) {
+        long now = System.currentTimeMillis();
+        Map<Long, long[]> due = new HashMap<>();
+        for (Long examId : pending.keySet()) {
+            pending.computeIfPresent(examId, (id, entry) -> {
+                if (all || (now - entry.changedAt >= debounceMs && now >= entry.retryAt)) {
+                    due.put(id, new long[] { entry.total, entry.version });
+                }
+                return entry;
+            });
+        }
+        due.forEach((examId, snapshot) -> push(examId, (int) snapshot[0], snapshot[1]));
+    }
+    
+    private void push(Long examId, int total, long version) {
+        try {
+            examClient.updateExamTotalMarks(examId, total);
+            pushes.incrementAndGet();
+            // Keep the entry if it changed while the push was in flight
+            pending.computeIfPresent(examId, (id, entry) -> entry.version == version ? null : entry);
+        } catch (Exception e) {
+            failedPushes.incrementAndGet();
+            pending.computeIfPresent(examId, (id, entry) -> {
+                entry.attempts++;
+                if (entry.attempts >= maxAttempts) {
+                    System.err.println("Giving up updating total marks for exam " + examId + " after "
+                            + entry.attempts + " attempts: " + e.getMessage());
+                    return null;
+                }
+                long backoff = Math.min(retryBackoffMs << Math.min(entry.attempts - 1, 16), maxRetryBackoffMs);
+                entry.retryAt = System.currentTimeMillis() + backoff;
+                System.err.println("Failed to update total marks for exam " + examId + " (attempt "
+                        + entry.attempts + ", retrying in " + backoff + " ms): " + e.getMessage());
+                return entry;
+            });
+        }
+    }
+    
+    private void touch(PendingTotal entry) {
+        entry.version++;
+        entry.changedAt = System.currentTimeMillis();
+        entry.attempts = 0;
+        entry.retryAt = 0;
+    }
+    
+    private int loadTotal(Long examId) {
+        Integer total = questionRepository.getTotalMarksByExamId(examId);
+        return total != null ? total : 0;
+    }
+}
@@ -0,0 +1,70 @@
+package com.examportal.questionservice.service;
+
+import com.examportal.questionservice.entity.Question;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of an exam's questions at one version: the question rows,
+ * their options and correct answers. Shared by every reader of the exam,
+ * so nothing in here may be mutated after construction.
+ */
+public class ExamPaper {
+    
+    private final Long examId;
+    private final long version;
+    private final List<Question> questions;
+    private final Map<Long, List<String>> options;
+    private final Map<Long, String> correctAnswers;
+    private final int totalMarks;
+    
+    public ExamPaper(Long examId, long version, List<Question> questions) {
+        this.examId = examId;
+        this.version = version;
+        this.questions = Collections.unmodifiableList(new ArrayList<>(questions));
+        
+        Map<Long, List<String>> parsedOptions = new HashMap<>(questions.size() * 2);
+        Map<Long, String> answers = new HashMap<>(questions.size() * 2);
+        int marks = 0;
+        for (Question question : questions) {
+            parsedOptions.put(question.getId(), List.copyOf(question.getOptions()));
+            answers.put(question.getId(), question.getCorrectAnswer());
+            marks += question.getMarks() != null ? question.getMarks() : 0;
+        }
+        this.options = Collections.unmodifiableMap(parsedOptions);
+        this.correctAnswers = Collections.unmodifiableMap(answers);
+        this.totalMarks = marks;
+    }
+    
+    public Long getExamId() {
+        return examId;
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public List<Question> getQuestions() {
+        return questions;
+    }
+    
+    public List<String> getOptions(Long questionId) {
+        return options.getOrDefault(questionId, Collections.emptyList());
+    }
+    
+    public String getCorrectAnswer(Long questionId) {
+        return correctAnswers.get(questionId);
+    }
+    
+    public int getQuestionCount() {
+        return questions.size();
+    }
+    
+    public int getTotalMarks() {
+        return totalMarks;
+    }
+}
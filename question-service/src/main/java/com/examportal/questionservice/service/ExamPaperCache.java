@@ -0,0 +1,179 @@
+package com.examportal.questionservice.service;
+
+import com.examportal.questionservice.entity.Question;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Read-through, per-exam cache of {@link ExamPaper} snapshots.
+ *
+ * Every exam has a version counter that is bumped whenever one of its questions
+ * is written. A cached paper is served only while its version is current, so a
+ * write never has to race a concurrent load to remove the old entry.
+ *
+ * Each cached paper also keeps its serialized forms, built on first request,
+ * so repeated fetches of a paper are byte copies rather than query and
+ * serialization work.
+ */
+@Component
+public class ExamPaperCache {
+    
+    private final ConcurrentHashMap<Long, CachedPaper> papers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder encodings = new LongAdder();
+    
+    @Value("${question.paper-cache.max-entries:500}")
+    private int maxEntries;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    public ExamPaper get(Long examId, Function<Long, List<Question>> loader) {
+        return load(examId, loader).paper;
+    }
+    
+    /**
+     * The serialized paper for the exam's current version, with or without
+     * correct answers.
+     */
+    public EncodedPaper getEncoded(Long examId, Function<Long, List<Question>> loader, boolean withAnswers) {
+        CachedPaper cached = load(examId, loader);
+        EncodedPaper encoded = withAnswers ? cached.fullBody : cached.studentBody;
+        if (encoded == null) {
+            // Concurrent first requests may both encode; the results are identical
+            encoded = EncodedPaper.encode(cached.paper, withAnswers, objectMapper);
+            encodings.increment();
+            if (withAnswers) {
+                cached.fullBody = encoded;
+            } else {
+                cached.studentBody = encoded;
+            }
+        }
+        return encoded;
+    }
+    
+    private CachedPaper load(Long examId, Function<Long, List<Question>> loader) {
+        long currentVersion = currentVersion(examId);
+        CachedPaper cached = papers.get(examId);
+        if (cached != null && cached.paper.getVersion() == currentVersion) {
+            cached.lastAccess = System.nanoTime();
+            hits.increment();
+            return cached;
+        }
+        
+        // Concurrent misses for the same exam wait on one load instead of each querying MySQL
+        CachedPaper loaded = papers.compute(examId, (id, existing) -> {
+            if (existing != null && existing.paper.getVersion() == currentVersion(id)) {
+                hits.increment();
+                return existing;
+            }
+            misses.increment();
+            long version = currentVersion(id);
+            return new CachedPaper(new ExamPaper(id, version, loader.apply(id)));
+        });
+        loaded.lastAccess = System.nanoTime();
+        
+        if (papers.size() > maxEntries) {
+            evictLeastRecentlyUsed();
+        }
+        return loaded;
+    }
+    
+    public long currentVersion(Long examId) {
+        AtomicLong version = versions.get(examId);
+        return version != null ? version.get() : 0L;
+    }
+    
+    /**
+     * Bumps the exam's version so the next read reloads it. Inside a
+     * transaction the bump waits for the commit; bumped earlier, a read in
+     * between would cache the old questions under the new version.
+     */
+    public void invalidate(Long examId) {
+        if (examId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            versions.computeIfAbsent(examId, id -> new AtomicLong()).incrementAndGet();
+            papers.remove(examId);
+            invalidations.increment();
+        });
+    }
+    
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+        
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", papers.size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", requests > 0 ? (double) hitCount / requests : 0.0);
+        stats.put("evictions", evictions.sum());
+        stats.put("invalidations", invalidations.sum());
+        stats.put("encodings", encodings.sum());
+        return stats;
+    }
+    
+    private void evictLeastRecentlyUsed() {
+        while (papers.size() > maxEntries) {
+            Long oldestExamId = null;
+            long oldestAccess = Long.MAX_VALUE;
+            for (Map.Entry<Long, CachedPaper> entry : papers.entrySet()) {
+                if (entry.getValue().lastAccess < oldestAccess) {
+                    oldestAccess = entry.getValue().lastAccess;
+                    oldestExamId = entry.getKey();
+                }
+            }
+            if (oldestExamId == null || papers.remove(oldestExamId) == null) {
+                return;
+            }
+            evictions.increment();
+        }
+    }
+    
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+    
+    private static class CachedPaper {
+        
+        private final ExamPaper paper;
+        private volatile long lastAccess;
+        private volatile EncodedPaper studentBody;
+        private volatile EncodedPaper fullBody;
+        
+        CachedPaper(ExamPaper paper) {
+            this.paper = paper;
+            this.lastAccess = System.nanoTime();
+        }
+    }
+}
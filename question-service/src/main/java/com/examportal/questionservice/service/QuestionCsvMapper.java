@@ -0,0 +1,136 @@
+package com.examportal.questionservice.service;
+
+import com.examportal.questionservice.entity.DifficultyLevel;
+import com.examportal.questionservice.entity.OptionListConverter;
+import com.examportal.questionservice.entity.Question;
+import com.examportal.questionservice.entity.QuestionType;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Maps CSV records to questions. Column positions are resolved once from the
+ * header row, so each record is mapped by index instead of searching the
+ * header map for every field.
+ */
+public class QuestionCsvMapper {
+    
+    public static final CSVFormat FORMAT = CSVFormat.DEFAULT.withFirstRecordAsHeader()
+            .withIgnoreHeaderCase().withTrim().withIgnoreSurroundingSpaces();
+    
+    private final int questionText;
+    private final int questionType;
+    private final int difficultyLevel;
+    private final int marks;
+    private final int options;
+    private final int correctAnswer;
+    private final int explanation;
+    
+    private QuestionCsvMapper(Map<String, Integer> headerMap) {
+        this.questionText = resolve(headerMap, "questionText", "Question Text");
+        this.questionType = resolve(headerMap, "questionType", "Question Type");
+        this.difficultyLevel = resolve(headerMap, "difficultyLevel", "Difficulty Level");
+        this.marks = resolve(headerMap, "marks", "Marks");
+        this.options = resolve(headerMap, "options", "Options");
+        this.correctAnswer = resolve(headerMap, "correctAnswer", "Correct Answer");
+        this.explanation = resolve(headerMap, "explanation", "Explanation");
+    }
+    
+    public static QuestionCsvMapper forHeaders(Map<String, Integer> headerMap) {
+        QuestionCsvMapper mapper = new QuestionCsvMapper(headerMap);
+        if (mapper.questionText < 0) {
+            throw new RuntimeException("CSV header has no questionText column: " + headerMap.keySet());
+        }
+        return mapper;
+    }
+    
+    /**
+     * @throws IllegalArgumentException if the record is not a valid question
+     */
+    public Question map(CSVRecord record, Long examId, Long createdBy) {
+        String text = value(record, questionText);
+        if (text == null || text.isEmpty()) {
+            throw new IllegalArgumentException("No question text found");
+        }
+        
+        String typeStr = value(record, questionType);
+        String difficultyStr = value(record, difficultyLevel);
+        String marksStr = value(record, marks);
+        
+        Question question = new Question();
+        question.setQuestionText(text);
+        question.setQuestionType(parseEnum(QuestionType.class, typeStr, QuestionType.MULTIPLE_CHOICE, "question type"));
+        DifficultyLevel difficulty = parseEnum(DifficultyLevel.class, difficultyStr, DifficultyLevel.EASY, "difficulty level");
+        question.setDifficultyLevel(difficulty);
+        
+        // Use provided marks or default based on difficulty
+        if (marksStr != null && !marksStr.isEmpty()) {
+            int parsedMarks;
+            try {
+                parsedMarks = Integer.parseInt(marksStr);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid marks '" + marksStr + "'");
+            }
+            if (parsedMarks <= 0) {
+                throw new IllegalArgumentException("Marks must be positive");
+            }
+            question.setMarks(parsedMarks);
+        } else {
+            question.setMarks(difficulty.getDefaultMarks());
+        }
+        
+        String optionsStr = value(record, options);
+        String correctAnswerStr = value(record, correctAnswer);
+        String explanationStr = value(record, explanation);
+        // A JSON array, or options joined with commas inside one quoted cell
+        question.setOptions(OptionListConverter.parse(optionsStr));
+        question.setCorrectAnswer(correctAnswerStr != null ? correctAnswerStr : "");
+        question.setExplanation(explanationStr != null ? explanationStr : "");
+        
+        LocalDateTime now = LocalDateTime.now();
+        question.setExamId(examId);
+        question.setCreatedBy(createdBy);
+        question.setCreatedAt(now);
+        question.setUpdatedAt(now);
+        return question;
+    }
+    
+    private static String value(CSVRecord record, int index) {
+        if (index < 0 || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index);
+        return value != null ? value.trim() : null;
+    }
+    
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, E defaultValue, String label) {
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown " + label + " '" + value + "'");
+        }
+    }
+    
+    private static int resolve(Map<String, Integer> headerMap, String primaryHeader, String fallbackHeader) {
+        for (Map.Entry<String, Integer> header : headerMap.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(primaryHeader) || header.getKey().equalsIgnoreCase(fallbackHeader)) {
+                return header.getValue();
+            }
+        }
+        // Headers that don't match exactly, e.g. "questionText (required)"
+        String fallback = fallbackHeader.toLowerCase(Locale.ROOT).replace(" ", "");
+        for (Map.Entry<String, Integer> header : headerMap.entrySet()) {
+            String name = header.getKey().toLowerCase(Locale.ROOT);
+            if (name.contains(primaryHeader.toLowerCase(Locale.ROOT)) || name.contains(fallback)) {
+                return header.getValue();
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,242 @@
+package com.examportal.questionservice.service;
+
+import com.examportal.questionservice.entity.Question;
+import com.examportal.questionservice.repository.QuestionFingerprintRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Flags imported questions that are near-duplicates of stored ones, or of
+ * earlier questions in the same batch. Each question gets a MinHash signature;
+ * candidates come from the LSH bucket index and are confirmed by comparing
+ * signatures, so a batch is never compared against the whole bank.
+ *
+ * In LINK mode duplicates are saved with duplicateOfId pointing at the
+ * original; in SKIP mode they are left out of the import.
+ */
+@Service
+public class QuestionDeduplicator {
+    
+    @Autowired
+    private QuestionFingerprintRepository fingerprintRepository;
+    
+    @Value("${question.dedup.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${question.dedup.threshold:0.8}")
+    private double threshold;
+    
+    @Value("${question.dedup.mode:LINK}")
+    private String mode;
+    
+    @Value("${question.dedup.backfill-batch-size:1000}")
+    private int backfillBatchSize;
+    
+    // Questions stored before fingerprinting existed are fingerprinted in the background
+    @EventListener(ApplicationReadyEvent.class)
+    public void startBackfill() {
+        if (!enabled) {
+            return;
+        }
+        Thread backfill = new Thread(() -> {
+            try {
+                int count = fingerprintMissing(null);
+                if (count > 0) {
+                    System.out.println("Fingerprinted " + count + " existing questions for duplicate detection");
+                }
+            } catch (Exception e) {
+                System.err.println("Question fingerprint backfill failed: " + e.getMessage());
+            }
+        }, "question-fingerprint-backfill");
+        backfill.setDaemon(true);
+        backfill.start();
+    }
+    
+    public DuplicateReport check(List<Question> questions) {
+        DuplicateReport report = new DuplicateReport(mode, threshold, questions.size());
+        if (!enabled || questions.isEmpty()) {
+            return report;
+        }
+        
+        long[][] buckets = new long[questions.size()][];
+        Set<Long> allBuckets = new HashSet<>();
+        for (int i = 0; i < questions.size(); i++) {
+            Question question = questions.get(i);
+            int[] signature = QuestionMinHash.signature(question.getQuestionText(), question.getOptions());
+            if (signature == null) {
+                continue;
+            }
+            report.signatures.put(question, signature);
+            buckets[i] = QuestionMinHash.buckets(signature);
+            for (long bucket : buckets[i]) {
+                allBuckets.add(bucket);
+            }
+        }
+        
+        Map<Long, List<Long>> storedByBucket = fingerprintRepository.findByBuckets(allBuckets);
+        Set<Long> candidateIds = new HashSet<>();
+        storedByBucket.values().forEach(candidateIds::addAll);
+        Map<Long, int[]> stored = new HashMap<>();
+        fingerprintRepository.findSignatures(candidateIds)
+                .forEach((id, bytes) -> stored.put(id, QuestionMinHash.decode(bytes)));
+        
+        // Originals seen so far in this batch, by bucket
+        Map<Long, List<Integer>> batchByBucket = new HashMap<>();
+        for (int i = 0; i < questions.size(); i++) {
+            if (buckets[i] == null) {
+                continue;
+            }
+            Question question = questions.get(i);
+            int[] signature = report.signatures.get(question);
+            
+            Long bestId = null;
+            double bestSimilarity = 0;
+            Set<Long> compared = new HashSet<>();
+            for (long bucket : buckets[i]) {
+                for (Long candidateId : storedByBucket.getOrDefault(bucket, List.of())) {
+                    int[] candidate = stored.get(candidateId);
+                    if (candidate == null || !compared.add(candidateId)) {
+                        continue;
+                    }
+                    double similarity = QuestionMinHash.similarity(signature, candidate);
+                    if (similarity > bestSimilarity || (similarity == bestSimilarity && bestId != null && candidateId < bestId)) {
+                        bestSimilarity = similarity;
+                        bestId = candidateId;
+                    }
+                }
+            }
+            if (bestId != null && bestSimilarity >= threshold) {
+                DuplicateReport.Match match = new DuplicateReport.Match(i, question.getQuestionText(), bestSimilarity);
+                match.setDuplicateOfId(bestId);
+                report.add(question, match);
+                if (!"SKIP".equals(mode)) {
+                    question.setDuplicateOfId(bestId);
+                }
+                continue;
+            }
+            
+            Integer bestIndex = null;
+            bestSimilarity = 0;
+            Set<Integer> comparedInBatch = new HashSet<>();
+            for (long bucket : buckets[i]) {
+                for (Integer j : batchByBucket.getOrDefault(bucket, List.of())) {
+                    if (!comparedInBatch.add(j)) {
+                        continue;
+                    }
+                    double similarity = QuestionMinHash.similarity(signature, report.signatures.get(questions.get(j)));
+                    if (similarity > bestSimilarity) {
+                        bestSimilarity = similarity;
+                        bestIndex = j;
+                    }
+                }
+            }
+            if (bestIndex != null && bestSimilarity >= threshold) {
+                DuplicateReport.Match match = new DuplicateReport.Match(i, question.getQuestionText(), bestSimilarity);
+                match.setDuplicateOfIndex(bestIndex);
+                report.add(question, match);
+                report.duplicateOfInBatch.put(question, questions.get(bestIndex));
+                continue;
+            }
+            
+            for (long bucket : buckets[i]) {
+                batchByBucket.computeIfAbsent(bucket, b -> new ArrayList<>()).add(i);
+            }
+        }
+        return report;
+    }
+    
+    /**
+     * Stores fingerprints for the saved questions of a checked batch and links
+     * in-batch duplicates to their originals now that both have ids.
+     */
+    public void record(DuplicateReport report, List<Question> saved) {
+        if (!enabled) {
+            return;
+        }
+        Map<Long, Long> links = new HashMap<>();
+        for (Question question : saved) {
+            Question original = report.duplicateOfInBatch.get(question);
+            if (original != null && original.getId() != null) {
+                question.setDuplicateOfId(original.getId());
+                links.put(question.getId(), original.getId());
+            }
+            DuplicateReport.Match match = report.matchByQuestion.get(question);
+            if (match != null) {
+                match.setQuestionId(question.getId());
+                if (original != null) {
+                    match.setDuplicateOfId(original.getId());
+                }
+            }
+        }
+        save(saved, report.signatures);
+        fingerprintRepository.linkDuplicates(links);
+    }
+    
+    /**
+     * Recomputes fingerprints, e.g. after a question's text or options changed.
+     */
+    public void fingerprint(Collection<Question> questions) {
+        if (enabled) {
+            save(questions, Map.of());
+        }
+    }
+    
+    public void forget(Collection<Long> questionIds) {
+        if (enabled && !questionIds.isEmpty()) {
+            fingerprintRepository.deleteByQuestionIds(questionIds);
+        }
+    }
+    
+    /**
+     * Fingerprints stored questions that have none, for one exam or all of them.
+     * Returns how many were fingerprinted.
+     */
+    public int fingerprintMissing(Long examId) {
+        if (!enabled) {
+            return 0;
+        }
+        int count = 0;
+        long afterId = 0;
+        List<Question> page;
+        do {
+            page = fingerprintRepository.findUnfingerprinted(examId, afterId, backfillBatchSize);
+            if (!page.isEmpty()) {
+                count += save(page, Map.of());
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == backfillBatchSize);
+        return count;
+    }
+    
+    private int save(Collection<Question> questions, Map<Question, int[]> computed) {
+        Map<Long, byte[]> signatures = new HashMap<>();
+        Map<Long, long[]> buckets = new HashMap<>();
+        for (Question question : questions) {
+            if (question.getId() == null) {
+                continue;
+            }
+            int[] signature = computed.get(question);
+            if (signature == null) {
+                signature = QuestionMinHash.signature(question.getQuestionText(), question.getOptions());
+            }
+            if (signature == null) {
+                continue;
+            }
+            signatures.put(question.getId(), QuestionMinHash.encode(signature));
+            buckets.put(question.getId(), QuestionMinHash.buckets(signature));
+        }
+        fingerprintRepository.saveAll(signatures, buckets);
+        return signatures.size();
+    }
+}
@@ -0,0 +1,27 @@
+package com.examportal.questionservice.service;
+
+import com.examportal.questionservice.entity.Question;
+
+import java.util.List;
+
+/**
+ * Questions saved by a synchronous import, with the duplicate report for the batch.
+ */
+public class QuestionImportResult {
+
+    private final List<Question> questions;
+    private final DuplicateReport duplicates;
+
+    public QuestionImportResult(List<Question> questions, DuplicateReport duplicates) {
+        this.questions = questions;
+        this.duplicates = duplicates;
+    }
+
+    public List<Question> getQuestions() {
+        return questions;
+    }
+
+    public DuplicateReport getDuplicates() {
+        return duplicates;
+    }
+}
@@ -0,0 +1,78 @@
+package com.examportal.questionservice.service;
+
+import com.examportal.questionservice.entity.QuestionImportJob;
+import com.examportal.questionservice.repository.QuestionImportJobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Starts streaming CSV imports and reports their progress. The upload is
+ * spooled to local disk and handed to {@link QuestionImportWorker}; jobs left
+ * unfinished by a restart are resumed from their last committed row.
+ */
+@Service
+public class QuestionImportService {
+    
+    @Autowired
+    private QuestionImportJobRepository jobRepository;
+    
+    @Autowired
+    private QuestionImportWorker worker;
+    
+    @Autowired
+    private QuestionImportSpool spool;
+    
+    public QuestionImportJob startImport(InputStream input, String fileName, Long examId, Long createdBy) throws IOException {
+        if (examId == null) {
+            throw new RuntimeException("examId is required");
+        }
+        QuestionImportJob job = jobRepository.saveAndFlush(new QuestionImportJob(examId, createdBy, fileName));
+        try {
+            job.setFileBytes(spool.write(job.getId(), input));
+        } catch (IOException | RuntimeException e) {
+            job.setStatus("FAILED");
+            job.setErrorMessage("Upload failed: " + e.getMessage());
+            job.setUpdatedAt(LocalDateTime.now());
+            jobRepository.save(job);
+            throw e;
+        }
+        job = jobRepository.save(job);
+        System.out.println("Queued CSV import " + job.getId() + " for exam " + examId + " (" + job.getFileBytes() + " bytes)");
+        worker.run(job.getId());
+        return job;
+    }
+    
+    public QuestionImportJob getJob(Long jobId) {
+        return jobRepository.findById(jobId)
+                .orElseThrow(() -> new RuntimeException("Import job not found with id: " + jobId));
+    }
+    
+    public List<QuestionImportJob> getJobsByExamId(Long examId) {
+        return jobRepository.findByExamIdOrderByCreatedAtDesc(examId);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedJobs() {
+        List<QuestionImportJob> unfinished = jobRepository.findByStatusIn(List.of("QUEUED", "RUNNING"));
+        for (QuestionImportJob job : unfinished) {
+            if (!spool.exists(job.getId())) {
+                // Spooled on another node, or the file was lost
+                job.setStatus("FAILED");
+                job.setErrorMessage("Upload file is no longer available; re-upload to import the remaining rows");
+                job.setUpdatedAt(LocalDateTime.now());
+                jobRepository.save(job);
+                continue;
+            }
+            System.out.println("Resuming CSV import " + job.getId() + " for exam " + job.getExamId()
+                    + " after row " + job.getRowsRead());
+            worker.run(job.getId());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.examportal.questionservice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Local copies of uploaded CSV files. The upload is streamed to disk so the
+ * request can return while the import runs, and so an interrupted import can
+ * be resumed after a restart.
+ */
+@Component
+public class QuestionImportSpool {
+    
+    @Value("${question.import.spool-dir:./data/import-spool}")
+    private String spoolDir;
+    
+    @Value("${question.import.max-bytes:536870912}")
+    private long maxBytes;
+    
+    public long write(Long jobId, InputStream input) throws IOException {
+        Path target = path(jobId);
+        Files.createDirectories(target.getParent());
+        Path partial = target.resolveSibling(target.getFileName() + ".part");
+        long written = 0;
+        try (OutputStream output = Files.newOutputStream(partial)) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                written += read;
+                if (written > maxBytes) {
+                    throw new RuntimeException("CSV file exceeds the " + maxBytes + " byte import limit");
+                }
+                output.write(buffer, 0, read);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return written;
+    }
+    
+    public Path path(Long jobId) {
+        return Paths.get(spoolDir).resolve("import-" + jobId + ".csv");
+    }
+    
+    public boolean exists(Long jobId) {
+        return Files.exists(path(jobId));
+    }
+    
+    public void delete(Long jobId) {
+        try {
+            Files.deleteIfExists(path(jobId));
+        } catch (IOException e) {
+            System.err.println("Failed to delete import spool file for job " + jobId + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.examportal.questionservice.service;
+
+import com.examportal.questionservice.entity.Question;
+import com.examportal.questionservice.entity.QuestionImportJob;
+import com.examportal.questionservice.repository.QuestionBatchRepository;
+import com.examportal.questionservice.repository.QuestionImportJobRepository;
+import com.examportal.questionservice.repository.QuestionRepository;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs a CSV import off the request thread. Records are streamed from the
+ * spooled file, mapped one at a time and inserted in fixed-size JDBC batches,
+ * so memory use does not grow with the file. Each batch commits together with
+ * the job's row cursor. Exam total marks are recomputed once, at the end.
+ */
+@Service
+public class QuestionImportWorker {
+    
+    @Autowired
+    private QuestionImportJobRepository jobRepository;
+    
+    @Autowired
+    private QuestionBatchRepository batchRepository;
+    
+    @Autowired
+    private QuestionRepository questionRepository;
+    
+    @Autowired
+    private QuestionImportSpool spool;
+    
+    @Autowired
+    private ExamPaperCache examPaperCache;
+    
+    @Autowired
+    private QuestionSearchIndex questionSearchIndex;
+    
+    @Autowired
+    private QuestionDeduplicator questionDeduplicator;
+    
+    @Autowired
+    private ExamMarksAggregator examMarksAggregator;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${question.import.batch-size:1000}")
+    private int batchSize;
+    
+    @Value("${question.import.max-row-errors:100}")
+    private int maxRowErrors;
+    
+    @Async("questionImportExecutor")
+    public void run(Long jobId) {
+        QuestionImportJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Long examId = job.getExamId();
+        try {
+            job.setStatus("RUNNING");
+            job.setErrorMessage(null);
+            if (job.getStartedAt() == null) {
+                job.setStartedAt(LocalDateTime.now());
+            }
+            job = jobRepository.save(job);
+            
+            long alreadyRead = job.getRowsRead();
+            try (Reader reader = Files.newBufferedReader(spool.path(jobId), StandardCharsets.UTF_8);
+                 CSVParser csvParser = new CSVParser(reader, QuestionCsvMapper.FORMAT)) {
+                
+                QuestionCsvMapper mapper = QuestionCsvMapper.forHeaders(csvParser.getHeaderMap());
+                List<Question> batch = new ArrayList<>(batchSize);
+                List<String> errors = new ArrayList<>();
+                long rowNumber = 0;
+                int rowsInBatch = 0;
+                
+                for (CSVRecord csvRecord : csvParser) {
+                    rowNumber++;
+                    if (rowNumber <= alreadyRead) {
+                        // Committed before the job was interrupted
+                        continue;
+                    }
+                    rowsInBatch++;
+                    try {
+                        batch.add(mapper.map(csvRecord, examId, job.getCreatedBy()));
+                    } catch (RuntimeException e) {
+                        errors.add("Row " + rowNumber + ": " + e.getMessage());
+                    }
+                    
+                    if (rowsInBatch == batchSize) {
+                        job = commitBatch(transactionTemplate, job, batch, rowsInBatch, errors);
+                        batch.clear();
+                        errors.clear();
+                        rowsInBatch = 0;
+                    }
+                }
+                if (rowsInBatch > 0) {
+                    job = commitBatch(transactionTemplate, job, batch, rowsInBatch, errors);
+                }
+            }
+            
+            examPaperCache.invalidate(examId);
+            refreshSearchIndex(examId);
+            Integer totalMarks = questionRepository.getTotalMarksByExamId(examId);
+            job.setTotalMarks(totalMarks != null ? totalMarks : 0);
+            examMarksAggregator.recompute(examId);
+            
+            job.setStatus("COMPLETED");
+            job.setCompletedAt(LocalDateTime.now());
+            job.setUpdatedAt(job.getCompletedAt());
+            jobRepository.save(job);
+            spool.delete(jobId);
+            System.out.println("CSV import " + jobId + " completed for exam " + examId + ": "
+                    + job.getQuestionsImported() + " imported, " + job.getRowsRejected() + " rejected, "
+                    + String.format("%.0f", job.getRowsPerSecond()) + " rows/s");
+        } catch (Exception e) {
+            System.err.println("CSV import " + jobId + " failed for exam " + examId + ": " + e.getMessage());
+            // Questions from committed batches stay; invalidate so the paper reflects them
+            examPaperCache.invalidate(examId);
+            refreshSearchIndex(examId);
+            QuestionImportJob failed = jobRepository.findById(jobId).orElse(job);
+            failed.setStatus("FAILED");
+            failed.setErrorMessage(e.getMessage() != null && e.getMessage().length() > 1000
+                    ? e.getMessage().substring(0, 1000) : e.getMessage());
+            failed.setUpdatedAt(LocalDateTime.now());
+            jobRepository.save(failed);
+            spool.delete(jobId);
+        }
+    }
+    
+    private QuestionImportJob commitBatch(TransactionTemplate transactionTemplate, QuestionImportJob job,
+                                          List<Question> batch, int rows, List<String> errors) {
+        DuplicateReport duplicates = questionDeduplicator.check(batch);
+        List<Question> accepted = duplicates.accepted(batch);
+        QuestionImportJob saved = transactionTemplate.execute(status -> {
+            batchRepository.insertAll(accepted);
+            questionDeduplicator.record(duplicates, accepted);
+            job.recordBatch(rows, accepted.size(), duplicates.getDuplicates(), errors, maxRowErrors);
+            return jobRepository.save(job);
+        });
+        System.out.println("CSV import " + saved.getId() + ": batch " + saved.getBatches() + ", "
+                + saved.getRowsRead() + " rows read, " + saved.getQuestionsImported() + " imported, "
+                + saved.getRowsRejected() + " rejected, " + saved.getDuplicatesFound() + " duplicates");
+        return saved;
+    }
+    
+    private void refreshSearchIndex(Long examId) {
+        try {
+            questionSearchIndex.refreshExam(examId);
+        } catch (Exception e) {
+            // The scheduled reconcile picks these rows up later
+            System.err.println("Failed to index imported questions for exam " + examId + ": " + e.getMessage());
+        }
+    }
+}
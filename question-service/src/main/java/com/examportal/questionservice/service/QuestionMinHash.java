@@ -0,0 +1,162 @@
+package com.examportal.questionservice.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * MinHash signatures over a question's text and options. The shingle set is the
+ * word bigrams of the normalized question text plus each normalized option, so
+ * reordered options and changes in case, spacing or punctuation do not affect
+ * the signature.
+ *
+ * Signatures are split into BANDS bands of ROWS values. Two questions with
+ * Jaccard similarity s share at least one band bucket with probability
+ * 1 - (1 - s^ROWS)^BANDS: about 0.95 at s = 0.8 and under 0.002 at s = 0.3,
+ * so a lookup only has to compare against the few questions sharing a bucket.
+ */
+public final class QuestionMinHash {
+    
+    public static final int BANDS = 16;
+    public static final int ROWS = 8;
+    public static final int SIZE = BANDS * ROWS;
+    
+    private static final long[] SEEDS = new long[SIZE];
+    
+    static {
+        long seed = 0x5DEECE66DL;
+        for (int i = 0; i < SIZE; i++) {
+            seed = mix(seed + 0x9E3779B97F4A7C15L);
+            SEEDS[i] = seed;
+        }
+    }
+    
+    private QuestionMinHash() {
+    }
+    
+    /**
+     * Returns the signature, or null when the question has no text to compare.
+     */
+    public static int[] signature(String questionText, List<String> options) {
+        long[] shingles = shingles(questionText, options);
+        if (shingles.length == 0) {
+            return null;
+        }
+        int[] signature = new int[SIZE];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (long shingle : shingles) {
+            for (int i = 0; i < SIZE; i++) {
+                int hash = (int) (mix(shingle ^ SEEDS[i]) >>> 33);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+    
+    public static long[] buckets(int[] signature) {
+        long[] buckets = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            long hash = band + 1;
+            for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+                hash = mix(hash * 31 + signature[row]);
+            }
+            buckets[band] = hash;
+        }
+        return buckets;
+    }
+    
+    // Estimated Jaccard similarity: the fraction of positions where the minimums agree
+    public static double similarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < SIZE; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / SIZE;
+    }
+    
+    public static byte[] encode(int[] signature) {
+        byte[] bytes = new byte[SIZE * 4];
+        for (int i = 0; i < SIZE; i++) {
+            int value = signature[i];
+            bytes[i * 4] = (byte) (value >>> 24);
+            bytes[i * 4 + 1] = (byte) (value >>> 16);
+            bytes[i * 4 + 2] = (byte) (value >>> 8);
+            bytes[i * 4 + 3] = (byte) value;
+        }
+        return bytes;
+    }
+    
+    public static int[] decode(byte[] bytes) {
+        int[] signature = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            signature[i] = (bytes[i * 4] & 0xFF) << 24 | (bytes[i * 4 + 1] & 0xFF) << 16
+                    | (bytes[i * 4 + 2] & 0xFF) << 8 | (bytes[i * 4 + 3] & 0xFF);
+        }
+        return signature;
+    }
+    
+    private static long[] shingles(String questionText, List<String> options) {
+        List<String> words = words(questionText);
+        int optionCount = options != null ? options.size() : 0;
+        long[] shingles = new long[Math.max(words.size() - 1, Math.min(words.size(), 1)) + optionCount];
+        int count = 0;
+        if (words.size() == 1) {
+            shingles[count++] = hash(words.get(0), 0L);
+        }
+        for (int i = 1; i < words.size(); i++) {
+            shingles[count++] = hash(words.get(i), hash(words.get(i - 1), 0L));
+        }
+        for (int i = 0; i < optionCount; i++) {
+            List<String> optionWords = words(options.get(i));
+            if (optionWords.isEmpty()) {
+                continue;
+            }
+            // Distinct prefix keeps an option from colliding with the same words in the text
+            long hash = 0x0F0F0F0FL;
+            for (String word : optionWords) {
+                hash = hash(word, hash);
+            }
+            shingles[count++] = hash;
+        }
+        return count == shingles.length ? shingles : Arrays.copyOf(shingles, count);
+    }
+    
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                word.append(Character.toLowerCase(c));
+            } else if (word.length() > 0) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        return words;
+    }
+    
+    // FNV-1a over the characters, continuing from a previous hash
+    private static long hash(String word, long previous) {
+        long hash = previous ^ 0xCBF29CE484222325L;
+        for (int i = 0; i < word.length(); i++) {
+            hash ^= word.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+    
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,590 @@
+package com.examportal.questionservice.service;
+
+import com.examportal.questionservice.entity.DifficultyLevel;
+import com.examportal.questionservice.entity.Question;
+import com.examportal.questionservice.entity.QuestionType;
+import com.examportal.questionservice.repository.QuestionSearchRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * In-memory inverted index over question text and explanation, ranked with
+ * BM25. Documents get a dense ordinal and each term keeps parallel arrays of
+ * ordinals and weights, so a query only walks the posting lists of its own
+ * terms. Updates append a new ordinal and tombstone the old one; the index is
+ * compacted once tombstones pile up.
+ *
+ * The index is written to a local segment file, so a restart only reindexes
+ * rows whose updated_at changed since the snapshot. The same reconcile runs
+ * on a schedule to pick up writes made by other instances.
+ */
+@Component
+public class QuestionSearchIndex {
+    
+    private static final int FILE_MAGIC = 0x51534958; // "QSIX"
+    private static final int FILE_VERSION = 1;
+    
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final float EXPLANATION_WEIGHT = 0.5f;
+    private static final int LOAD_CHUNK = 500;
+    
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "does", "do", "for", "from", "in", "is", "it",
+            "of", "on", "or", "that", "the", "this", "to", "was", "what", "which", "with");
+    
+    @Autowired
+    private QuestionSearchRepository questionSearchRepository;
+    
+    @Value("${question.search.index-file:./data/search/questions.idx}")
+    private String indexFile;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Doc> docs = new ArrayList<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final ThreadLocal<float[]> scratch = ThreadLocal.withInitial(() -> new float[0]);
+    
+    private int liveDocs;
+    private double totalLength;
+    private volatile boolean dirty;
+    private volatile boolean ready;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long started = System.currentTimeMillis();
+        int loaded = load();
+        int changed = reconcile();
+        ready = true;
+        System.out.println("Question search index ready: " + loaded + " documents from snapshot, "
+                + changed + " reindexed in " + (System.currentTimeMillis() - started) + "ms");
+        persistIfDirty();
+    }
+    
+    public void index(Question question) {
+        if (question == null || question.getId() == null) {
+            return;
+        }
+        Doc doc = analyze(question);
+        lock.writeLock().lock();
+        try {
+            put(doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void indexAll(Collection<Question> questions) {
+        List<Doc> analyzed = new ArrayList<>(questions.size());
+        for (Question question : questions) {
+            if (question.getId() != null) {
+                analyzed.add(analyze(question));
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            for (Doc doc : analyzed) {
+                put(doc);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(Long questionId) {
+        lock.writeLock().lock();
+        try {
+            tombstone(questionId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Brings one exam's documents in line with the database, e.g. after a bulk
+     * import that inserted rows without returning their ids.
+     */
+    public int refreshExam(Long examId) {
+        return reconcile(questionSearchRepository.findIndexStampsByExamId(examId), examId);
+    }
+    
+    public SearchPage search(String query, Long examId, QuestionType type, DifficultyLevel difficulty, int page, int size) {
+        List<String> terms = new ArrayList<>(new LinkedHashMap<>(termFrequencies(query)).keySet());
+        if (terms.isEmpty()) {
+            return new SearchPage(0, List.of());
+        }
+        int wanted = (page + 1) * size;
+        
+        lock.readLock().lock();
+        try {
+            float[] scores = scratch.get();
+            if (scores.length < docs.size()) {
+                scores = new float[Math.max(docs.size(), scores.length * 2)];
+                scratch.set(scores);
+            }
+            int[] touched = new int[64];
+            int touchedCount = 0;
+            float avgLength = liveDocs > 0 ? (float) (totalLength / liveDocs) : 1f;
+            
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                float idf = (float) Math.log(1 + (liveDocs - list.live + 0.5) / (list.live + 0.5));
+                for (int i = 0; i < list.size; i++) {
+                    int ordinal = list.ordinals[i];
+                    Doc doc = docs.get(ordinal);
+                    if (!doc.live || !doc.matches(examId, type, difficulty)) {
+                        continue;
+                    }
+                    float tf = list.weights[i];
+                    float score = idf * (tf * (K1 + 1)) / (tf + K1 * (1 - B + B * doc.length / avgLength));
+                    if (scores[ordinal] == 0f) {
+                        if (touchedCount == touched.length) {
+                            touched = Arrays.copyOf(touched, touchedCount * 2);
+                        }
+                        touched[touchedCount++] = ordinal;
+                    }
+                    scores[ordinal] += score;
+                }
+            }
+            
+            // Keep only the best page*size hits: a min-heap on score
+            PriorityQueue<SearchHit> top = new PriorityQueue<>(Math.max(1, Math.min(wanted, touchedCount) + 1),
+                    (a, b) -> a.score != b.score ? Float.compare(a.score, b.score) : Long.compare(b.questionId, a.questionId));
+            for (int i = 0; i < touchedCount; i++) {
+                int ordinal = touched[i];
+                SearchHit hit = new SearchHit(docs.get(ordinal).id, scores[ordinal]);
+                scores[ordinal] = 0f;
+                if (top.size() < wanted) {
+                    top.add(hit);
+                } else if (top.comparator().compare(hit, top.peek()) > 0) {
+                    top.poll();
+                    top.add(hit);
+                }
+            }
+            
+            List<SearchHit> ranked = new ArrayList<>(top);
+            ranked.sort(top.comparator().reversed());
+            int from = Math.min(page * size, ranked.size());
+            return new SearchPage(touchedCount, ranked.subList(from, ranked.size()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("ready", ready);
+            stats.put("documents", liveDocs);
+            stats.put("tombstones", docs.size() - liveDocs);
+            stats.put("terms", postings.size());
+            stats.put("indexFile", indexFile);
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${question.search.reconcile-ms:300000}", initialDelayString = "${question.search.reconcile-ms:300000}")
+    public void scheduledReconcile() {
+        if (!ready) {
+            return;
+        }
+        try {
+            int changed = reconcile();
+            if (changed > 0) {
+                System.out.println("Question search index reconciled " + changed + " documents");
+            }
+        } catch (Exception e) {
+            System.err.println("Question search index reconcile failed: " + e.getMessage());
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${question.search.flush-ms:30000}")
+    public void persistIfDirty() {
+        if (!ready || !dirty) {
+            return;
+        }
+        List<Doc> snapshot;
+        lock.readLock().lock();
+        try {
+            dirty = false;
+            snapshot = new ArrayList<>(liveDocs);
+            for (Doc doc : docs) {
+                if (doc.live) {
+                    snapshot.add(doc);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        try {
+            write(snapshot);
+        } catch (IOException e) {
+            dirty = true;
+            System.err.println("Failed to write question search index: " + e.getMessage());
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        persistIfDirty();
+    }
+    
+    private int reconcile() {
+        return reconcile(questionSearchRepository.findIndexStamps(), null);
+    }
+    
+    /**
+     * Reindexes rows that are new or changed since they were indexed and drops
+     * documents whose rows are gone. With examId set, only that exam's
+     * documents are considered for removal.
+     */
+    private int reconcile(Map<Long, Timestamp> stamps, Long examId) {
+        List<Long> stale = new ArrayList<>();
+        List<Long> removed = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<Long, Timestamp> stamp : stamps.entrySet()) {
+                Integer ordinal = ordinals.get(stamp.getKey());
+                Timestamp updatedAt = stamp.getValue();
+                long version = version(updatedAt != null ? updatedAt.toLocalDateTime() : null);
+                if (ordinal == null || docs.get(ordinal).version != version) {
+                    stale.add(stamp.getKey());
+                }
+            }
+            for (Map.Entry<Long, Integer> entry : ordinals.entrySet()) {
+                Doc doc = docs.get(entry.getValue());
+                if ((examId == null || examId.equals(doc.examId)) && !stamps.containsKey(entry.getKey())) {
+                    removed.add(entry.getKey());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        
+        for (int from = 0; from < stale.size(); from += LOAD_CHUNK) {
+            List<Long> chunk = stale.subList(from, Math.min(from + LOAD_CHUNK, stale.size()));
+            indexAll(questionSearchRepository.findForIndex(chunk));
+        }
+        if (!removed.isEmpty()) {
+            lock.writeLock().lock();
+            try {
+                for (Long questionId : removed) {
+                    tombstone(questionId);
+                }
+                compactIfNeeded();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return stale.size() + removed.size();
+    }
+    
+    private Doc analyze(Question question) {
+        Map<String, Float> weights = new HashMap<>();
+        for (Map.Entry<String, Float> term : termFrequencies(question.getQuestionText()).entrySet()) {
+            weights.merge(term.getKey(), term.getValue(), Float::sum);
+        }
+        for (Map.Entry<String, Float> term : termFrequencies(question.getExplanation()).entrySet()) {
+            weights.merge(term.getKey(), term.getValue() * EXPLANATION_WEIGHT, Float::sum);
+        }
+        String[] terms = new String[weights.size()];
+        float[] termWeights = new float[weights.size()];
+        int i = 0;
+        for (Map.Entry<String, Float> term : weights.entrySet()) {
+            terms[i] = term.getKey();
+            termWeights[i] = term.getValue();
+            i++;
+        }
+        return new Doc(question.getId(), question.getExamId(), question.getQuestionType(),
+                question.getDifficultyLevel(), version(question.getUpdatedAt()), terms, termWeights);
+    }
+    
+    // Lower-cased runs of letters and digits, minus stop words
+    static Map<String, Float> termFrequencies(String text) {
+        Map<String, Float> frequencies = new HashMap<>();
+        if (text == null) {
+            return frequencies;
+        }
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else if (token.length() > 0) {
+                String term = token.toString();
+                if (!STOP_WORDS.contains(term)) {
+                    frequencies.merge(term, 1f, Float::sum);
+                }
+                token.setLength(0);
+            }
+        }
+        return frequencies;
+    }
+    
+    private static long version(LocalDateTime updatedAt) {
+        if (updatedAt == null) {
+            return 0L;
+        }
+        return updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + updatedAt.getNano() / 1_000;
+    }
+    
+    // Caller holds the write lock
+    private void put(Doc doc) {
+        tombstone(doc.id);
+        int ordinal = docs.size();
+        docs.add(doc);
+        ordinals.put(doc.id, ordinal);
+        for (int i = 0; i < doc.terms.length; i++) {
+            postings.computeIfAbsent(doc.terms[i], term -> new Postings()).add(ordinal, doc.weights[i]);
+        }
+        liveDocs++;
+        totalLength += doc.length;
+        dirty = true;
+        compactIfNeeded();
+    }
+    
+    // Caller holds the write lock
+    private void tombstone(Long questionId) {
+        Integer ordinal = ordinals.remove(questionId);
+        if (ordinal == null) {
+            return;
+        }
+        Doc doc = docs.get(ordinal);
+        doc.live = false;
+        for (String term : doc.terms) {
+            Postings list = postings.get(term);
+            if (list != null) {
+                list.live--;
+            }
+        }
+        liveDocs--;
+        totalLength -= doc.length;
+        dirty = true;
+    }
+    
+    // Caller holds the write lock
+    private void compactIfNeeded() {
+        int dead = docs.size() - liveDocs;
+        if (dead < 1000 || dead < liveDocs / 4) {
+            return;
+        }
+        List<Doc> live = new ArrayList<>(liveDocs);
+        for (Doc doc : docs) {
+            if (doc.live) {
+                live.add(doc);
+            }
+        }
+        docs.clear();
+        ordinals.clear();
+        postings.clear();
+        liveDocs = 0;
+        totalLength = 0;
+        for (Doc doc : live) {
+            put(doc);
+        }
+    }
+    
+    private int load() {
+        Path path = Paths.get(indexFile);
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        List<Doc> loaded = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(path))))) {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION) {
+                System.err.println("Ignoring question search index with unknown format: " + path);
+                return 0;
+            }
+            int count = in.readInt();
+            QuestionType[] types = QuestionType.values();
+            DifficultyLevel[] difficulties = DifficultyLevel.values();
+            for (int d = 0; d < count; d++) {
+                long id = in.readLong();
+                long examId = in.readLong();
+                int type = in.readByte();
+                int difficulty = in.readByte();
+                long version = in.readLong();
+                int termCount = in.readInt();
+                String[] terms = new String[termCount];
+                float[] weights = new float[termCount];
+                for (int t = 0; t < termCount; t++) {
+                    terms[t] = in.readUTF().intern();
+                    weights[t] = in.readFloat();
+                }
+                loaded.add(new Doc(id, examId >= 0 ? examId : null,
+                        type >= 0 && type < types.length ? types[type] : null,
+                        difficulty >= 0 && difficulty < difficulties.length ? difficulties[difficulty] : null,
+                        version, terms, weights));
+            }
+        } catch (IOException e) {
+            // A damaged snapshot only costs a full reindex
+            System.err.println("Failed to read question search index, rebuilding: " + e.getMessage());
+            return 0;
+        }
+        
+        lock.writeLock().lock();
+        try {
+            for (Doc doc : loaded) {
+                put(doc);
+            }
+            dirty = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return loaded.size();
+    }
+    
+    private void write(List<Doc> snapshot) throws IOException {
+        Path path = Paths.get(indexFile);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temp))))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(FILE_VERSION);
+            out.writeInt(snapshot.size());
+            for (Doc doc : snapshot) {
+                out.writeLong(doc.id);
+                out.writeLong(doc.examId != null ? doc.examId : -1L);
+                out.writeByte(doc.type != null ? doc.type.ordinal() : -1);
+                out.writeByte(doc.difficulty != null ? doc.difficulty.ordinal() : -1);
+                out.writeLong(doc.version);
+                out.writeInt(doc.terms.length);
+                for (int t = 0; t < doc.terms.length; t++) {
+                    out.writeUTF(doc.terms[t]);
+                    out.writeFloat(doc.weights[t]);
+                }
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    private static final class Doc {
+        
+        private final long id;
+        private final Long examId;
+        private final QuestionType type;
+        private final DifficultyLevel difficulty;
+        private final long version;
+        private final String[] terms;
+        private final float[] weights;
+        private final float length;
+        private volatile boolean live = true;
+        
+        Doc(long id, Long examId, QuestionType type, DifficultyLevel difficulty, long version, String[] terms, float[] weights) {
+            this.id = id;
+            this.examId = examId;
+            this.type = type;
+            this.difficulty = difficulty;
+            this.version = version;
+            this.terms = terms;
+            this.weights = weights;
+            float sum = 0f;
+            for (float weight : weights) {
+                sum += weight;
+            }
+            this.length = sum;
+        }
+        
+        boolean matches(Long examId, QuestionType type, DifficultyLevel difficulty) {
+            return (examId == null || examId.equals(this.examId))
+                    && (type == null || type == this.type)
+                    && (difficulty == null || difficulty == this.difficulty);
+        }
+    }
+    
+    private static final class Postings {
+        
+        private int[] ordinals = new int[4];
+        private float[] weights = new float[4];
+        private int size;
+        private int live;
+        
+        void add(int ordinal, float weight) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            ordinals[size] = ordinal;
+            weights[size] = weight;
+            size++;
+            live++;
+        }
+    }
+    
+    public static final class SearchHit {
+        
+        private final long questionId;
+        private final float score;
+        
+        SearchHit(long questionId, float score) {
+            this.questionId = questionId;
+            this.score = score;
+        }
+        
+        public long getQuestionId() {
+            return questionId;
+        }
+        
+        public float getScore() {
+            return score;
+        }
+    }
+    
+    public static final class SearchPage {
+        
+        private final int total;
+        private final List<SearchHit> hits;
+        
+        SearchPage(int total, List<SearchHit> hits) {
+            this.total = total;
+            this.hits = hits;
+        }
+        
+        public int getTotal() {
+            return total;
+        }
+        
+        public List<SearchHit> getHits() {
+            return hits;
+        }
+    }
+}
@@ -3,9 +3,12 @@ package com.examportal.questionservice.service;
 import com.examportal.questionservice.entity.Question;
 import com.examportal.questionservice.entity.QuestionType;
 import com.examportal.questionservice.entity.DifficultyLevel;
+import com.examportal.questionservice.repository.QuestionExportRepository;
 import com.examportal.questionservice.repository.QuestionRepository;
-import com.examportal.questionservice.client.ExamClient;
+import com.examportal.web.CursorPage;
+import com.examportal.web.ExportWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,12 +16,17 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import org.apache.commons.csv.CSVFormat;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.springframework.web.multipart.MultipartFile;
@@ -30,7 +38,19 @@ public class QuestionService {
     private QuestionRepository questionRepository;
     
     @Autowired
-    private ExamClient examClient;
+    private ExamMarksAggregator examMarksAggregator;
+    
+    @Autowired
+    private ExamPaperCache examPaperCache;
+    
+    @Autowired
+    private QuestionSearchIndex questionSearchIndex;
+    
+    @Autowired
+    private QuestionDeduplicator questionDeduplicator;
+    
+    @Autowired
+    private QuestionExportRepository questionExportRepository;
     
     public List<Question> getAllQuestions() {
         return questionRepository.findAll();
@@ -50,23 +70,21 @@ public class QuestionService {
             question.setMarks(question.getDifficultyLevel().getDefaultMarks());
         }
         
-        // Ensure options are properly formatted as comma-separated string
-        if (question.getOptions() == null) {
-            question.setOptions("");
-        }
-        
         Question savedQuestion = questionRepository.save(question);
+        examPaperCache.invalidate(savedQuestion.getExamId());
+        questionSearchIndex.index(savedQuestion);
+        questionDeduplicator.fingerprint(List.of(savedQuestion));
         
-        // Update exam total marks
-        if (savedQuestion.getExamId() != null) {
-            updateExamTotalMarks(savedQuestion.getExamId());
-        }
+        // Exam total marks are pushed to exam-service once edits settle
+        examMarksAggregator.add(savedQuestion.getExamId(), marksOf(savedQuestion));
         
         return savedQuestion;
     }
     
     public Question updateQuestion(Long id, Question questionDetails) {
         Question question = getQuestionById(id);
+        Long previousExamId = question.getExamId();
+        int previousMarks = marksOf(question);
         question.setQuestionText(questionDetails.getQuestionText());
         question.setQuestionType(questionDetails.getQuestionType());
         question.setDifficultyLevel(questionDetails.getDifficultyLevel());
@@ -80,24 +98,22 @@ public class QuestionService {
         
         question.setExamId(questionDetails.getExamId());
         
-        // Ensure options are properly formatted as comma-separated string
-        if (questionDetails.getOptions() != null) {
-            question.setOptions(questionDetails.getOptions());
-        } else {
-            question.setOptions("");
-        }
+        question.setOptions(questionDetails.getOptions());
         
         question.setCorrectAnswer(questionDetails.getCorrectAnswer());
         question.setExplanation(questionDetails.getExplanation());
         question.setUpdatedAt(LocalDateTime.now());
         
         Question savedQuestion = questionRepository.save(question);
-        
-        // Update exam total marks
-        if (savedQuestion.getExamId() != null) {
-            updateExamTotalMarks(savedQuestion.getExamId());
+        examPaperCache.invalidate(savedQuestion.getExamId());
+        questionSearchIndex.index(savedQuestion);
+        questionDeduplicator.fingerprint(List.of(savedQuestion));
+        if (previousExamId != null && !previousExamId.equals(savedQuestion.getExamId())) {
+            examPaperCache.invalidate(previousExamId);
         }
         
+        examMarksAggregator.move(previousExamId, previousMarks, savedQuestion.getExamId(), marksOf(savedQuestion));
+        
         return savedQuestion;
     }
     
@@ -106,11 +122,11 @@ public class QuestionService {
         Long examId = question.getExamId();
         
         questionRepository.deleteById(id);
+        examPaperCache.invalidate(examId);
+        questionSearchIndex.remove(id);
+        questionDeduplicator.forget(List.of(id));
         
-        // Update exam total marks
-        if (examId != null) {
-            updateExamTotalMarks(examId);
-        }
+        examMarksAggregator.add(examId, -marksOf(question));
     }
     
     @Transactional
@@ -121,6 +137,14 @@ public class QuestionService {
         
         if (!questions.isEmpty()) {
             questionRepository.deleteByExamId(examId);
+            examPaperCache.invalidate(examId);
+            List<Long> questionIds = new ArrayList<>(questions.size());
+            for (Question question : questions) {
+                questionSearchIndex.remove(question.getId());
+                questionIds.add(question.getId());
+            }
+            questionDeduplicator.forget(questionIds);
+            examMarksAggregator.forget(examId);
             System.out.println("Successfully deleted " + questions.size() + " questions for exam: " + examId);
         } else {
             System.out.println("No questions found for exam: " + examId);
@@ -128,7 +152,78 @@ public class QuestionService {
     }
     
     public List<Question> getQuestionsByExamId(Long examId) {
-        return questionRepository.findByExamId(examId);
+        return getExamPaper(examId).getQuestions();
+    }
+    
+    public ExamPaper getExamPaper(Long examId) {
+        return examPaperCache.get(examId, questionRepository::findByExamId);
+    }
+    
+    public EncodedPaper getEncodedExamPaper(Long examId, boolean withAnswers) {
+        return examPaperCache.getEncoded(examId, questionRepository::findByExamId, withAnswers);
+    }
+    
+    public Map<String, Object> getPaperCacheStats() {
+        return examPaperCache.getStats();
+    }
+    
+    public Map<String, Object> getSearchIndexStats() {
+        return questionSearchIndex.getStats();
+    }
+    
+    public QuestionSearchIndex.SearchPage searchQuestions(String query, Long examId, QuestionType type, DifficultyLevel difficulty, int page, int size) {
+        return questionSearchIndex.search(query, examId, type, difficulty, page, size);
+    }
+    
+    public List<Question> getQuestionsByIds(List<Long> ids) {
+        Map<Long, Question> byId = new HashMap<>();
+        for (Question question : questionRepository.findAllById(ids)) {
+            byId.put(question.getId(), question);
+        }
+        List<Question> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Question question = byId.get(id);
+            if (question != null) {
+                ordered.add(question);
+            }
+        }
+        return ordered;
+    }
+    
+    /**
+     * Streams questions, optionally for one exam, to out. Returns the number of rows written.
+     */
+    public long exportQuestions(Long examId, ExportWriter.Format format, boolean gzip, OutputStream out) throws IOException {
+        long started = System.currentTimeMillis();
+        try (ExportWriter writer = new ExportWriter(out, format, gzip)) {
+            try {
+                questionExportRepository.streamQuestions(examId, rs -> {
+                    try {
+                        writer.writeRow(rs);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                // Usually the client went away mid-download
+                throw e.getCause();
+            }
+            System.out.println("Exported " + writer.getRows() + " questions" + (examId != null ? " for exam " + examId : "")
+                    + " in " + (System.currentTimeMillis() - started) + "ms");
+            return writer.getRows();
+        }
+    }
+    
+    public CursorPage<Question> getQuestionsPage(Long cursor, int size) {
+        int pageSize = CursorPage.clampSize(size);
+        return CursorPage.of(questionRepository.findByIdLessThanOrderByIdDesc(
+                CursorPage.startBefore(cursor), PageRequest.of(0, pageSize + 1)), pageSize, Question::getId);
+    }
+    
+    public CursorPage<Question> getQuestionsPageByCreatedBy(Long createdBy, Long cursor, int size) {
+        int pageSize = CursorPage.clampSize(size);
+        return CursorPage.of(questionRepository.findByCreatedByAndIdLessThanOrderByIdDesc(
+                createdBy, CursorPage.startBefore(cursor), PageRequest.of(0, pageSize + 1)), pageSize, Question::getId);
     }
     
     public List<Question> getQuestionsByCreatedBy(Long createdBy) {
@@ -144,107 +239,84 @@ public class QuestionService {
     }
     
     public List<Question> getQuestionsByExamAndType(Long examId, QuestionType questionType) {
-        return questionRepository.findByExamIdAndQuestionType(examId, questionType);
+        return getExamPaper(examId).getQuestions().stream()
+                .filter(question -> question.getQuestionType() == questionType)
+                .collect(Collectors.toList());
     }
     
     public List<Question> getQuestionsByExamAndDifficulty(Long examId, DifficultyLevel difficultyLevel) {
-        return questionRepository.findByExamIdAndDifficultyLevel(examId, difficultyLevel);
+        return getExamPaper(examId).getQuestions().stream()
+                .filter(question -> question.getDifficultyLevel() == difficultyLevel)
+                .collect(Collectors.toList());
+    }
+    
+    public List<Question> getRandomQuestionsByExamId(Long examId, Long sessionId, Long userId) {
+        return QuestionShuffler.shuffle(getQuestionsByExamId(examId), shuffleSeed(examId, sessionId, userId));
+    }
+    
+    public List<Question> getRandomQuestionsByExamIdAndDifficulty(Long examId, DifficultyLevel difficulty, Long sessionId, Long userId) {
+        return QuestionShuffler.shuffle(getQuestionsByExamAndDifficulty(examId, difficulty), shuffleSeed(examId, sessionId, userId));
     }
     
-    public List<Question> getRandomQuestionsByExamId(Long examId) {
-        return questionRepository.findRandomQuestionsByExamId(examId);
+    public List<Question> getStratifiedQuestionsByExamId(Long examId, Map<DifficultyLevel, Integer> counts, Long sessionId, Long userId) {
+        return QuestionShuffler.sample(getQuestionsByExamId(examId), counts, shuffleSeed(examId, sessionId, userId));
     }
     
-    public List<Question> getRandomQuestionsByExamIdAndDifficulty(Long examId, DifficultyLevel difficulty) {
-        return questionRepository.findRandomQuestionsByExamIdAndDifficulty(examId, difficulty);
+    private long shuffleSeed(Long examId, Long sessionId, Long userId) {
+        if (sessionId != null) {
+            return QuestionShuffler.seedForSession(sessionId);
+        }
+        if (userId != null) {
+            return QuestionShuffler.seedForUser(userId, examId);
+        }
+        // No identity to pin the order to: a fresh order per call, as before
+        return ThreadLocalRandom.current().nextLong();
     }
     
     public Long getQuestionCountByExamId(Long examId) {
-        return questionRepository.countByExamId(examId);
+        return (long) getExamPaper(examId).getQuestionCount();
     }
     
     public Integer getTotalMarksByExamId(Long examId) {
-        Integer totalMarks = questionRepository.getTotalMarksByExamId(examId);
-        return totalMarks != null ? totalMarks : 0;
+        return getExamPaper(examId).getTotalMarks();
     }
     
-    public List<Question> createQuestionsForExam(Long examId, List<Question> questions, Long createdBy) {
+    public QuestionImportResult createQuestionsForExam(Long examId, List<Question> questions, Long createdBy) {
         for (Question question : questions) {
             question.setExamId(examId);
             question.setCreatedBy(createdBy);
             question.setCreatedAt(LocalDateTime.now());
             question.setUpdatedAt(LocalDateTime.now());
         }
-        return questionRepository.saveAll(questions);
+        DuplicateReport duplicates = questionDeduplicator.check(questions);
+        List<Question> savedQuestions = questionRepository.saveAll(duplicates.accepted(questions));
+        questionDeduplicator.record(duplicates, savedQuestions);
+        examPaperCache.invalidate(examId);
+        questionSearchIndex.indexAll(savedQuestions);
+        examMarksAggregator.add(examId, marksOf(savedQuestions));
+        return new QuestionImportResult(savedQuestions, duplicates);
     }
     
-    public List<Question> importQuestionsFromCSV(MultipartFile file, Long examId, Long createdBy) throws IOException {
+    public QuestionImportResult importQuestionsFromCSV(MultipartFile file, Long examId, Long createdBy) throws IOException {
         List<Question> questions = new ArrayList<>();
         
         System.out.println("Starting CSV import for exam: " + examId + ", created by: " + createdBy);
         
+        int recordCount = 0;
+        int skipped = 0;
         try (InputStream inputStream = file.getInputStream();
-             BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream));
-             CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT.withFirstRecordAsHeader().withIgnoreHeaderCase().withTrim().withIgnoreSurroundingSpaces())) {
-            
-            System.out.println("CSV Headers found: " + csvParser.getHeaderNames());
+             BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+             CSVParser csvParser = new CSVParser(reader, QuestionCsvMapper.FORMAT)) {
             
-            int recordCount = 0;
+            QuestionCsvMapper mapper = QuestionCsvMapper.forHeaders(csvParser.getHeaderMap());
             for (CSVRecord csvRecord : csvParser) {
                 recordCount++;
-                System.out.println("Processing record " + recordCount + ": " + csvRecord.toString());
-                
                 try {
-                    Question question = new Question();
-                    
-                    // Get question text
-                    String questionText = getCSVValue(csvRecord, "questionText", "Question Text");
-                    if (questionText == null || questionText.trim().isEmpty()) {
-                        System.err.println("Skipping record " + recordCount + ": No question text found");
-                        continue;
-                    }
-                    String questionTypeStr = getCSVValue(csvRecord, "questionType", "Question Type");
-                    if (questionTypeStr == null || questionTypeStr.trim().isEmpty()) {
-                        questionTypeStr = "MULTIPLE_CHOICE";
-                    }
-                    
-                    String difficultyStr = getCSVValue(csvRecord, "difficultyLevel", "Difficulty Level");
-                    if (difficultyStr == null || difficultyStr.trim().isEmpty()) {
-                        difficultyStr = "EASY";
-                    }
-                    
-                    String marksStr = getCSVValue(csvRecord, "marks", "Marks");
-                    String options = getCSVValue(csvRecord, "options", "Options");
-                    String correctAnswer = getCSVValue(csvRecord, "correctAnswer", "Correct Answer");
-                    String explanation = getCSVValue(csvRecord, "explanation", "Explanation");
-                    
-                    question.setQuestionText(questionText);
-                    question.setQuestionType(QuestionType.valueOf(questionTypeStr.toUpperCase()));
-                    DifficultyLevel difficulty = DifficultyLevel.valueOf(difficultyStr.toUpperCase());
-                    question.setDifficultyLevel(difficulty);
-                    
-                    // Use provided marks or default based on difficulty
-                    if (marksStr != null && !marksStr.trim().isEmpty()) {
-                        question.setMarks(Integer.parseInt(marksStr.trim()));
-                    } else {
-                        question.setMarks(difficulty.getDefaultMarks());
-                    }
-                    
-                    question.setOptions(options != null ? options : "");
-                    question.setCorrectAnswer(correctAnswer != null ? correctAnswer : "");
-                    question.setExplanation(explanation != null ? explanation : "");
-                    question.setExamId(examId);
-                    question.setCreatedBy(createdBy);
-                    question.setCreatedAt(LocalDateTime.now());
-                    question.setUpdatedAt(LocalDateTime.now());
-                    
-                    questions.add(question);
-                    System.out.println("Successfully processed record " + recordCount);
-                    
+                    questions.add(mapper.map(csvRecord, examId, createdBy));
                 } catch (Exception e) {
-                    System.err.println("Error processing record " + recordCount + ": " + e.getMessage());
-                    e.printStackTrace();
                     // Continue with next record instead of failing entire import
+                    skipped++;
+                    System.err.println("Skipping record " + recordCount + ": " + e.getMessage());
                 }
             }
         } catch (Exception e) {
@@ -252,57 +324,31 @@ public class QuestionService {
             throw new IOException("Failed to parse CSV file: " + e.getMessage(), e);
         }
         
-        List<Question> savedQuestions = questionRepository.saveAll(questions);
-        System.out.println("Saved " + savedQuestions.size() + " questions to database");
+        DuplicateReport duplicates = questionDeduplicator.check(questions);
+        List<Question> savedQuestions = questionRepository.saveAll(duplicates.accepted(questions));
+        questionDeduplicator.record(duplicates, savedQuestions);
+        System.out.println("Saved " + savedQuestions.size() + " of " + recordCount + " CSV records to database ("
+                + skipped + " invalid, " + duplicates.getDuplicates() + " near-duplicates)");
+        examPaperCache.invalidate(examId);
+        questionSearchIndex.indexAll(savedQuestions);
+        examMarksAggregator.add(examId, marksOf(savedQuestions));
         
-        // Update exam total marks
-        if (examId != null) {
-            updateExamTotalMarks(examId);
-        }
-        
-        return savedQuestions;
+        return new QuestionImportResult(savedQuestions, duplicates);
     }
     
-    private String getCSVValue(CSVRecord record, String primaryHeader, String fallbackHeader) {
-        try {
-            // Try primary header first
-            if (record.isMapped(primaryHeader)) {
-                String value = record.get(primaryHeader);
-                return value != null ? value.trim() : null;
-            }
-            // Try fallback header
-            if (record.isMapped(fallbackHeader)) {
-                String value = record.get(fallbackHeader);
-                return value != null ? value.trim() : null;
-            }
-            // Try by index if headers don't match exactly
-            Map<String, Integer> headerMap = record.getParser().getHeaderMap();
-            for (String header : headerMap.keySet()) {
-                if (header.toLowerCase().contains(primaryHeader.toLowerCase()) || 
-                    header.toLowerCase().contains(fallbackHeader.toLowerCase().replace(" ", ""))) {
-                    String value = record.get(header);
-                    return value != null ? value.trim() : null;
-                }
-            }
-            return null;
-        } catch (Exception e) {
-            System.err.println("Error getting CSV value for headers " + primaryHeader + "/" + fallbackHeader + ": " + e.getMessage());
-            return null;
-        }
+    public Map<String, Object> getExamMarksStats() {
+        return examMarksAggregator.getStats();
     }
     
-
+    private static int marksOf(Question question) {
+        return question.getMarks() != null ? question.getMarks() : 0;
+    }
     
-    private void updateExamTotalMarks(Long examId) {
-        try {
-            Integer totalMarks = getTotalMarksByExamId(examId);
-            System.out.println("Updating exam " + examId + " with total marks: " + totalMarks);
-            examClient.updateExamTotalMarks(examId, totalMarks);
-            System.out.println("Successfully updated exam total marks");
-        } catch (Exception e) {
-            System.err.println("Failed to update exam total marks for exam " + examId + ": " + e.getMessage());
-            e.printStackTrace();
-            // Don't fail the entire operation if exam update fails
+    private static int marksOf(List<Question> questions) {
+        int marks = 0;
+        for (Question question : questions) {
+            marks += marksOf(question);
         }
+        return marks;
     }
 }
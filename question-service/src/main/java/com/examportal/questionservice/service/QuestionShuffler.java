@@ -0,0 +1,76 @@
+package com.examportal.questionservice.service;
+
+import com.examportal.questionservice.entity.DifficultyLevel;
+import com.examportal.questionservice.entity.Question;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic, seeded question ordering. The same seed always yields the same
+ * order, so a student sees a stable paper across reloads without the database
+ * having to sort anything.
+ */
+public final class QuestionShuffler {
+    
+    private QuestionShuffler() {
+    }
+    
+    public static long seedForSession(Long sessionId) {
+        return mix(0x5E5510L ^ sessionId);
+    }
+    
+    public static long seedForUser(Long userId, Long examId) {
+        return mix(mix(userId) ^ examId);
+    }
+    
+    /**
+     * Returns a new list holding the questions in a permutation fixed by the seed.
+     */
+    public static List<Question> shuffle(List<Question> questions, long seed) {
+        List<Question> shuffled = new ArrayList<>(questions);
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = shuffled.size() - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Question swap = shuffled.get(i);
+            shuffled.set(i, shuffled.get(j));
+            shuffled.set(j, swap);
+        }
+        return shuffled;
+    }
+    
+    /**
+     * Picks the requested number of questions per difficulty level (or all of a
+     * level when fewer exist), then shuffles the combined selection.
+     */
+    public static List<Question> sample(List<Question> questions, Map<DifficultyLevel, Integer> counts, long seed) {
+        Map<DifficultyLevel, List<Question>> strata = new EnumMap<>(DifficultyLevel.class);
+        for (Question question : questions) {
+            if (question.getDifficultyLevel() != null) {
+                strata.computeIfAbsent(question.getDifficultyLevel(), level -> new ArrayList<>()).add(question);
+            }
+        }
+        
+        List<Question> selected = new ArrayList<>();
+        for (Map.Entry<DifficultyLevel, Integer> request : counts.entrySet()) {
+            List<Question> stratum = strata.get(request.getKey());
+            if (stratum == null || request.getValue() == null || request.getValue() <= 0) {
+                continue;
+            }
+            // Each stratum gets its own stream so changing one count does not reshuffle the others
+            List<Question> shuffled = shuffle(stratum, seed + request.getKey().ordinal() + 1);
+            selected.addAll(shuffled.subList(0, Math.min(request.getValue(), shuffled.size())));
+        }
+        return shuffle(selected, seed);
+    }
+    
+    // SplitMix64 finalizer: spreads nearby ids over the whole seed space
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
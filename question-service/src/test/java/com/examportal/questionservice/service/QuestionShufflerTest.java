@@ -0,0 +1,116 @@
+package com.examportal.questionservice.service;
+
+import com.examportal.questionservice.entity.DifficultyLevel;
+import com.examportal.questionservice.entity.Question;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QuestionShufflerTest {
+
+    @Test
+    void sameSeedGivesSameOrder() {
+        List<Question> questions = questions(20, DifficultyLevel.EASY);
+        long seed = QuestionShuffler.seedForSession(42L);
+
+        List<Long> first = ids(QuestionShuffler.shuffle(questions, seed));
+        List<Long> second = ids(QuestionShuffler.shuffle(questions(20, DifficultyLevel.EASY), seed));
+
+        assertThat(first).isEqualTo(second);
+        assertThat(first).containsExactlyInAnyOrderElementsOf(ids(questions));
+        assertThat(first).isNotEqualTo(ids(questions));
+        // The input list is left as it was
+        assertThat(ids(questions)).isSorted();
+    }
+
+    @Test
+    void neighbouringSessionsGetDifferentOrders() {
+        List<Question> questions = questions(20, DifficultyLevel.EASY);
+
+        assertThat(ids(QuestionShuffler.shuffle(questions, QuestionShuffler.seedForSession(1L))))
+                .isNotEqualTo(ids(QuestionShuffler.shuffle(questions, QuestionShuffler.seedForSession(2L))));
+    }
+
+    @Test
+    void userSeedIsStablePerExam() {
+        assertThat(QuestionShuffler.seedForUser(7L, 3L)).isEqualTo(QuestionShuffler.seedForUser(7L, 3L));
+        assertThat(QuestionShuffler.seedForUser(7L, 3L)).isNotEqualTo(QuestionShuffler.seedForUser(7L, 4L));
+        assertThat(QuestionShuffler.seedForUser(7L, 3L)).isNotEqualTo(QuestionShuffler.seedForUser(8L, 3L));
+    }
+
+    @Test
+    void shufflesEmptyAndSingleQuestionLists() {
+        assertThat(QuestionShuffler.shuffle(List.of(), 1L)).isEmpty();
+        assertThat(ids(QuestionShuffler.shuffle(questions(1, DifficultyLevel.EASY), 1L))).containsExactly(1L);
+    }
+
+    @Test
+    void samplesRequestedCountPerDifficulty() {
+        List<Question> questions = new ArrayList<>();
+        questions.addAll(questions(10, DifficultyLevel.EASY));
+        questions.addAll(questions(3, DifficultyLevel.MEDIUM));
+        questions.add(question(100, null));
+
+        Map<DifficultyLevel, Integer> counts = new EnumMap<>(DifficultyLevel.class);
+        counts.put(DifficultyLevel.EASY, 4);
+        counts.put(DifficultyLevel.MEDIUM, 5);
+        counts.put(DifficultyLevel.HARD, 2);
+
+        List<Question> sample = QuestionShuffler.sample(questions, counts, 99L);
+
+        assertThat(sample.stream().filter(q -> q.getDifficultyLevel() == DifficultyLevel.EASY)).hasSize(4);
+        // Fewer medium questions exist than requested; none are hard or unclassified
+        assertThat(sample.stream().filter(q -> q.getDifficultyLevel() == DifficultyLevel.MEDIUM)).hasSize(3);
+        assertThat(sample).hasSize(7).doesNotHaveDuplicates();
+        assertThat(ids(QuestionShuffler.sample(questions, counts, 99L))).isEqualTo(ids(sample));
+    }
+
+    @Test
+    void changingOneCountKeepsTheOtherDifficultiesPicks() {
+        List<Question> questions = new ArrayList<>();
+        questions.addAll(questions(10, DifficultyLevel.EASY));
+        questions.addAll(questions(10, DifficultyLevel.HARD));
+
+        Map<DifficultyLevel, Integer> counts = new EnumMap<>(DifficultyLevel.class);
+        counts.put(DifficultyLevel.EASY, 3);
+        counts.put(DifficultyLevel.HARD, 2);
+        List<Long> before = easyIds(QuestionShuffler.sample(questions, counts, 5L));
+        counts.put(DifficultyLevel.HARD, 6);
+        List<Long> after = easyIds(QuestionShuffler.sample(questions, counts, 5L));
+
+        assertThat(after).containsExactlyInAnyOrderElementsOf(before);
+    }
+
+    private static List<Long> easyIds(List<Question> questions) {
+        return questions.stream()
+                .filter(q -> q.getDifficultyLevel() == DifficultyLevel.EASY)
+                .map(Question::getId)
+                .collect(Collectors.toList());
+    }
+
+    private static List<Question> questions(int count, DifficultyLevel level) {
+        long offset = level.ordinal() * 1000L;
+        List<Question> questions = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            questions.add(question(offset + id, level));
+        }
+        return questions;
+    }
+
+    private static Question question(long id, DifficultyLevel level) {
+        Question question = new Question();
+        question.setId(id);
+        question.setDifficultyLevel(level);
+        return question;
+    }
+
+    private static List<Long> ids(List<Question> questions) {
+        return questions.stream().map(Question::getId).collect(Collectors.toList());
+    }
+}
@@ -1,11 +1,17 @@
 package com.examportal.resultservice.controller;
 
+import com.examportal.resultservice.dto.GradedResultRequest;
 import com.examportal.resultservice.entity.Result;
 import com.examportal.resultservice.service.ResultService;
+import com.examportal.web.CursorPage;
+import com.examportal.web.ExportWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -22,6 +28,35 @@ public class ResultController {
         return ResponseEntity.ok(resultService.getAllResults());
     }
 
+    // Keyset-paginated, newest first; pass nextCursor from the previous page as cursor
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<Result>> getResultsPage(
+            @RequestParam(value = "cursor", required = false) Long cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        return ResponseEntity.ok(resultService.getResultsPage(cursor, size));
+    }
+
+    // Streams CSV or NDJSON straight from a database cursor; add gzip=true for a compressed download
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportResults(
+            @RequestParam(value = "examId", required = false) Long examId,
+            @RequestParam(value = "userId", required = false) Long userId,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "format", defaultValue = "csv") String format,
+            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip) {
+        ExportWriter.Format exportFormat;
+        try {
+            exportFormat = ExportWriter.Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = out -> resultService.exportResults(examId, userId, from, to, exportFormat, gzip, out);
+        return ResponseEntity.ok()
+                .headers(ExportWriter.headers(examId != null ? "results-exam-" + examId : "results", exportFormat, gzip))
+                .body(body);
+    }
+
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<Result>> getResultsByUser(@PathVariable Long userId) {
         return ResponseEntity.ok(resultService.getResultsByUser(userId));
@@ -32,6 +67,14 @@ public class ResultController {
         return ResponseEntity.ok(resultService.getResultsByExam(examId));
     }
 
+    @GetMapping("/exam/{examId}/page")
+    public ResponseEntity<CursorPage<Result>> getResultsPageByExam(
+            @PathVariable Long examId,
+            @RequestParam(value = "cursor", required = false) Long cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        return ResponseEntity.ok(resultService.getResultsPageByExam(examId, cursor, size));
+    }
+
     @GetMapping("/check/{userId}/{examId}")
     public ResponseEntity<Map<String, Boolean>> checkExamCompleted(
             @PathVariable Long userId, 
@@ -40,9 +83,20 @@ public class ResultController {
         return ResponseEntity.ok(Map.of("completed", completed));
     }
 
+    // Scores are never taken from the client: this only returns the result
+    // exam-session-service recorded for the session, once it has been graded
     @PostMapping
     public ResponseEntity<Result> createResult(@RequestBody Result result) {
-        return ResponseEntity.ok(resultService.saveResult(result));
+        Result graded = resultService.getGradedResult(result.getSessionId());
+        if (graded != null) {
+            return ResponseEntity.ok(graded);
+        }
+        return ResponseEntity.notFound().build();
+    }
+    
+    @PostMapping("/graded")
+    public ResponseEntity<Result> recordGradedResult(@RequestBody GradedResultRequest gradedResult) {
+        return ResponseEntity.ok(resultService.recordGradedResult(gradedResult));
     }
     
     @GetMapping("/user/{userId}/exam/{examId}")
@@ -56,6 +110,21 @@ public class ResultController {
         return ResponseEntity.notFound().build();
     }
     
+    // Change events from exam-service keep the local passing-marks cache current
+    @PutMapping("/exams/{examId}/metadata")
+    public ResponseEntity<Void> updateExamMetadata(
+            @PathVariable Long examId,
+            @RequestBody Map<String, Integer> metadata) {
+        resultService.updateExamMetadata(examId, metadata.get("passingMarks"));
+        return ResponseEntity.ok().build();
+    }
+    
+    @DeleteMapping("/exams/{examId}/metadata")
+    public ResponseEntity<Void> evictExamMetadata(@PathVariable Long examId) {
+        resultService.evictExamMetadata(examId);
+        return ResponseEntity.ok().build();
+    }
+    
     @DeleteMapping("/user/{userId}")
     public ResponseEntity<Void> deleteResultsByUserId(@PathVariable Long userId) {
         resultService.deleteResultsByUserId(userId);
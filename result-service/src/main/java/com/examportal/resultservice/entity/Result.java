@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "results")
+@Table(name = "results", indexes = {
+        @Index(name = "idx_results_exam_id_id", columnList = "exam_id, id"),
+        @Index(name = "idx_results_user_id_id", columnList = "user_id, id")
+})
 public class Result {
     
     @Id
@@ -0,0 +1,60 @@
+package com.examportal.resultservice.repository;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Row-by-row reads for result exports. A fetch size of Integer.MIN_VALUE makes
+ * MySQL Connector/J stream the result set instead of buffering it, so a
+ * semester of results is exported in constant memory.
+ */
+@Repository
+public class ResultExportRepository {
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate streamingTemplate;
+
+    @PostConstruct
+    public void init() {
+        streamingTemplate = new JdbcTemplate(dataSource);
+        streamingTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    /**
+     * Results matching the optional filters, by id. from/to bound the submission time.
+     */
+    public void streamResults(Long examId, Long userId, LocalDateTime from, LocalDateTime to, RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder("SELECT id, user_id, exam_id, session_id, score, total_marks, percentage, "
+                + "status, passing_status, submitted_at FROM results WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (examId != null) {
+            sql.append(" AND exam_id = ?");
+            args.add(examId);
+        }
+        if (userId != null) {
+            sql.append(" AND user_id = ?");
+            args.add(userId);
+        }
+        if (from != null) {
+            sql.append(" AND submitted_at >= ?");
+            args.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND submitted_at < ?");
+            args.add(Timestamp.valueOf(to));
+        }
+        sql.append(" ORDER BY id");
+        streamingTemplate.query(sql.toString(), handler, args.toArray());
+    }
+}
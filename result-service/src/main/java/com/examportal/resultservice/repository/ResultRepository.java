@@ -1,8 +1,11 @@
 package com.examportal.resultservice.repository;
 
 import com.examportal.resultservice.entity.Result;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,10 +18,22 @@ public interface ResultRepository extends JpaRepository<Result, Long> {
     
     List<Result> findByExamId(Long examId);
     
+    // Keyset pages, newest first: pass PageRequest.of(0, size) and the last id seen
+    List<Result> findByIdLessThanOrderByIdDesc(Long id, Pageable pageable);
+    
+    List<Result> findByExamIdAndIdLessThanOrderByIdDesc(Long examId, Long id, Pageable pageable);
+    
     boolean existsByUserIdAndExamId(Long userId, Long examId);
     
     java.util.Optional<Result> findByUserIdAndExamId(Long userId, Long examId);
     
+    java.util.Optional<Result> findFirstBySessionId(String sessionId);
+    
+    List<Result> findByExamIdAndPassingStatus(Long examId, String passingStatus);
+    
+    @Query("SELECT DISTINCT r.examId FROM Result r WHERE r.passingStatus = :passingStatus")
+    List<Long> findExamIdsByPassingStatus(@Param("passingStatus") String passingStatus);
+    
     @Modifying
     @Transactional
     void deleteByUserId(Long userId);
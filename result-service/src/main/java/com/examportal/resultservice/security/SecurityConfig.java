@@ -3,6 +3,7 @@ package com.examportal.resultservice.security;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -23,10 +24,18 @@ public class SecurityConfig {
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http.csrf().disable()
             .authorizeHttpRequests(authz -> authz
+                .requestMatchers("/api/results/export").hasAnyRole("ADMIN", "TEACHER")
+                // Only exam-session-service records graded results
+                .requestMatchers(HttpMethod.POST, "/api/results/graded").hasRole("SERVICE")
+                // Pushed by exam-service; staff may also refresh or evict an entry
+                .requestMatchers("/api/results/exams/*/metadata").hasAnyRole("SERVICE", "ADMIN", "TEACHER")
                 .anyRequest().permitAll()
             )
+            .exceptionHandling().authenticationEntryPoint(jwtAuthenticationEntryPoint)
+            .and()
             .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS);
 
+        http.addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
         return http.build();
     }
 }
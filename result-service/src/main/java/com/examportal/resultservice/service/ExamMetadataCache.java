@@ -0,0 +1,194 @@
+package com.examportal.resultservice.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local copy of exam passing marks so saving a result rarely waits on exam-service.
+ * Every exam is loaded in one call at startup. A miss is fetched synchronously and
+ * stale entries in the background, both behind a short timeout and a simple
+ * consecutive-failure circuit breaker. exam-service also pushes changes through
+ * {@link #put(Long, Integer)}.
+ */
+@Component
+public class ExamMetadataCache {
+
+    @Value("${result.exam-metadata.url:http://localhost:8080/api/exams/{id}}")
+    private String examUrl;
+
+    @Value("${result.exam-metadata.list-url:http://localhost:8080/api/exams}")
+    private String examsUrl;
+
+    @Value("${result.exam-metadata.ttl-ms:600000}")
+    private long ttlMillis;
+
+    @Value("${result.exam-metadata.failure-threshold:3}")
+    private int failureThreshold;
+
+    @Value("${result.exam-metadata.open-ms:30000}")
+    private long openMillis;
+
+    private final RestTemplate restTemplate;
+
+    private final ConcurrentHashMap<Long, ExamMetadata> metadata = new ConcurrentHashMap<>();
+    private final Set<Long> pendingLoads = ConcurrentHashMap.newKeySet();
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "exam-metadata-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openUntil = new AtomicLong();
+
+    public ExamMetadataCache(@Value("${result.exam-metadata.timeout-ms:1000}") int timeoutMillis) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeoutMillis);
+        requestFactory.setReadTimeout(timeoutMillis);
+        this.restTemplate = new RestTemplate(requestFactory);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @SuppressWarnings("unchecked")
+    public void warmUp() {
+        try {
+            List<Map<String, Object>> exams = restTemplate.getForObject(examsUrl, List.class);
+            if (exams != null) {
+                for (Map<String, Object> exam : exams) {
+                    Object id = exam.get("id");
+                    if (id instanceof Number) {
+                        put(((Number) id).longValue(), toInteger(exam.get("passingMarks")));
+                    }
+                }
+            }
+            System.out.println("Loaded passing marks for " + metadata.size() + " exams");
+        } catch (Exception e) {
+            // Misses are fetched one by one instead
+            System.err.println("Failed to preload exam metadata: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cached metadata for the exam, or null if exam-service cannot tell us yet.
+     * A miss is fetched synchronously, bounded by the request timeout and
+     * skipped while the circuit is open; a stale entry schedules a background load.
+     */
+    public ExamMetadata get(Long examId) {
+        if (examId == null) {
+            return null;
+        }
+        ExamMetadata entry = metadata.get(examId);
+        if (entry == null) {
+            load(examId);
+            return metadata.get(examId);
+        }
+        if (System.currentTimeMillis() - entry.loadedAt > ttlMillis) {
+            scheduleLoad(examId);
+        }
+        return entry;
+    }
+
+    public void put(Long examId, Integer passingMarks) {
+        metadata.put(examId, new ExamMetadata(passingMarks, System.currentTimeMillis()));
+    }
+
+    public void evict(Long examId) {
+        metadata.remove(examId);
+    }
+
+    @Scheduled(fixedDelayString = "${result.exam-metadata.refresh-ms:300000}")
+    public void refreshAll() {
+        for (Long examId : metadata.keySet()) {
+            scheduleLoad(examId);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "entries", metadata.size(),
+                "pendingLoads", pendingLoads.size(),
+                "consecutiveFailures", consecutiveFailures.get(),
+                "circuitOpen", isCircuitOpen()
+        );
+    }
+
+    private void scheduleLoad(Long examId) {
+        if (isCircuitOpen() || !pendingLoads.add(examId)) {
+            return;
+        }
+        try {
+            loader.execute(() -> {
+                try {
+                    load(examId);
+                } finally {
+                    pendingLoads.remove(examId);
+                }
+            });
+        } catch (Exception e) {
+            pendingLoads.remove(examId);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void load(Long examId) {
+        if (isCircuitOpen()) {
+            return;
+        }
+        try {
+            Map<String, Object> exam = restTemplate.getForObject(examUrl, Map.class, examId);
+            consecutiveFailures.set(0);
+            if (exam != null) {
+                put(examId, toInteger(exam.get("passingMarks")));
+            }
+        } catch (Exception e) {
+            if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+                openUntil.set(System.currentTimeMillis() + openMillis);
+                consecutiveFailures.set(0);
+                System.err.println("Exam metadata circuit opened for " + openMillis + " ms: " + e.getMessage());
+            }
+        }
+    }
+
+    private boolean isCircuitOpen() {
+        return System.currentTimeMillis() < openUntil.get();
+    }
+
+    private static Integer toInteger(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loader.shutdownNow();
+    }
+
+    public static final class ExamMetadata {
+        private final Integer passingMarks;
+        private final long loadedAt;
+
+        ExamMetadata(Integer passingMarks, long loadedAt) {
+            this.passingMarks = passingMarks;
+            this.loadedAt = loadedAt;
+        }
+
+        // Null if the exam sets no passing marks
+        public Integer getPassingMarks() {
+            return passingMarks;
+        }
+    }
+}
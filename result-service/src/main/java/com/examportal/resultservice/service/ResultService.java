@@ -1,27 +1,59 @@
 package com.examportal.resultservice.service;
 
+import com.examportal.resultservice.dto.GradedResultRequest;
+import com.examportal.resultservice.entity.ExamResult;
+import com.examportal.resultservice.entity.Grade;
 import com.examportal.resultservice.entity.Result;
+import com.examportal.resultservice.repository.ExamResultRepository;
+import com.examportal.resultservice.repository.ResultExportRepository;
 import com.examportal.resultservice.repository.ResultRepository;
+import com.examportal.web.CursorPage;
+import com.examportal.web.ExportWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 
 @Service
 public class ResultService {
 
+    private static final String PENDING = "PENDING";
+
     @Autowired
     private ResultRepository resultRepository;
 
     @Autowired
-    private RestTemplate restTemplate;
+    private ExamResultRepository examResultRepository;
+
+    @Autowired
+    private ExamMetadataCache examMetadataCache;
+
+    @Autowired
+    private ResultExportRepository resultExportRepository;
 
     public List<Result> getAllResults() {
         return resultRepository.findAll();
     }
 
+    public CursorPage<Result> getResultsPage(Long cursor, int size) {
+        int pageSize = CursorPage.clampSize(size);
+        return CursorPage.of(resultRepository.findByIdLessThanOrderByIdDesc(
+                CursorPage.startBefore(cursor), PageRequest.of(0, pageSize + 1)), pageSize, Result::getId);
+    }
+
+    public CursorPage<Result> getResultsPageByExam(Long examId, Long cursor, int size) {
+        int pageSize = CursorPage.clampSize(size);
+        return CursorPage.of(resultRepository.findByExamIdAndIdLessThanOrderByIdDesc(
+                examId, CursorPage.startBefore(cursor), PageRequest.of(0, pageSize + 1)), pageSize, Result::getId);
+    }
+
     public List<Result> getResultsByUser(Long userId) {
         return resultRepository.findByUserId(userId);
     }
@@ -30,16 +62,39 @@ public class ResultService {
         return resultRepository.findByExamId(examId);
     }
 
+    /**
+     * Streams results matching the optional filters to out. Returns the number of rows written.
+     */
+    public long exportResults(Long examId, Long userId, LocalDateTime from, LocalDateTime to,
+                              ExportWriter.Format format, boolean gzip, OutputStream out) throws IOException {
+        long started = System.currentTimeMillis();
+        try (ExportWriter writer = new ExportWriter(out, format, gzip)) {
+            try {
+                resultExportRepository.streamResults(examId, userId, from, to, rs -> {
+                    try {
+                        writer.writeRow(rs);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                // Usually the client went away mid-download
+                throw e.getCause();
+            }
+            System.out.println("Exported " + writer.getRows() + " results in " + (System.currentTimeMillis() - started) + "ms");
+            return writer.getRows();
+        }
+    }
+
     public boolean isExamCompleted(Long userId, Long examId) {
         return resultRepository.existsByUserIdAndExamId(userId, examId);
     }
 
-    public Result saveResult(Result result) {
-        // Calculate passing status if not already set
-        if (result.getPassingStatus() == null) {
-            result.setPassingStatus(calculatePassingStatus(result));
+    public Result getGradedResult(String sessionId) {
+        if (sessionId == null) {
+            return null;
         }
-        return resultRepository.save(result);
+        return resultRepository.findFirstBySessionId(sessionId).orElse(null);
     }
 
     public Result createResult(Long userId, Long examId, String sessionId, Integer score, Integer totalMarks) {
@@ -48,6 +103,36 @@ public class ResultService {
         return resultRepository.save(result);
     }
     
+    @Transactional
+    public Result recordGradedResult(GradedResultRequest graded) {
+        ExamResult examResult = examResultRepository.findBySessionId(graded.getSessionId())
+                .orElseGet(() -> new ExamResult(graded.getSessionId(), graded.getExamId(), graded.getUserId()));
+        examResult.setTotalQuestions(graded.getTotalQuestions());
+        examResult.setAnsweredQuestions(graded.getAnsweredQuestions());
+        examResult.setCorrectAnswers(graded.getCorrectAnswers());
+        examResult.setWrongAnswers(graded.getWrongAnswers());
+        examResult.setTotalMarks(graded.getTotalMarks());
+        examResult.setObtainedMarks(graded.getObtainedMarks());
+        examResult.setPercentage(graded.getPercentage());
+        examResult.setGrade(Grade.getGradeByPercentage(graded.getPercentage() != null ? graded.getPercentage() : 0.0));
+        examResult.setTimeTakenMinutes(graded.getTimeTakenMinutes());
+        examResult.setSubmittedAt(graded.getSubmittedAt());
+        examResultRepository.save(examResult);
+        
+        // Keep the summary row the dashboards read in step with the graded result
+        String sessionId = String.valueOf(graded.getSessionId());
+        Result result = resultRepository.findFirstBySessionId(sessionId)
+                .orElseGet(() -> new Result(graded.getUserId(), graded.getExamId(), sessionId,
+                        graded.getObtainedMarks(), graded.getTotalMarks()));
+        result.setScore(graded.getObtainedMarks());
+        result.setTotalMarks(graded.getTotalMarks());
+        if (graded.getSubmittedAt() != null) {
+            result.setSubmittedAt(graded.getSubmittedAt());
+        }
+        result.setPassingStatus(calculatePassingStatus(result));
+        return resultRepository.save(result);
+    }
+    
     public Result getResultByUserAndExam(Long userId, Long examId) {
         return resultRepository.findByUserIdAndExamId(userId, examId).orElse(null);
     }
@@ -56,30 +141,50 @@ public class ResultService {
         resultRepository.deleteByUserId(userId);
     }
     
+    public void updateExamMetadata(Long examId, Integer passingMarks) {
+        examMetadataCache.put(examId, passingMarks);
+        resolvePendingStatuses(examId);
+    }
+    
+    public void evictExamMetadata(Long examId) {
+        examMetadataCache.evict(examId);
+    }
+    
+    /**
+     * Decides the results saved as PENDING while their exam's passing marks were unknown.
+     */
+    @Scheduled(fixedDelayString = "${result.pending-status.retry-ms:60000}")
+    public void resolvePendingStatuses() {
+        for (Long examId : resultRepository.findExamIdsByPassingStatus(PENDING)) {
+            resolvePendingStatuses(examId);
+        }
+    }
+    
+    private void resolvePendingStatuses(Long examId) {
+        List<Result> pending = resultRepository.findByExamIdAndPassingStatus(examId, PENDING);
+        for (Result result : pending) {
+            result.setPassingStatus(calculatePassingStatus(result));
+        }
+        if (!pending.isEmpty()) {
+            resultRepository.saveAll(pending);
+        }
+    }
+    
     private String calculatePassingStatus(Result result) {
-        try {
-            // Try to get exam details from exam service via API Gateway
-            String examServiceUrl = "http://localhost:8080/api/exams/" + result.getExamId();
-            Map<String, Object> examData = restTemplate.getForObject(examServiceUrl, Map.class);
-            
-            if (examData != null) {
-                Integer passingMarks = (Integer) examData.get("passingMarks");
-                
-                if (passingMarks != null && result.getScore() != null) {
-                    // Compare actual score with passing marks
-                    return result.getScore() >= passingMarks ? "PASS" : "FAIL";
-                }
-            }
-        } catch (Exception e) {
-            // Silently handle exception and use fallback
+        ExamMetadataCache.ExamMetadata exam = examMetadataCache.get(result.getExamId());
+        if (exam == null) {
+            // exam-service could not be reached; never guess, resolvePendingStatuses decides later
+            return PENDING;
         }
-        
-        // Fallback: use 50% of total marks as passing threshold
-        if (result.getTotalMarks() != null && result.getScore() != null) {
-            int passingThreshold = (int) Math.ceil(result.getTotalMarks() * 0.5);
-            return result.getScore() >= passingThreshold ? "PASS" : "FAIL";
+        if (result.getScore() == null) {
+            return "FAIL";
         }
         
-        return "FAIL";
+        Integer passingMarks = exam.getPassingMarks();
+        if (passingMarks == null && result.getTotalMarks() != null) {
+            // The exam sets no passing marks: half of the total marks is the pass mark
+            passingMarks = (int) Math.ceil(result.getTotalMarks() * 0.5);
+        }
+        return passingMarks != null && result.getScore() >= passingMarks ? "PASS" : "FAIL";
     }
 }
\ No newline at end of file
@@ -1,6 +1,14 @@
 @echo off
 echo Starting Exam Portal Services...
 
+echo Installing shared modules...
+call mvn -q install -pl outbox-common,web-common -am -DskipTests
+if errorlevel 1 (
+    echo Failed to install shared modules
+    pause
+    exit /b 1
+)
+
 echo Starting Eureka Server...
 start "Eureka Server" cmd /k "cd eureka-server && mvn spring-boot:run"
 timeout /t 15
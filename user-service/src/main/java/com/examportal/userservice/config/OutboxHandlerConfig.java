@@ -0,0 +1,35 @@
+package com.examportal.userservice.config;
+
+import com.examportal.outbox.OutboxHandler;
+import com.examportal.userservice.client.ExamSessionServiceClient;
+import com.examportal.userservice.client.NotificationServiceClient;
+import com.examportal.userservice.client.ResultServiceClient;
+import com.examportal.userservice.service.UserEvents;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Deliveries for the user clean-up events. Each is a delete by user id, so
+ * repeating one is harmless.
+ */
+@Configuration
+public class OutboxHandlerConfig {
+
+    @Bean
+    public OutboxHandler userResultsDeleteHandler(ResultServiceClient resultServiceClient) {
+        return OutboxHandler.of(UserEvents.RESULTS_DELETE, event ->
+                resultServiceClient.deleteResultsByUserId(event.getLong("userId")));
+    }
+
+    @Bean
+    public OutboxHandler userSessionsDeleteHandler(ExamSessionServiceClient examSessionServiceClient) {
+        return OutboxHandler.of(UserEvents.SESSIONS_DELETE, event ->
+                examSessionServiceClient.deleteExamSessionsByUserId(event.getLong("userId")));
+    }
+
+    @Bean
+    public OutboxHandler userNotificationsDeleteHandler(NotificationServiceClient notificationServiceClient) {
+        return OutboxHandler.of(UserEvents.NOTIFICATIONS_DELETE, event ->
+                notificationServiceClient.deleteNotificationsByUserId(event.getLong("userId")));
+    }
+}
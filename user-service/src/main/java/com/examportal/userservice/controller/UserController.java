@@ -2,6 +2,7 @@ package com.examportal.userservice.controller;
 
 import com.examportal.userservice.dto.LoginRequest;
 import com.examportal.userservice.dto.LoginResponse;
+import com.examportal.userservice.dto.StudentIdResponse;
 import com.examportal.userservice.entity.User;
 import com.examportal.userservice.security.JwtUtil;
 import com.examportal.userservice.service.UserService;
@@ -22,6 +23,7 @@ import jakarta.validation.Valid;
 
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/users")
@@ -141,6 +143,17 @@ public class UserController {
         return ResponseEntity.ok(students);
     }
     
+    // Service callers only; ids are all the notification fan-out needs
+    @GetMapping("/students/batch")
+    public ResponseEntity<List<StudentIdResponse>> getStudentsBatch(
+            @RequestParam(defaultValue = "0") Long afterId,
+            @RequestParam(defaultValue = "500") int size) {
+        List<StudentIdResponse> students = userService.getStudentIdsAfter(afterId, size).stream()
+                .map(StudentIdResponse::new)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(students);
+    }
+    
     @GetMapping("/health")
     public ResponseEntity<String> health() {
         return ResponseEntity.ok("User Service is running!");
@@ -0,0 +1,20 @@
+package com.examportal.userservice.dto;
+
+public class StudentIdResponse {
+    
+    private Long id;
+    
+    public StudentIdResponse() {}
+    
+    public StudentIdResponse(Long id) {
+        this.id = id;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+}
@@ -5,6 +5,8 @@ import com.examportal.userservice.entity.Role;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -19,5 +21,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
 	long countByRole(Role role);
 	List<User> findByRole(Role role);
 	Page<User> findByRole(Role role, Pageable pageable);
+	@Query("SELECT u.id FROM User u WHERE u.role = :role AND u.id > :afterId ORDER BY u.id")
+	List<Long> findIdsByRoleAfter(@Param("role") Role role, @Param("afterId") Long afterId, Pageable pageable);
 	Page<User> findByUsernameContainingIgnoreCase(String username, Pageable pageable);
 }
@@ -1,18 +1,23 @@
 package com.examportal.userservice.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collections;
 
 @Component
 public class JwtRequestFilter extends OncePerRequestFilter {
@@ -23,6 +28,13 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private UserStatusCache userStatusCache;
+
+    // Build the principal from the token claims instead of loading the user per request
+    @Value("${jwt.stateless-auth:false}")
+    private boolean statelessAuth;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
@@ -37,8 +49,23 @@ public class JwtRequestFilter extends OncePerRequestFilter {
             username = jwtUtil.extractUsername(jwt);
         }
 
+        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null
+                && "SERVICE".equals(jwtUtil.extractRole(jwt))) {
+            // Service tokens name a service, not an account, so there is no user to load
+            Claims claims = jwtUtil.extractAllClaims(jwt);
+            if (jwtUtil.validateClaims(claims)) {
+                UsernamePasswordAuthenticationToken serviceAuthentication = new UsernamePasswordAuthenticationToken(
+                        username, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_SERVICE")));
+                serviceAuthentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(serviceAuthentication);
+            }
+        }
+
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            Long userId = statelessAuth ? jwtUtil.extractUserId(jwt) : null;
+            UserDetails userDetails = userId != null
+                    ? statelessUserDetails(jwt, userId)
+                    : this.userDetailsService.loadUserByUsername(username);
             if (jwtUtil.validateToken(jwt, userDetails.getUsername()) && userDetails.isEnabled()) {
                 UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
@@ -49,4 +76,26 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         }
         chain.doFilter(request, response);
     }
+
+    private UserDetails statelessUserDetails(String jwt, Long userId) {
+        Claims claims = jwtUtil.extractAllClaims(jwt);
+        UserStatusCache.UserStatus status = userStatusCache.get(userId);
+
+        // Deleted, renamed or re-roled accounts no longer match the token
+        boolean enabled = status != null
+                && status.isActive()
+                && status.getUsername().equals(claims.getSubject())
+                && status.getRole().equals(claims.get("role", String.class));
+        String role = status != null ? status.getRole() : claims.get("role", String.class);
+
+        return new User(
+                claims.getSubject(),
+                "",
+                enabled,
+                true,
+                true,
+                true,
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role))
+        );
+    }
 }
@@ -63,6 +63,7 @@ public class SecurityConfig {
                 .requestMatchers("/api/users/health").permitAll()
                 .requestMatchers("/api/users/register").permitAll()
                 .requestMatchers("/api/users/students").permitAll()
+                .requestMatchers("/api/users/students/batch").hasRole("SERVICE")
                 .requestMatchers(HttpMethod.GET, "/api/users").hasAnyRole("ADMIN", "TEACHER")
                 .requestMatchers(HttpMethod.GET, "/api/users/*").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.POST, "/api/users").hasRole("ADMIN")
@@ -0,0 +1,110 @@
+package com.examportal.userservice.security;
+
+import com.examportal.userservice.entity.User;
+import com.examportal.userservice.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Small cache of account state (username, role, active flag) by user id, so the
+ * JWT filter can reject disabled or deleted accounts without a query per request.
+ * UserService invalidates entries whenever an account change commits.
+ */
+@Component
+public class UserStatusCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${jwt.user-status-cache.ttl-ms:300000}")
+    private long ttlMillis;
+
+    @Value("${jwt.user-status-cache.max-entries:10000}")
+    private int maxEntries;
+
+    private final ConcurrentHashMap<Long, UserStatus> statuses = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the cached status for the user, loading it on a miss.
+     * Returns null when the user no longer exists.
+     */
+    public UserStatus get(Long userId) {
+        long now = System.currentTimeMillis();
+        UserStatus status = statuses.get(userId);
+        if (status != null && now - status.getLoadedAt() < ttlMillis) {
+            return status;
+        }
+
+        Optional<User> user = userRepository.findById(userId);
+        if (user.isEmpty()) {
+            statuses.remove(userId);
+            return null;
+        }
+
+        status = new UserStatus(user.get().getUsername(), user.get().getRole().name(), user.get().isActive(), now);
+        if (statuses.size() >= maxEntries) {
+            statuses.clear();
+        }
+        statuses.put(userId, status);
+        return status;
+    }
+
+    /**
+     * Drops the user's entry once the surrounding transaction commits, so a
+     * request in between cannot cache the state that is being replaced.
+     */
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            afterCommit(() -> statuses.remove(userId));
+        }
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    public static final class UserStatus {
+        private final String username;
+        private final String role;
+        private final boolean active;
+        private final long loadedAt;
+
+        UserStatus(String username, String role, boolean active, long loadedAt) {
+            this.username = username;
+            this.role = role;
+            this.active = active;
+            this.loadedAt = loadedAt;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getRole() {
+            return role;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public long getLoadedAt() {
+            return loadedAt;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.examportal.userservice.service;
+
+import com.examportal.outbox.Outbox;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Queues the clean-up other services do when a user is removed. Call from
+ * inside the transaction that deletes the user.
+ */
+@Component
+public class UserEvents {
+    
+    public static final String RESULTS_DELETE = "user.results.delete";
+    public static final String SESSIONS_DELETE = "user.sessions.delete";
+    public static final String NOTIFICATIONS_DELETE = "user.notifications.delete";
+    
+    @Autowired
+    private Outbox outbox;
+    
+    // One event per service, so a failing service is retried on its own
+    public void deleted(Long userId) {
+        Map<String, Object> payload = Map.of("userId", userId);
+        outbox.enqueue(RESULTS_DELETE, RESULTS_DELETE + ":" + userId, payload);
+        outbox.enqueue(SESSIONS_DELETE, SESSIONS_DELETE + ":" + userId, payload);
+        outbox.enqueue(NOTIFICATIONS_DELETE, NOTIFICATIONS_DELETE + ":" + userId, payload);
+    }
+}
@@ -1,16 +1,16 @@
 package com.examportal.userservice.service;
 
-import com.examportal.userservice.client.ExamSessionServiceClient;
-import com.examportal.userservice.client.NotificationServiceClient;
-import com.examportal.userservice.client.ResultServiceClient;
 import com.examportal.userservice.entity.Role;
 import com.examportal.userservice.entity.User;
 import com.examportal.userservice.repository.UserRepository;
+import com.examportal.userservice.security.UserStatusCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -25,13 +25,10 @@ public class UserService {
     private PasswordEncoder passwordEncoder;
     
     @Autowired
-    private ResultServiceClient resultServiceClient;
+    private UserEvents userEvents;
     
     @Autowired
-    private ExamSessionServiceClient examSessionServiceClient;
-    
-    @Autowired
-    private NotificationServiceClient notificationServiceClient;
+    private UserStatusCache userStatusCache;
     
     public List<User> getAllUsers() {
         return userRepository.findAll();
@@ -101,36 +98,22 @@ public class UserService {
         }
         user.setRole(userDetails.getRole());
         user.setActive(userDetails.isActive());
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        userStatusCache.invalidate(id);
+        return savedUser;
     }
     
+    @Transactional
     public void deleteUser(Long id) {
         User user = getUserById(id);
         if (user.getRole() == Role.ADMIN) {
             throw new RuntimeException("Cannot delete the ADMIN user");
         }
         
-        // Delete related data from other services
-        try {
-            resultServiceClient.deleteResultsByUserId(id);
-        } catch (Exception e) {
-            System.err.println("Failed to delete results for user " + id + ": " + e.getMessage());
-        }
-        
-        try {
-            examSessionServiceClient.deleteExamSessionsByUserId(id);
-        } catch (Exception e) {
-            System.err.println("Failed to delete exam sessions for user " + id + ": " + e.getMessage());
-        }
-        
-        try {
-            notificationServiceClient.deleteNotificationsByUserId(id);
-        } catch (Exception e) {
-            System.err.println("Failed to delete notifications for user " + id + ": " + e.getMessage());
-        }
-        
-        // Finally delete the user
         userRepository.deleteById(id);
+        // Results, sessions and notifications are deleted by the outbox relay after commit
+        userEvents.deleted(id);
+        userStatusCache.invalidate(id);
     }
     
     public User getUserByUsername(String username) {
@@ -141,4 +124,11 @@ public class UserService {
     public List<User> getStudents() {
         return userRepository.findByRole(Role.STUDENT);
     }
+    
+    // Keyset page of students ordered by id, for callers that walk the whole list
+    public List<Long> getStudentIdsAfter(Long afterId, int size) {
+        int pageSize = Math.max(1, Math.min(size, 1000));
+        return userRepository.findIdsByRoleAfter(
+                Role.STUDENT, afterId == null ? 0L : afterId, PageRequest.of(0, pageSize));
+    }
 }
@@ -0,0 +1,62 @@
+package com.examportal.web;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated list, newest first. Pass nextCursor back as
+ * the cursor parameter for the following page; it is null on the last page.
+ * Each page is an index range scan starting after the cursor id, so deep
+ * pages cost the same as the first.
+ */
+public class CursorPage<T> {
+    
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 200;
+    
+    private final List<T> items;
+    private final Long nextCursor;
+    private final boolean hasMore;
+    
+    private CursorPage(List<T> items, Long nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+    
+    /**
+     * Builds a page from up to size + 1 rows fetched in id order; the extra row
+     * only signals that another page exists.
+     */
+    public static <T> CursorPage<T> of(List<T> fetched, int size, Function<T, Long> idOf) {
+        boolean hasMore = fetched.size() > size;
+        List<T> items = hasMore ? fetched.subList(0, size) : fetched;
+        Long nextCursor = hasMore ? idOf.apply(items.get(items.size() - 1)) : null;
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+    
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+    
+    // Ids are below the cursor; no cursor means start from the newest row
+    public static long startBefore(Long cursor) {
+        return cursor != null ? cursor : Long.MAX_VALUE;
+    }
+    
+    public List<T> getItems() {
+        return items;
+    }
+    
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+    
+    public boolean isHasMore() {
+        return hasMore;
+    }
+    
+    public int getSize() {
+        return items.size();
+    }
+}
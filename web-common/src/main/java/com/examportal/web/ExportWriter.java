@@ -0,0 +1,169 @@
+package com.examportal.web;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes result set rows as CSV or newline-delimited JSON, one row at a time,
+ * optionally gzipped. Column names come from the result set metadata, so the
+ * export query decides what is written.
+ */
+public class ExportWriter implements Closeable {
+
+    public enum Format {
+        CSV("csv", "text/csv"),
+        NDJSON("ndjson", "application/x-ndjson");
+
+        private final String extension;
+        private final String contentType;
+
+        Format(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public static Format parse(String value) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export format: " + value + " (use csv or ndjson)");
+        }
+    }
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final Format format;
+    private final Writer writer;
+    private final JsonGenerator json;
+    private String[] columns;
+    private long rows;
+
+    public ExportWriter(OutputStream out, Format format, boolean gzip) throws IOException {
+        this.format = format;
+        OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+        this.writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 64 * 1024);
+        if (format == Format.NDJSON) {
+            this.json = JSON.createGenerator(writer);
+            this.json.setRootValueSeparator(null);
+        } else {
+            this.json = null;
+        }
+    }
+
+    public static HttpHeaders headers(String name, Format format, boolean gzip) {
+        HttpHeaders headers = new HttpHeaders();
+        String fileName = name + "." + format.extension + (gzip ? ".gz" : "");
+        headers.setContentType(MediaType.parseMediaType(gzip ? "application/gzip" : format.contentType));
+        headers.setContentDisposition(ContentDisposition.attachment().filename(fileName).build());
+        return headers;
+    }
+
+    public void writeRow(ResultSet rs) throws SQLException, IOException {
+        if (columns == null) {
+            readColumns(rs.getMetaData());
+        }
+        if (format == Format.CSV) {
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeCsvValue(rs.getObject(i + 1));
+            }
+            writer.write('\n');
+        } else {
+            json.writeStartObject();
+            for (int i = 0; i < columns.length; i++) {
+                json.writeFieldName(columns[i]);
+                writeJsonValue(rs.getObject(i + 1));
+            }
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+        rows++;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (json != null) {
+            json.close();
+        }
+        // Closing finishes the gzip trailer and the response stream
+        writer.close();
+    }
+
+    private void readColumns(ResultSetMetaData metaData) throws SQLException, IOException {
+        columns = new String[metaData.getColumnCount()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = metaData.getColumnLabel(i + 1);
+        }
+        if (format == Format.CSV) {
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeCsvValue(columns[i]);
+            }
+            writer.write('\n');
+        }
+    }
+
+    private void writeCsvValue(Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value instanceof Timestamp ? ((Timestamp) value).toLocalDateTime().toString() : value.toString();
+        boolean quote = false;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private void writeJsonValue(Object value) throws IOException {
+        if (value == null) {
+            json.writeNull();
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short) {
+            json.writeNumber(((Number) value).longValue());
+        } else if (value instanceof BigDecimal) {
+            json.writeNumber((BigDecimal) value);
+        } else if (value instanceof Number) {
+            json.writeNumber(((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            json.writeBoolean((Boolean) value);
+        } else if (value instanceof Timestamp) {
+            json.writeString(((Timestamp) value).toLocalDateTime().toString());
+        } else {
+            json.writeString(value.toString());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.examportal.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CursorPageTest {
+
+    private static final Function<Long, Long> ID = Function.identity();
+
+    @Test
+    void extraRowMeansAnotherPage() {
+        CursorPage<Long> page = CursorPage.of(List.of(50L, 40L, 30L, 20L), 3, ID);
+
+        assertThat(page.getItems()).containsExactly(50L, 40L, 30L);
+        assertThat(page.getSize()).isEqualTo(3);
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(page.getNextCursor()).isEqualTo(30L);
+    }
+
+    @Test
+    void exactlyFullPageIsTheLast() {
+        CursorPage<Long> page = CursorPage.of(List.of(50L, 40L, 30L), 3, ID);
+
+        assertThat(page.getItems()).containsExactly(50L, 40L, 30L);
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void shortAndEmptyPagesAreTheLast() {
+        CursorPage<Long> shortPage = CursorPage.of(List.of(50L), 3, ID);
+        CursorPage<Long> empty = CursorPage.of(List.of(), 3, ID);
+
+        assertThat(shortPage.getItems()).containsExactly(50L);
+        assertThat(shortPage.getNextCursor()).isNull();
+        assertThat(empty.getItems()).isEmpty();
+        assertThat(empty.isHasMore()).isFalse();
+        assertThat(empty.getNextCursor()).isNull();
+    }
+
+    @Test
+    void sizeIsClampedToOneThroughMax() {
+        assertThat(CursorPage.clampSize(0)).isEqualTo(1);
+        assertThat(CursorPage.clampSize(-5)).isEqualTo(1);
+        assertThat(CursorPage.clampSize(CursorPage.DEFAULT_SIZE)).isEqualTo(CursorPage.DEFAULT_SIZE);
+        assertThat(CursorPage.clampSize(CursorPage.MAX_SIZE + 1)).isEqualTo(CursorPage.MAX_SIZE);
+    }
+
+    @Test
+    void noCursorStartsFromTheNewestRow() {
+        assertThat(CursorPage.startBefore(null)).isEqualTo(Long.MAX_VALUE);
+        assertThat(CursorPage.startBefore(30L)).isEqualTo(30L);
+    }
+}